@@ -1,5 +1,6 @@
 package com.nexusgate.config_service.controller;
 
+import com.nexusgate.config_service.dto.ApiKeyChangesDto;
 import com.nexusgate.config_service.dto.ApiKeyDto;
 import com.nexusgate.config_service.dto.CreateApiKeyRequest;
 import com.nexusgate.config_service.service.ApiKeyService;
@@ -44,6 +45,14 @@ public class ApiKeyController {
         return ResponseEntity.ok(apiKey);
     }
 
+    // Change feed for gateways: keys changed after sinceVersion (full set if missing, paged by afterId)
+    @GetMapping("/changes")
+    public ResponseEntity<ApiKeyChangesDto> getApiKeyChanges(
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestParam(required = false) Long afterId) {
+        return ResponseEntity.ok(apiKeyService.getChangesSince(sinceVersion, afterId));
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<ApiKeyDto> validateApiKey(@RequestParam String keyValue) {
         ApiKeyDto apiKey = apiKeyService.validateApiKey(keyValue);
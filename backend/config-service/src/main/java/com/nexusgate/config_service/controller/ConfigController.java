@@ -0,0 +1,41 @@
+package com.nexusgate.config_service.controller;
+
+import com.nexusgate.config_service.dto.ConfigSnapshotDto;
+import com.nexusgate.config_service.dto.ConfigVersionDto;
+import com.nexusgate.config_service.service.ConfigSnapshotService;
+import com.nexusgate.config_service.service.ConfigWatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Pull protocol for gateways: wait on /config/watch, then fetch /config/snapshot
+ */
+@RestController
+@RequestMapping("/config")
+@RequiredArgsConstructor
+public class ConfigController {
+
+    private final ConfigSnapshotService configSnapshotService;
+    private final ConfigWatchService configWatchService;
+
+    // Routes and effective rate limits; 304 if If-None-Match has the current ETag
+    @GetMapping("/snapshot")
+    public ResponseEntity<ConfigSnapshotDto> getSnapshot(WebRequest request) {
+        ConfigSnapshotService.Snapshot snapshot = configSnapshotService.getSnapshot();
+        if (request.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.body());
+    }
+
+    // Long-poll: 200 with the new version (and API key version) once it differs from the given one, 304 on timeout
+    @GetMapping("/watch")
+    public DeferredResult<ResponseEntity<ConfigVersionDto>> watch(
+            @RequestParam(defaultValue = "-1") long version) {
+        return configWatchService.watch(version);
+    }
+}
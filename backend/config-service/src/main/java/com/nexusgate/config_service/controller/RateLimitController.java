@@ -93,6 +93,18 @@ public class RateLimitController {
         return ResponseEntity.ok(rateLimit);
     }
 
+    /**
+     * All rules as effective limits (source SPECIFIC / DEFAULT / GLOBAL) plus the
+     * system default (source SYSTEM) - bulk preload for the gateway's local table
+     *
+     * GET /rate-limits/effective
+     */
+    @GetMapping("/effective")
+    public ResponseEntity<List<EffectiveRateLimitResponse>> getAllEffectiveRateLimits() {
+        List<EffectiveRateLimitResponse> rateLimits = rateLimitService.getAllEffectiveRateLimits();
+        return ResponseEntity.ok(rateLimits);
+    }
+
     /**
      * Update rate limit
      * PUT /rate-limits/{id}
@@ -0,0 +1,22 @@
+package com.nexusgate.config_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ========== API KEY CHANGE FEED ==========
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyChangesDto {
+    private Long version;          // Ask for changes since this version next
+    private Boolean full;          // true → keys is a page of the complete set (by id), replace everything
+    private Boolean hasMore;       // true → more changes after version, ask again right away
+    private List<ApiKeyDto> keys;  // Changed keys (revoked ones with isActive=false), oldest change first
+    private Long nextAfterId;      // Full set only: pass as afterId for the next page (hasMore)
+    private Long totalKeys;        // Full set only, first page: keys in the set, to size the gateway's table
+}
@@ -0,0 +1,19 @@
+package com.nexusgate.config_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// ========== CONSOLIDATED GATEWAY CONFIG ==========
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigSnapshotDto {
+    private Long version;                               // Config version (/config/watch) this snapshot was read at
+    private List<ServiceRouteDto> routes;               // Active routes
+    private List<EffectiveRateLimitResponse> rateLimits; // All rules plus the system default
+}
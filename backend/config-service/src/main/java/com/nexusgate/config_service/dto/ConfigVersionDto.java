@@ -0,0 +1,13 @@
+package com.nexusgate.config_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigVersionDto {
+    private Long version;
+    private Long apiKeyVersion;  // API key change feed version - gateways sync keys from /api/keys/changes when it moves
+}
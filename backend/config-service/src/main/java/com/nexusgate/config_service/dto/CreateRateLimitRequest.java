@@ -26,5 +26,8 @@ public class CreateRateLimitRequest {
     @Min(value = 1, message = "Requests per day must be at least 1")
     private Integer requestsPerDay;
 
+    // Optional: TOKEN_BUCKET, GCRA, SLIDING_WINDOW (null → the route's algorithm)
+    private String algorithm;
+
     private String notes;
 }
\ No newline at end of file
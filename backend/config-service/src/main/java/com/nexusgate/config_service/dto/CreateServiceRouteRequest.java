@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 // ========== REQUEST DTO ==========
 @Data
@@ -19,9 +20,36 @@ public class CreateServiceRouteRequest {
     private String publicPath;           // Required: "/api/users/**"
     private String targetUrl;            // Required: "http://user-service:8081"
     private List<String> allowedMethods; // Optional: ["GET","POST","PUT","DELETE"]
+    private List<RouteTargetDto> targets;  // Optional: weighted backend instances
+    private String loadBalancingStrategy;  // Optional: WEIGHTED_ROUND_ROBIN (default), LEAST_OUTSTANDING, P2C_EWMA
+    private String healthCheckPath;        // Optional: "/actuator/health"
     private Boolean requiresApiKey;      // Optional: defaults to true
     private Integer rateLimitPerMinute;  // Optional: defaults to 100
     private Integer rateLimitPerHour;    // Optional: defaults to 5000
+    private Integer rateLimitLeasePercent; // Optional: exact per-request checks if null
+    private String rateLimitAlgorithm;     // Optional: TOKEN_BUCKET (default), GCRA, SLIDING_WINDOW
+    private Integer rateLimitShapingMaxDelayMs; // Optional: queue instead of 429, up to this delay
+    private Integer rateLimitCost;       // Optional: tokens per request, defaults to 1
+    private Map<String, Integer> rateLimitMethodCosts; // Optional: {"POST": 10} - per-method cost
+    private Integer rateLimitCostPerKb;  // Optional: extra tokens per KiB of request body
+    private Integer rateLimitUnknownLengthKb; // Optional: KiB charged for bodies without Content-Length
+    private Integer maxConnections;      // Optional: upstream pool size (gateway default if null)
+    private Integer maxPendingAcquires;  // Optional: pending-acquire queue size
+    private Integer maxIdleTimeMs;       // Optional: idle connection eviction
+    private Integer maxLifeTimeMs;       // Optional: connection lifetime eviction
+    private Boolean keepAlive;           // Optional: HTTP keep-alive (default true)
+    private Boolean resetPoolSettings;   // Update only: true → drop the pool overrides above (gateway defaults) before applying the ones given
+    private Boolean streamingEnabled;    // Optional: defaults to false
+    private Boolean circuitBreakerEnabled; // Optional: gateway default if null
+    private Boolean hedgingEnabled;      // Optional: defaults to false
+    private Integer hedgeDelayMs;        // Optional: observed p95 if null
+    private Integer maxRetries;          // Optional: gateway default if null
+    private Boolean cacheEnabled;        // Optional: defaults to false
+    private Integer cacheTtlSeconds;     // Optional: cache only with upstream freshness info if null
+    private Boolean cacheSharedAcrossApiKeys; // Optional: defaults to false (cached per API key)
+    private Boolean coalescingEnabled;   // Optional: defaults to false
+    private Integer coalescingMaxBytes;  // Optional: gateway default if null
+    private Integer coalescingTimeoutMs; // Optional: gateway default if null
     private Long createdByUserId;        // Required
     private String notes;                // Optional
 }
@@ -19,6 +19,7 @@ public class EffectiveRateLimitResponse {
     private Integer requestsPerHour;
     private Integer requestsPerDay;
     private String source;              // "SPECIFIC", "DEFAULT", "GLOBAL", "SYSTEM"
+    private String algorithm;           // null → the route's algorithm
     private boolean isActive;
 
     // Helper method to create system default
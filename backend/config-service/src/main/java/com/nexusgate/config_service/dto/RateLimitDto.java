@@ -19,6 +19,8 @@ public class RateLimitDto {
     private Integer requestsPerHour;
     private Integer requestsPerDay;
 
+    private String algorithm;  // null → the route's algorithm
+
     private Boolean isActive;
 
     private LocalDateTime createdAt;
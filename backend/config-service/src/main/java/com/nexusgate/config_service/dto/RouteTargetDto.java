@@ -0,0 +1,16 @@
+package com.nexusgate.config_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteTargetDto {
+
+    private String url;      // Required: "http://user-service-2:8081"
+    private Integer weight;  // Optional: defaults to 1
+}
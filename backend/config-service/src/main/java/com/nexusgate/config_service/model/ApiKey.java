@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "api_keys", indexes = {
         @Index(name = "idx_key_value", columnList = "key_value"),
+        @Index(name = "idx_change_version", columnList = "change_version"),
         @Index(name = "idx_created_by_user_id", columnList = "created_by_user_id")
 })
 @Data
@@ -60,4 +61,10 @@ public class ApiKey {
 
     @Column(name = "notes", length = 500)
     private String notes;  // Any additional notes
+
+    // === Change feed ===
+    // Version of the last create/update/revoke (see ApiKeyVersion), 0 for keys older than the feed
+    @Column(name = "change_version", nullable = false)
+    @Builder.Default
+    private Long changeVersion = 0L;
 }
@@ -0,0 +1,25 @@
+package com.nexusgate.config_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row counter behind the API key change feed (/api/keys/changes).
+ * Every key write takes the next version under a row lock, so versions
+ * are committed in order and a gateway never skips a change.
+ */
+@Entity
+@Table(name = "api_key_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyVersion {
+
+    public static final short ID = 1;
+
+    @Id
+    private Short id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
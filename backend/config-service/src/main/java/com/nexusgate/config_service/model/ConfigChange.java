@@ -0,0 +1,46 @@
+package com.nexusgate.config_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row: written in the same transaction as the route, API key or
+ * rate limit change it announces, published to gateways over Redis pub/sub afterwards
+ * (see ConfigChangeRelay). A rolled-back change never gets announced.
+ */
+@Entity
+@Table(name = "config_outbox", indexes = {
+        @Index(name = "idx_config_outbox_unpublished", columnList = "published_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigChange {
+
+    public static final String ROUTE = "ROUTE";
+    public static final String API_KEY = "API_KEY";
+    public static final String RATE_LIMIT = "RATE_LIMIT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ROUTE, API_KEY or RATE_LIMIT
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // NULL until sent to Redis
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,25 @@
+package com.nexusgate.config_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row counter behind /config/watch and /config/snapshot.
+ * Advanced under a row lock with every route, API key or rate limit change
+ * (ConfigChangeService), so watchers see versions in commit order.
+ */
+@Entity
+@Table(name = "config_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigVersion {
+
+    public static final short ID = 1;
+
+    @Id
+    private Short id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
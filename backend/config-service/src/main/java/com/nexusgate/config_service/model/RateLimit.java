@@ -63,6 +63,13 @@ public class RateLimit {
     @Column(name = "requests_per_day")
     private Integer requestsPerDay;
 
+    /**
+     * Rate limiting algorithm: "TOKEN_BUCKET", "GCRA" or "SLIDING_WINDOW"
+     * NULL → the service route's algorithm
+     */
+    @Column(name = "algorithm", length = 30)
+    private String algorithm;
+
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
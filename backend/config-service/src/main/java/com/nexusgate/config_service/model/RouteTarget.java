@@ -0,0 +1,36 @@
+package com.nexusgate.config_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RouteTarget - one backend instance behind a ServiceRoute
+ *
+ * Stored in service_route_targets. The gateway spreads traffic over all
+ * targets of a route using the route's load balancing strategy.
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteTarget {
+
+    /**
+     * Backend instance URL
+     * Example: "http://user-service-2:8082/users"
+     */
+    @Column(name = "url", nullable = false, length = 500)
+    private String url;
+
+    /**
+     * Relative weight (1 to 10000). A target with weight 2 gets twice the share of weight 1.
+     */
+    @Column(name = "weight", nullable = false)
+    @Builder.Default
+    private Integer weight = 1;
+}
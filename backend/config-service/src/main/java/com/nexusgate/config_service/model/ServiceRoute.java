@@ -6,8 +6,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ServiceRoute - YOUR backend APIs that you're exposing through the gateway
@@ -61,6 +64,33 @@ public class ServiceRoute {
     @Builder.Default
     private String allowedMethods = "{GET,POST,PUT,DELETE}";
 
+    // ============ LOAD BALANCING CONFIG ============
+
+    /**
+     * Weighted backend instances for this route
+     * Empty → all traffic goes to targetUrl
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "service_route_targets", joinColumns = @JoinColumn(name = "service_route_id"))
+    @OrderColumn(name = "position")
+    @Builder.Default
+    private List<RouteTarget> targets = new ArrayList<>();
+
+    /**
+     * How the gateway picks a target
+     * Options: "WEIGHTED_ROUND_ROBIN", "LEAST_OUTSTANDING", "P2C_EWMA"
+     */
+    @Column(name = "load_balancing_strategy", length = 30)
+    @Builder.Default
+    private String loadBalancingStrategy = "WEIGHTED_ROUND_ROBIN";
+
+    /**
+     * Path the gateway probes on every target (e.g. "/actuator/health")
+     * NULL → no active probes, only passive outlier ejection
+     */
+    @Column(name = "health_check_path", length = 200)
+    private String healthCheckPath;
+
     // ============ AUTHENTICATION CONFIG (NEW!) ============
 
     /**
@@ -111,6 +141,64 @@ public class ServiceRoute {
     @Builder.Default
     private Integer rateLimitPerHour = 5000;
 
+    /**
+     * Token lease size as a percentage of the per-minute limit
+     * Each gateway node takes this many tokens from Redis at once and spends them locally
+     * Worst-case over-admission ≈ nodes × lease size
+     * NULL or 0 → every request is checked against Redis (exact)
+     */
+    @Column(name = "rate_limit_lease_percent")
+    private Integer rateLimitLeasePercent;
+
+    /**
+     * Rate limiting algorithm, unless the rate limit rule sets its own
+     * Options: "TOKEN_BUCKET", "GCRA", "SLIDING_WINDOW"
+     * Leases (rateLimitLeasePercent) apply to TOKEN_BUCKET only
+     */
+    @Column(name = "rate_limit_algorithm", length = 30)
+    @Builder.Default
+    private String rateLimitAlgorithm = "TOKEN_BUCKET";
+
+    /**
+     * Traffic shaping: longest time a request over its limit is queued on the gateway
+     * until a token is available, instead of getting 429 right away
+     * NULL or 0 → reject immediately
+     */
+    @Column(name = "rate_limit_shaping_max_delay_ms")
+    private Integer rateLimitShapingMaxDelayMs;
+
+    /**
+     * Tokens one request takes from every rate limit tier
+     * NULL → 1 (limits count requests)
+     */
+    @Column(name = "rate_limit_cost")
+    private Integer rateLimitCost;
+
+    /**
+     * Per HTTP method cost, overriding rateLimitCost
+     * Example: {"POST": 10, "GET": 1}
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "service_route_method_costs", joinColumns = @JoinColumn(name = "service_route_id"))
+    @MapKeyColumn(name = "http_method", length = 10)
+    @Column(name = "cost", nullable = false)
+    @Builder.Default
+    private Map<String, Integer> rateLimitMethodCosts = new HashMap<>();
+
+    /**
+     * Extra tokens per started KiB of request body (Content-Length)
+     * NULL or 0 → body size does not matter
+     */
+    @Column(name = "rate_limit_cost_per_kb")
+    private Integer rateLimitCostPerKb;
+
+    /**
+     * KiB charged (× rateLimitCostPerKb) for a request body without Content-Length (chunked upload)
+     * NULL → gateway default (gateway.rate-limit.unknown-length-kb)
+     */
+    @Column(name = "rate_limit_unknown_length_kb")
+    private Integer rateLimitUnknownLengthKb;
+
     // ============ TIMEOUT CONFIG ============
 
     /**
@@ -121,6 +209,123 @@ public class ServiceRoute {
     @Builder.Default
     private Integer timeoutMs = 30000;  // Default 30 seconds
 
+    // ============ CONNECTION POOL CONFIG ============
+
+    /**
+     * Upstream connection pool settings (per target origin)
+     * NULL → gateway defaults are used
+     */
+    @Column(name = "max_connections")
+    private Integer maxConnections;
+
+    @Column(name = "max_pending_acquires")
+    private Integer maxPendingAcquires;  // Requests allowed to wait for a free connection
+
+    @Column(name = "max_idle_time_ms")
+    private Integer maxIdleTimeMs;  // Idle connections are evicted after this
+
+    @Column(name = "max_life_time_ms")
+    private Integer maxLifeTimeMs;  // Connections are closed after this, even if busy-reused
+
+    @Column(name = "keep_alive")
+    private Boolean keepAlive;
+
+    // ============ STREAMING CONFIG ============
+
+    /**
+     * Stream request/response bodies straight between client and backend
+     * true → no buffering in the gateway (large uploads/downloads)
+     * false → regular forwarding
+     */
+    @Column(name = "streaming_enabled", nullable = false)
+    @Builder.Default
+    private Boolean streamingEnabled = false;
+
+    // ============ CIRCUIT BREAKER CONFIG ============
+
+    /**
+     * Per-route circuit breaker in the gateway
+     * true → fail fast with 503 while the backend is failing
+     * false → always forward
+     * NULL → gateway default (enabled)
+     */
+    @Column(name = "circuit_breaker_enabled")
+    private Boolean circuitBreakerEnabled;
+
+    // ============ HEDGING & RETRY CONFIG ============
+
+    /**
+     * Hedged requests (GET/HEAD/OPTIONS only)
+     * true → if the first attempt is slow, send a second one to another target
+     *        and use whichever answers first
+     */
+    @Column(name = "hedging_enabled", nullable = false)
+    @Builder.Default
+    private Boolean hedgingEnabled = false;
+
+    /**
+     * Delay before the hedged attempt
+     * NULL → route's observed p95 latency
+     */
+    @Column(name = "hedge_delay_ms")
+    private Integer hedgeDelayMs;
+
+    /**
+     * Retries on connect failures (idempotent methods only, limited by the gateway retry budget)
+     * NULL → gateway default
+     */
+    @Column(name = "max_retries")
+    private Integer maxRetries;
+
+    // ============ RESPONSE CACHE CONFIG ============
+
+    /**
+     * Gateway response cache for GET requests
+     * Honors Cache-Control, Expires and Vary of the upstream response
+     */
+    @Column(name = "cache_enabled", nullable = false)
+    @Builder.Default
+    private Boolean cacheEnabled = false;
+
+    /**
+     * Freshness lifetime when the upstream response carries no Cache-Control max-age/Expires
+     * NULL → such responses are not cached
+     */
+    @Column(name = "cache_ttl_seconds")
+    private Integer cacheTtlSeconds;
+
+    /**
+     * Share cached responses between API keys
+     * FALSE → cached per API key unless the upstream marks them public / s-maxage
+     */
+    @Column(name = "cache_shared_across_api_keys", nullable = false)
+    @Builder.Default
+    private Boolean cacheSharedAcrossApiKeys = false;
+
+    // ============ REQUEST COALESCING CONFIG ============
+
+    /**
+     * Single-flight for identical concurrent GET requests
+     * true → requests with the same path, query and key headers share one upstream call
+     */
+    @Column(name = "coalescing_enabled", nullable = false)
+    @Builder.Default
+    private Boolean coalescingEnabled = false;
+
+    /**
+     * Largest response body that is shared; larger responses are fetched per request
+     * NULL → gateway default
+     */
+    @Column(name = "coalescing_max_bytes")
+    private Integer coalescingMaxBytes;
+
+    /**
+     * How long a waiting request follows the in-flight call before fetching on its own
+     * NULL → gateway default
+     */
+    @Column(name = "coalescing_timeout_ms")
+    private Integer coalescingTimeoutMs;
+
     // ============ CUSTOM HEADERS ============
 
     /**
@@ -13,4 +13,6 @@ public interface ApiKeyRepository extends JpaRepository<ApiKey,Long> {
     List<ApiKey> findByCreatedByUserId(Long userId);
     List<ApiKey> findByCreatedByUserIdAndIsActive(Long userId, Boolean isActive);
     List<ApiKey> findByClientName(String clientName);
+    List<ApiKey> findTop500ByChangeVersionGreaterThanOrderByChangeVersionAsc(Long changeVersion);
+    List<ApiKey> findTop1000ByIdGreaterThanOrderByIdAsc(Long id);
 }
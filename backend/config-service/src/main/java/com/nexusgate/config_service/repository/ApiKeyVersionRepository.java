@@ -0,0 +1,19 @@
+package com.nexusgate.config_service.repository;
+
+import com.nexusgate.config_service.model.ApiKeyVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ApiKeyVersionRepository extends JpaRepository<ApiKeyVersion, Short> {
+
+    // Held until the writing transaction commits - key writes are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ApiKeyVersion v WHERE v.id = :id")
+    Optional<ApiKeyVersion> findForUpdate(Short id);
+}
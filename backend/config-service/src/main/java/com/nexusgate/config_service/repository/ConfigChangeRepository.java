@@ -0,0 +1,23 @@
+package com.nexusgate.config_service.repository;
+
+import com.nexusgate.config_service.model.ConfigChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConfigChangeRepository extends JpaRepository<ConfigChange, Long> {
+
+    // Oldest unpublished changes; rows locked by another config-service instance are skipped
+    @Query(value = "SELECT * FROM config_outbox WHERE published_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ConfigChange> lockUnpublished(int limit);
+
+    @Modifying
+    @Query("DELETE FROM ConfigChange c WHERE c.publishedAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
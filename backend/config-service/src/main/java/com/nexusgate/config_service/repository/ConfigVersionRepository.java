@@ -0,0 +1,19 @@
+package com.nexusgate.config_service.repository;
+
+import com.nexusgate.config_service.model.ConfigVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ConfigVersionRepository extends JpaRepository<ConfigVersion, Short> {
+
+    // Held until the writing transaction commits - config writes are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ConfigVersion v WHERE v.id = :id")
+    Optional<ConfigVersion> findForUpdate(Short id);
+}
@@ -1,10 +1,14 @@
 package com.nexusgate.config_service.service;
 
+import com.nexusgate.config_service.dto.ApiKeyChangesDto;
 import com.nexusgate.config_service.dto.ApiKeyDto;
 import com.nexusgate.config_service.dto.CreateApiKeyRequest;
 import com.nexusgate.config_service.exception.ResourceNotFoundException;
 import com.nexusgate.config_service.model.ApiKey;
+import com.nexusgate.config_service.model.ApiKeyVersion;
+import com.nexusgate.config_service.model.ConfigChange;
 import com.nexusgate.config_service.repository.ApiKeyRepository;
+import com.nexusgate.config_service.repository.ApiKeyVersionRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +26,11 @@ import java.util.stream.Collectors;
 public class ApiKeyService {
 
     private final ApiKeyRepository apiKeyRepository;
+    private final ApiKeyVersionRepository apiKeyVersionRepository;
+    private final ConfigChangeService configChangeService;
     private static final String KEY_PREFIX = "nx_";
+    private static final int CHANGES_PAGE_SIZE = 500;
+    private static final int FULL_PAGE_SIZE = 1000;
 
     @Transactional
     public ApiKeyDto createApiKey(CreateApiKeyRequest request){
@@ -38,8 +46,10 @@ public class ApiKeyService {
                 .isActive(true)
                 .expiresAt(request.getExpiresAt())
                 .notes(request.getNotes())
+                .changeVersion(nextVersion())
                 .build();
         apiKey = apiKeyRepository.save(apiKey);
+        configChangeService.recordChange(ConfigChange.API_KEY, apiKey.getId());
 
         log.info("Created API key: {} for client: {} by user: {}",
                 apiKey.getKeyName(), apiKey.getClientName(), apiKey.getCreatedByUserId());
@@ -92,7 +102,9 @@ public class ApiKeyService {
                 .orElseThrow(() -> new ResourceNotFoundException("API key not found with id: " + id));
 
         apiKey.setIsActive(false);
+        apiKey.setChangeVersion(nextVersion());
         apiKeyRepository.save(apiKey);
+        configChangeService.recordChange(ConfigChange.API_KEY, id);
         log.info("Revoked API key: {} for client: {}", apiKey.getKeyName(), apiKey.getClientName());
     }
 
@@ -108,13 +120,68 @@ public class ApiKeyService {
         apiKey.setClientCompany(request.getClientCompany());
         apiKey.setExpiresAt(request.getExpiresAt());
         apiKey.setNotes(request.getNotes());
+        apiKey.setChangeVersion(nextVersion());
 
         apiKey = apiKeyRepository.save(apiKey);
+        configChangeService.recordChange(ConfigChange.API_KEY, id);
         log.info("Updated API key: {} for client: {}", apiKey.getKeyName(), apiKey.getClientName());
 
         return convertToDto(apiKey);
     }
 
+    /**
+     * Keys changed after sinceVersion, oldest change first, for gateways to apply as deltas.
+     * No (or a negative) sinceVersion, or one ahead of this service (database restored), gets the full set,
+     * FULL_PAGE_SIZE keys per page in id order: the next page is the one after nextAfterId.
+     * A full load keeps the version of its first page and asks for the changes since it once the
+     * last page is in - that covers keys changed while it was paging.
+     */
+    @Transactional
+    public ApiKeyChangesDto getChangesSince(Long sinceVersion, Long afterId) {
+        // Read the version first: every version up to it is committed, so the rows below include them
+        long current = currentVersion();
+        if (sinceVersion == null || sinceVersion < 0 || sinceVersion > current) {
+            List<ApiKey> page = apiKeyRepository.findTop1000ByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L);
+            boolean hasMore = page.size() == FULL_PAGE_SIZE;
+            return ApiKeyChangesDto.builder()
+                    .version(current)
+                    .full(true)
+                    .hasMore(hasMore)
+                    .keys(page.stream().map(this::convertToDto).collect(Collectors.toList()))
+                    .nextAfterId(hasMore ? page.get(page.size() - 1).getId() : null)
+                    .totalKeys(afterId == null ? apiKeyRepository.count() : null)
+                    .build();
+        }
+
+        List<ApiKey> changed = apiKeyRepository
+                .findTop500ByChangeVersionGreaterThanOrderByChangeVersionAsc(sinceVersion);
+        boolean hasMore = changed.size() == CHANGES_PAGE_SIZE;
+        long version = hasMore
+                ? changed.get(changed.size() - 1).getChangeVersion()
+                : Math.max(current, changed.isEmpty() ? sinceVersion : changed.get(changed.size() - 1).getChangeVersion());
+        return ApiKeyChangesDto.builder()
+                .version(version)
+                .full(false)
+                .hasMore(hasMore)
+                .keys(changed.stream().map(this::convertToDto).collect(Collectors.toList()))
+                .build();
+    }
+
+    // Next change version; the row lock orders concurrent key writes
+    private long nextVersion() {
+        ApiKeyVersion counter = apiKeyVersionRepository.findForUpdate(ApiKeyVersion.ID)
+                .orElseGet(() -> new ApiKeyVersion(ApiKeyVersion.ID, 0L));
+        counter.setVersion(counter.getVersion() + 1);
+        apiKeyVersionRepository.save(counter);
+        return counter.getVersion();
+    }
+
+    public long currentVersion() {
+        return apiKeyVersionRepository.findById(ApiKeyVersion.ID)
+                .map(ApiKeyVersion::getVersion)
+                .orElse(0L);
+    }
+
     private String generateSecureKey() {
         SecureRandom random = new SecureRandom();
         byte[] bytes = new byte[32];
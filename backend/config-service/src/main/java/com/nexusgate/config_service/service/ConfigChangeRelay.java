@@ -0,0 +1,82 @@
+package com.nexusgate.config_service.service;
+
+import com.nexusgate.config_service.model.ConfigChange;
+import com.nexusgate.config_service.repository.ConfigChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes committed outbox rows to gateways over Redis pub/sub.
+ *
+ * Message: "{entityType}:{entityId}" on {@code config.outbox.channel}, e.g. "API_KEY:42".
+ * Delivery is at least once while Redis is up: a row is marked published only after its
+ * message was sent, and unpublished rows are retried on the next run. Pub/sub itself does
+ * not buffer for disconnected gateways - their polling covers what they miss.
+ */
+@Slf4j
+@Service
+public class ConfigChangeRelay {
+
+    private static final long RETENTION_HOURS = 1;
+
+    private final ConfigChangeRepository configChangeRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final int batchSize;
+
+    private volatile boolean redisDown;
+
+    public ConfigChangeRelay(
+            ConfigChangeRepository configChangeRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${config.outbox.channel:nexusgate:config-changes}") String channel,
+            @Value("${config.outbox.batch-size:100}") int batchSize) {
+        this.configChangeRepository = configChangeRepository;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${config.outbox.relay-interval-ms:200}")
+    @Transactional
+    public void relay() {
+        List<ConfigChange> pending = configChangeRepository.lockUnpublished(batchSize);
+        if (pending.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (ConfigChange change : pending) {
+            try {
+                redisTemplate.convertAndSend(channel, change.getEntityType() + ":" + change.getEntityId());
+            } catch (Exception e) {
+                if (!redisDown) {
+                    log.warn("Failed to publish config changes - will retry: {}", e.getMessage());
+                    redisDown = true;
+                }
+                return; // Rows sent so far are marked, the rest stay pending
+            }
+            change.setPublishedAt(now);
+        }
+        if (redisDown) {
+            log.info("Config change publishing resumed");
+            redisDown = false;
+        }
+    }
+
+    // Drop published rows after an hour
+    @Scheduled(fixedDelay = 3600000)
+    @Transactional
+    public void purgePublished() {
+        int deleted = configChangeRepository.deletePublishedBefore(LocalDateTime.now().minusHours(RETENTION_HOURS));
+        if (deleted > 0) {
+            log.debug("Purged {} published config changes", deleted);
+        }
+    }
+}
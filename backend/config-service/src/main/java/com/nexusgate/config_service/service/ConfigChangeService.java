@@ -0,0 +1,42 @@
+package com.nexusgate.config_service.service;
+
+import com.nexusgate.config_service.model.ConfigChange;
+import com.nexusgate.config_service.model.ConfigVersion;
+import com.nexusgate.config_service.repository.ConfigChangeRepository;
+import com.nexusgate.config_service.repository.ConfigVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records config changes in the outbox and advances the config version.
+ * Must run inside the transaction of the change itself, so both commit
+ * (or roll back) with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConfigChangeService {
+
+    private final ConfigChangeRepository configChangeRepository;
+    private final ConfigVersionRepository configVersionRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String entityType, Long entityId) {
+        configChangeRepository.save(ConfigChange.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .build());
+
+        ConfigVersion counter = configVersionRepository.findForUpdate(ConfigVersion.ID)
+                .orElseGet(() -> new ConfigVersion(ConfigVersion.ID, 0L));
+        counter.setVersion(counter.getVersion() + 1);
+        configVersionRepository.save(counter);
+    }
+
+    public long currentVersion() {
+        return configVersionRepository.findById(ConfigVersion.ID)
+                .map(ConfigVersion::getVersion)
+                .orElse(0L);
+    }
+}
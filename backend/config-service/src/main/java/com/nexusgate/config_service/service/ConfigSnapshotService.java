@@ -0,0 +1,104 @@
+package com.nexusgate.config_service.service;
+
+import com.nexusgate.config_service.dto.ConfigSnapshotDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Consolidated gateway config (routes, effective rate limits) for /config/snapshot.
+ *
+ * The snapshot is built once per config version and kept until the version advances, so
+ * conditional requests from any number of gateways cost one single-row version read each.
+ * It is read in one REPEATABLE READ transaction - routes and limits belong together.
+ * The ETag is a SHA-256 of the content, independent of the version it was read at, so a
+ * change that only touched API keys is a 304.
+ *
+ * API keys are not part of it: gateways apply them as deltas from /api/keys/changes when
+ * the key version reported by /config/watch moves, instead of downloading every key on
+ * every config change.
+ */
+@Slf4j
+@Service
+public class ConfigSnapshotService {
+
+    private final ServiceRouteService serviceRouteService;
+    private final RateLimitService rateLimitService;
+    private final ConfigChangeService configChangeService;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile Snapshot cached;
+
+    public ConfigSnapshotService(
+            ServiceRouteService serviceRouteService,
+            RateLimitService rateLimitService,
+            ConfigChangeService configChangeService,
+            PlatformTransactionManager transactionManager) {
+        this.serviceRouteService = serviceRouteService;
+        this.rateLimitService = rateLimitService;
+        this.configChangeService = configChangeService;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Snapshot of the current config version
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = cached;
+        if (current != null && current.body().getVersion() == configChangeService.currentVersion()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    // Synchronized: gateways woken by the same change wait for one build instead of each reading everything
+    private synchronized Snapshot rebuild() {
+        Snapshot current = cached;
+        if (current != null && current.body().getVersion() == configChangeService.currentVersion()) {
+            return current;
+        }
+        Snapshot built = snapshotTransaction.execute(status -> {
+            ConfigSnapshotDto body = ConfigSnapshotDto.builder()
+                    .version(configChangeService.currentVersion())
+                    .routes(serviceRouteService.getActiveServiceRoutes())
+                    .rateLimits(rateLimitService.getAllEffectiveRateLimits())
+                    .build();
+            return new Snapshot(body, etag(body));
+        });
+        cached = built;
+        log.debug("Config snapshot rebuilt at version {} (ETag {})", built.body().getVersion(), built.etag());
+        return built;
+    }
+
+    /**
+     * Hash of every route and limit, each section in a fixed order (the DTOs' field-wise toString)
+     */
+    private static String etag(ConfigSnapshotDto body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (List<?> section : List.of(body.getRoutes(), body.getRateLimits())) {
+            section.stream()
+                    .map(String::valueOf)
+                    .sorted()
+                    .forEach(entry -> digest.update((entry + '\n').getBytes(StandardCharsets.UTF_8)));
+            digest.update((byte) 0);
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    public record Snapshot(ConfigSnapshotDto body, String etag) {}
+}
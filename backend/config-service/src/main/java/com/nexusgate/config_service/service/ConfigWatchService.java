@@ -0,0 +1,108 @@
+package com.nexusgate.config_service.service;
+
+import com.nexusgate.config_service.dto.ConfigVersionDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-poll behind /config/watch: a request waits until the config version passes the
+ * version it knows, or {@code config.watch.timeout-ms} elapses (304, ask again).
+ *
+ * Waiting requests are parked as DeferredResults - no thread is held per gateway. The
+ * version row is read once per {@code config.watch.poll-interval-ms} for all of them, so
+ * changes made through other config-service instances wake them up as well.
+ *
+ * Answers carry the API key version as well (read when the config version moves - every
+ * key change moves both), so gateways fetch key deltas only when keys changed.
+ */
+@Slf4j
+@Service
+public class ConfigWatchService {
+
+    private final ConfigChangeService configChangeService;
+    private final ApiKeyService apiKeyService;
+    private final long timeoutMs;
+
+    private final Map<DeferredResult<ResponseEntity<ConfigVersionDto>>, Long> watchers = new ConcurrentHashMap<>();
+    private volatile long currentVersion = -1;
+    private volatile long apiKeyVersion = -1;
+
+    public ConfigWatchService(
+            ConfigChangeService configChangeService,
+            ApiKeyService apiKeyService,
+            @Value("${config.watch.timeout-ms:30000}") long timeoutMs) {
+        this.configChangeService = configChangeService;
+        this.apiKeyService = apiKeyService;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Completes right away if the config is already past {@code knownVersion} (or behind it -
+     * database restored), otherwise once it changes
+     */
+    public DeferredResult<ResponseEntity<ConfigVersionDto>> watch(long knownVersion) {
+        DeferredResult<ResponseEntity<ConfigVersionDto>> result = new DeferredResult<>(timeoutMs);
+        long version = currentVersion >= 0 ? currentVersion : readVersion();
+        if (version != knownVersion) {
+            result.setResult(changed(version));
+            return result;
+        }
+        result.onTimeout(() -> {
+            watchers.remove(result);
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        });
+        result.onCompletion(() -> watchers.remove(result));
+        result.onError(error -> watchers.remove(result));
+        watchers.put(result, knownVersion);
+
+        // Changed between the read above and registering
+        if (currentVersion != knownVersion && currentVersion >= 0) {
+            notifyWatchers(currentVersion);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${config.watch.poll-interval-ms:250}")
+    public void checkVersion() {
+        readVersion();
+    }
+
+    private synchronized long readVersion() {
+        long version = configChangeService.currentVersion();
+        if (version != currentVersion) {
+            apiKeyVersion = apiKeyService.currentVersion();
+            currentVersion = version;
+            notifyWatchers(version);
+        }
+        return version;
+    }
+
+    private void notifyWatchers(long version) {
+        Iterator<Map.Entry<DeferredResult<ResponseEntity<ConfigVersionDto>>, Long>> it = watchers.entrySet().iterator();
+        int woken = 0;
+        while (it.hasNext()) {
+            Map.Entry<DeferredResult<ResponseEntity<ConfigVersionDto>>, Long> watcher = it.next();
+            if (watcher.getValue() != version) {
+                it.remove();
+                watcher.getKey().setResult(changed(version));
+                woken++;
+            }
+        }
+        if (woken > 0) {
+            log.debug("Config version {} - woke {} watchers", version, woken);
+        }
+    }
+
+    private ResponseEntity<ConfigVersionDto> changed(long version) {
+        return ResponseEntity.ok(new ConfigVersionDto(version, apiKeyVersion));
+    }
+}
@@ -4,6 +4,7 @@ import com.nexusgate.config_service.dto.CreateRateLimitRequest;
 import com.nexusgate.config_service.dto.EffectiveRateLimitResponse;
 import com.nexusgate.config_service.dto.RateLimitDto;
 import com.nexusgate.config_service.exception.ResourceNotFoundException;
+import com.nexusgate.config_service.model.ConfigChange;
 import com.nexusgate.config_service.model.RateLimit;
 import com.nexusgate.config_service.repository.RateLimitRepository;
 import jakarta.validation.Valid;
@@ -19,7 +20,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RateLimitService {
 
+    static final List<String> ALGORITHMS = List.of("TOKEN_BUCKET", "GCRA", "SLIDING_WINDOW");
+
     private final RateLimitRepository rateLimitRepository;
+    private final ConfigChangeService configChangeService;
 
     @Transactional
     public RateLimitDto createRateLimit(@Valid CreateRateLimitRequest request) {
@@ -37,11 +41,13 @@ public class RateLimitService {
                 .requestsPerMinute(request.getRequestsPerMinute())
                 .requestsPerHour(request.getRequestsPerHour())
                 .requestsPerDay(request.getRequestsPerDay())
+                .algorithm(request.getAlgorithm() != null ? validateAlgorithm(request.getAlgorithm()) : null)
                 .isActive(true)
                 .notes(request.getNotes())
                 .build();
 
         RateLimit saved = rateLimitRepository.save(rateLimit);
+        configChangeService.recordChange(ConfigChange.RATE_LIMIT, saved.getId());
         return toDto(saved);
     }
 
@@ -113,6 +119,21 @@ public class RateLimitService {
         return EffectiveRateLimitResponse.systemDefault(apiKeyId, serviceRouteId);
     }
 
+    /**
+     * All rate limit rules as effective limits, plus the system default (source "SYSTEM").
+     * Lets the gateway resolve SPECIFIC → DEFAULT → GLOBAL → SYSTEM locally
+     * instead of calling /rate-limits/check per request.
+     */
+    @Transactional(readOnly = true)
+    public List<EffectiveRateLimitResponse> getAllEffectiveRateLimits() {
+        List<EffectiveRateLimitResponse> limits = rateLimitRepository.findAll()
+                .stream()
+                .map(rateLimit -> toEffectiveResponse(rateLimit, sourceOf(rateLimit)))
+                .collect(Collectors.toList());
+        limits.add(EffectiveRateLimitResponse.systemDefault(null, null));
+        return limits;
+    }
+
     @Transactional
     public RateLimitDto updateRateLimit(Long id, CreateRateLimitRequest request) {
         RateLimit existing = rateLimitRepository.findById(id)
@@ -121,9 +142,11 @@ public class RateLimitService {
         existing.setRequestsPerMinute(request.getRequestsPerMinute());
         existing.setRequestsPerHour(request.getRequestsPerHour());
         existing.setRequestsPerDay(request.getRequestsPerDay());
+        existing.setAlgorithm(request.getAlgorithm() != null ? validateAlgorithm(request.getAlgorithm()) : null);
         existing.setNotes(request.getNotes());
 
         RateLimit updated = rateLimitRepository.save(existing);
+        configChangeService.recordChange(ConfigChange.RATE_LIMIT, id);
         return toDto(updated);
     }
 
@@ -134,6 +157,7 @@ public class RateLimitService {
 
         rateLimit.setIsActive(!rateLimit.getIsActive());
         RateLimit updated = rateLimitRepository.save(rateLimit);
+        configChangeService.recordChange(ConfigChange.RATE_LIMIT, id);
         return toDto(updated);
     }
 
@@ -143,6 +167,7 @@ public class RateLimitService {
             throw new ResourceNotFoundException("Rate limit not found with id: " + id);
         }
         rateLimitRepository.deleteById(id);
+        configChangeService.recordChange(ConfigChange.RATE_LIMIT, id);
     }
 
     // Helper: Convert entity to DTO
@@ -154,6 +179,7 @@ public class RateLimitService {
                 .requestsPerMinute(rateLimit.getRequestsPerMinute())
                 .requestsPerHour(rateLimit.getRequestsPerHour())
                 .requestsPerDay(rateLimit.getRequestsPerDay())
+                .algorithm(rateLimit.getAlgorithm())
                 .isActive(rateLimit.getIsActive())
                 .createdAt(rateLimit.getCreatedAt())
                 .updatedAt(rateLimit.getUpdatedAt())
@@ -161,6 +187,26 @@ public class RateLimitService {
                 .build();
     }
 
+    // Helper: Validate rate limiting algorithm name (also used for service routes)
+    static String validateAlgorithm(String algorithm) {
+        String normalized = algorithm.trim().toUpperCase();
+        if (!ALGORITHMS.contains(normalized)) {
+            throw new IllegalArgumentException(
+                    "Invalid rate limit algorithm: " + algorithm
+                            + ". Supported: " + String.join(", ", ALGORITHMS)
+            );
+        }
+        return normalized;
+    }
+
+    // Helper: Rule type by which ids are set
+    private String sourceOf(RateLimit rateLimit) {
+        if (rateLimit.getApiKeyId() == null) {
+            return "DEFAULT";
+        }
+        return rateLimit.getServiceRouteId() == null ? "GLOBAL" : "SPECIFIC";
+    }
+
     // Helper: Convert entity to effective response
     private EffectiveRateLimitResponse toEffectiveResponse(RateLimit rateLimit, String source) {
         return EffectiveRateLimitResponse.builder()
@@ -171,6 +217,7 @@ public class RateLimitService {
                 .requestsPerHour(rateLimit.getRequestsPerHour())
                 .requestsPerDay(rateLimit.getRequestsPerDay())
                 .source(source)
+                .algorithm(rateLimit.getAlgorithm())
                 .isActive(rateLimit.getIsActive())
                 .build();
     }
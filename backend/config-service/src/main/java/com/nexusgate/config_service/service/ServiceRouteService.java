@@ -1,24 +1,37 @@
 package com.nexusgate.config_service.service;
 
 import com.nexusgate.config_service.dto.CreateServiceRouteRequest;
+import com.nexusgate.config_service.dto.RouteTargetDto;
 import com.nexusgate.config_service.dto.ServiceRouteDto;
 import com.nexusgate.config_service.dto.UpdateSecurityRequest;
 import com.nexusgate.config_service.exception.ResourceNotFoundException;
+import com.nexusgate.config_service.model.ConfigChange;
+import com.nexusgate.config_service.model.RouteTarget;
 import com.nexusgate.config_service.model.ServiceRoute;
 import com.nexusgate.config_service.repository.ServiceRouteRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ServiceRouteService {
 
+    private static final List<String> LOAD_BALANCING_STRATEGIES =
+            List.of("WEIGHTED_ROUND_ROBIN", "LEAST_OUTSTANDING", "P2C_EWMA");
+
+    // Upper bound for target weights - keeps the gateway's weighted schedule arithmetic in range
+    private static final int MAX_TARGET_WEIGHT = 10_000;
+
     private final ServiceRouteRepository serviceRouteRepository;
+    private final ConfigChangeService configChangeService;
 
     // Create new service route
     @Transactional
@@ -41,6 +54,13 @@ public class ServiceRouteService {
                         ? "{" + String.join(",", request.getAllowedMethods()) + "}"
                         : "{GET,POST,PUT,DELETE}"
                 )
+                .targets(toTargets(request.getTargets()))
+                .loadBalancingStrategy(
+                    request.getLoadBalancingStrategy() != null
+                        ? validateStrategy(request.getLoadBalancingStrategy())
+                        : "WEIGHTED_ROUND_ROBIN"
+                )
+                .healthCheckPath(request.getHealthCheckPath())
                 .requiresApiKey(
                     request.getRequiresApiKey() != null
                         ? request.getRequiresApiKey()
@@ -56,12 +76,60 @@ public class ServiceRouteService {
                         ? request.getRateLimitPerHour()
                         : 5000
                 )
+                .rateLimitLeasePercent(request.getRateLimitLeasePercent())
+                .rateLimitAlgorithm(
+                    request.getRateLimitAlgorithm() != null
+                        ? RateLimitService.validateAlgorithm(request.getRateLimitAlgorithm())
+                        : "TOKEN_BUCKET"
+                )
+                .rateLimitShapingMaxDelayMs(request.getRateLimitShapingMaxDelayMs())
+                .rateLimitCost(validateCost(request.getRateLimitCost(), "rateLimitCost"))
+                .rateLimitMethodCosts(toMethodCosts(request.getRateLimitMethodCosts()))
+                .rateLimitCostPerKb(request.getRateLimitCostPerKb())
+                .rateLimitUnknownLengthKb(request.getRateLimitUnknownLengthKb())
+                .maxConnections(request.getMaxConnections())
+                .maxPendingAcquires(request.getMaxPendingAcquires())
+                .maxIdleTimeMs(request.getMaxIdleTimeMs())
+                .maxLifeTimeMs(request.getMaxLifeTimeMs())
+                .keepAlive(request.getKeepAlive())
+                .streamingEnabled(
+                    request.getStreamingEnabled() != null
+                        ? request.getStreamingEnabled()
+                        : false
+                )
+                .circuitBreakerEnabled(request.getCircuitBreakerEnabled())
+                .hedgingEnabled(
+                    request.getHedgingEnabled() != null
+                        ? request.getHedgingEnabled()
+                        : false
+                )
+                .hedgeDelayMs(request.getHedgeDelayMs())
+                .maxRetries(request.getMaxRetries())
+                .cacheEnabled(
+                    request.getCacheEnabled() != null
+                        ? request.getCacheEnabled()
+                        : false
+                )
+                .cacheTtlSeconds(request.getCacheTtlSeconds())
+                .cacheSharedAcrossApiKeys(
+                    request.getCacheSharedAcrossApiKeys() != null
+                        ? request.getCacheSharedAcrossApiKeys()
+                        : false
+                )
+                .coalescingEnabled(
+                    request.getCoalescingEnabled() != null
+                        ? request.getCoalescingEnabled()
+                        : false
+                )
+                .coalescingMaxBytes(request.getCoalescingMaxBytes())
+                .coalescingTimeoutMs(request.getCoalescingTimeoutMs())
                 .isActive(true)
                 .createdByUserId(request.getCreatedByUserId())
                 .notes(request.getNotes())
                 .build();
 
         ServiceRoute saved = serviceRouteRepository.save(serviceRoute);
+        configChangeService.recordChange(ConfigChange.ROUTE, saved.getId());
         return toDto(saved);
     }
 
@@ -132,14 +200,106 @@ public class ServiceRouteService {
                 ? "{" + String.join(",", request.getAllowedMethods()) + "}"
                 : existing.getAllowedMethods()
         );
+        if (request.getTargets() != null) {
+            existing.getTargets().clear();
+            existing.getTargets().addAll(toTargets(request.getTargets()));
+        }
+        if (request.getLoadBalancingStrategy() != null) {
+            existing.setLoadBalancingStrategy(validateStrategy(request.getLoadBalancingStrategy()));
+        }
+        if (request.getHealthCheckPath() != null) {
+            // Empty string disables active probes
+            existing.setHealthCheckPath(
+                request.getHealthCheckPath().isBlank() ? null : request.getHealthCheckPath()
+            );
+        }
         if (request.getRequiresApiKey() != null) {
             existing.setRequiresApiKey(request.getRequiresApiKey());
         }
         existing.setRateLimitPerMinute(request.getRateLimitPerMinute());
         existing.setRateLimitPerHour(request.getRateLimitPerHour());
+        if (request.getRateLimitLeasePercent() != null) {
+            existing.setRateLimitLeasePercent(request.getRateLimitLeasePercent());
+        }
+        if (request.getRateLimitAlgorithm() != null) {
+            existing.setRateLimitAlgorithm(RateLimitService.validateAlgorithm(request.getRateLimitAlgorithm()));
+        }
+        if (request.getRateLimitShapingMaxDelayMs() != null) {
+            existing.setRateLimitShapingMaxDelayMs(request.getRateLimitShapingMaxDelayMs());
+        }
+        if (request.getRateLimitCost() != null) {
+            existing.setRateLimitCost(validateCost(request.getRateLimitCost(), "rateLimitCost"));
+        }
+        if (request.getRateLimitMethodCosts() != null) {
+            existing.getRateLimitMethodCosts().clear();
+            existing.getRateLimitMethodCosts().putAll(toMethodCosts(request.getRateLimitMethodCosts()));
+        }
+        if (request.getRateLimitCostPerKb() != null) {
+            existing.setRateLimitCostPerKb(request.getRateLimitCostPerKb());
+        }
+        if (request.getRateLimitUnknownLengthKb() != null) {
+            existing.setRateLimitUnknownLengthKb(request.getRateLimitUnknownLengthKb());
+        }
+        // Omitted pool fields keep their value - resetPoolSettings clears them back to gateway defaults
+        if (Boolean.TRUE.equals(request.getResetPoolSettings())) {
+            existing.setMaxConnections(null);
+            existing.setMaxPendingAcquires(null);
+            existing.setMaxIdleTimeMs(null);
+            existing.setMaxLifeTimeMs(null);
+            existing.setKeepAlive(null);
+        }
+        if (request.getMaxConnections() != null) {
+            existing.setMaxConnections(request.getMaxConnections());
+        }
+        if (request.getMaxPendingAcquires() != null) {
+            existing.setMaxPendingAcquires(request.getMaxPendingAcquires());
+        }
+        if (request.getMaxIdleTimeMs() != null) {
+            existing.setMaxIdleTimeMs(request.getMaxIdleTimeMs());
+        }
+        if (request.getMaxLifeTimeMs() != null) {
+            existing.setMaxLifeTimeMs(request.getMaxLifeTimeMs());
+        }
+        if (request.getKeepAlive() != null) {
+            existing.setKeepAlive(request.getKeepAlive());
+        }
+        if (request.getStreamingEnabled() != null) {
+            existing.setStreamingEnabled(request.getStreamingEnabled());
+        }
+        if (request.getCircuitBreakerEnabled() != null) {
+            existing.setCircuitBreakerEnabled(request.getCircuitBreakerEnabled());
+        }
+        if (request.getHedgingEnabled() != null) {
+            existing.setHedgingEnabled(request.getHedgingEnabled());
+        }
+        if (request.getHedgeDelayMs() != null) {
+            existing.setHedgeDelayMs(request.getHedgeDelayMs());
+        }
+        if (request.getMaxRetries() != null) {
+            existing.setMaxRetries(request.getMaxRetries());
+        }
+        if (request.getCacheEnabled() != null) {
+            existing.setCacheEnabled(request.getCacheEnabled());
+        }
+        if (request.getCacheTtlSeconds() != null) {
+            existing.setCacheTtlSeconds(request.getCacheTtlSeconds());
+        }
+        if (request.getCacheSharedAcrossApiKeys() != null) {
+            existing.setCacheSharedAcrossApiKeys(request.getCacheSharedAcrossApiKeys());
+        }
+        if (request.getCoalescingEnabled() != null) {
+            existing.setCoalescingEnabled(request.getCoalescingEnabled());
+        }
+        if (request.getCoalescingMaxBytes() != null) {
+            existing.setCoalescingMaxBytes(request.getCoalescingMaxBytes());
+        }
+        if (request.getCoalescingTimeoutMs() != null) {
+            existing.setCoalescingTimeoutMs(request.getCoalescingTimeoutMs());
+        }
         existing.setNotes(request.getNotes());
 
         ServiceRoute updated = serviceRouteRepository.save(existing);
+        configChangeService.recordChange(ConfigChange.ROUTE, id);
         return toDto(updated);
     }
 
@@ -153,6 +313,7 @@ public class ServiceRouteService {
 
         serviceRoute.setIsActive(!serviceRoute.getIsActive());
         ServiceRoute updated = serviceRouteRepository.save(serviceRoute);
+        configChangeService.recordChange(ConfigChange.ROUTE, id);
         return toDto(updated);
     }
 
@@ -170,6 +331,7 @@ public class ServiceRouteService {
 
         serviceRoute.setRequiresApiKey(request.getRequiresApiKey());
         ServiceRoute updated = serviceRouteRepository.save(serviceRoute);
+        configChangeService.recordChange(ConfigChange.ROUTE, id);
         return toDto(updated);
     }
 
@@ -182,6 +344,66 @@ public class ServiceRouteService {
             );
         }
         serviceRouteRepository.deleteById(id);
+        configChangeService.recordChange(ConfigChange.ROUTE, id);
+    }
+
+    // Helper: Validate and convert target DTOs
+    private List<RouteTarget> toTargets(List<RouteTargetDto> targets) {
+        List<RouteTarget> result = new ArrayList<>();
+        if (targets == null) {
+            return result;
+        }
+        for (RouteTargetDto target : targets) {
+            if (target.getUrl() == null || target.getUrl().isBlank()) {
+                throw new IllegalArgumentException("Target url is required");
+            }
+            if (target.getWeight() != null && (target.getWeight() < 1 || target.getWeight() > MAX_TARGET_WEIGHT)) {
+                throw new IllegalArgumentException(
+                    "Target weight must be between 1 and " + MAX_TARGET_WEIGHT + ": " + target.getUrl()
+                );
+            }
+            result.add(RouteTarget.builder()
+                    .url(target.getUrl().trim())
+                    .weight(target.getWeight() != null ? target.getWeight() : 1)
+                    .build());
+        }
+        return result;
+    }
+
+    // Helper: Validate per-method rate limit costs, method names upper-cased
+    private Map<String, Integer> toMethodCosts(Map<String, Integer> methodCosts) {
+        Map<String, Integer> result = new HashMap<>();
+        if (methodCosts == null) {
+            return result;
+        }
+        methodCosts.forEach((method, cost) -> {
+            if (method == null || method.isBlank()) {
+                throw new IllegalArgumentException("Rate limit method cost needs an HTTP method");
+            }
+            String normalized = method.trim().toUpperCase();
+            result.put(normalized, validateCost(cost, "rateLimitMethodCosts." + normalized));
+        });
+        return result;
+    }
+
+    // Helper: A request costs at least one token
+    private Integer validateCost(Integer cost, String field) {
+        if (cost != null && cost < 1) {
+            throw new IllegalArgumentException(field + " must be >= 1");
+        }
+        return cost;
+    }
+
+    // Helper: Validate load balancing strategy name
+    private String validateStrategy(String strategy) {
+        String normalized = strategy.trim().toUpperCase();
+        if (!LOAD_BALANCING_STRATEGIES.contains(normalized)) {
+            throw new IllegalArgumentException(
+                "Invalid load balancing strategy: " + strategy
+                    + ". Supported: " + String.join(", ", LOAD_BALANCING_STRATEGIES)
+            );
+        }
+        return normalized;
     }
 
     // Helper: Convert entity to DTO
@@ -197,10 +419,49 @@ public class ServiceRouteService {
                         ? Arrays.asList(serviceRoute.getAllowedMethods().replaceAll("[{}]", "").split(","))
                         : java.util.Collections.emptyList()
                 )
+                .targets(
+                    serviceRoute.getTargets() != null
+                        ? serviceRoute.getTargets().stream()
+                            .map(target -> RouteTargetDto.builder()
+                                    .url(target.getUrl())
+                                    .weight(target.getWeight())
+                                    .build())
+                            .collect(Collectors.toList())
+                        : java.util.Collections.emptyList()
+                )
+                .loadBalancingStrategy(serviceRoute.getLoadBalancingStrategy())
+                .healthCheckPath(serviceRoute.getHealthCheckPath())
                 .requiresApiKey(serviceRoute.getRequiresApiKey())
                 .rateLimitEnabled(serviceRoute.getRateLimitEnabled())  // CRITICAL FIX: Added to enable gateway rate limiting
                 .rateLimitPerMinute(serviceRoute.getRateLimitPerMinute())
                 .rateLimitPerHour(serviceRoute.getRateLimitPerHour())
+                .rateLimitLeasePercent(serviceRoute.getRateLimitLeasePercent())
+                .rateLimitAlgorithm(serviceRoute.getRateLimitAlgorithm())
+                .rateLimitShapingMaxDelayMs(serviceRoute.getRateLimitShapingMaxDelayMs())
+                .rateLimitCost(serviceRoute.getRateLimitCost())
+                .rateLimitMethodCosts(
+                    serviceRoute.getRateLimitMethodCosts() != null
+                        ? new HashMap<>(serviceRoute.getRateLimitMethodCosts())
+                        : java.util.Collections.emptyMap()
+                )
+                .rateLimitCostPerKb(serviceRoute.getRateLimitCostPerKb())
+                .rateLimitUnknownLengthKb(serviceRoute.getRateLimitUnknownLengthKb())
+                .maxConnections(serviceRoute.getMaxConnections())
+                .maxPendingAcquires(serviceRoute.getMaxPendingAcquires())
+                .maxIdleTimeMs(serviceRoute.getMaxIdleTimeMs())
+                .maxLifeTimeMs(serviceRoute.getMaxLifeTimeMs())
+                .keepAlive(serviceRoute.getKeepAlive())
+                .streamingEnabled(serviceRoute.getStreamingEnabled())
+                .circuitBreakerEnabled(serviceRoute.getCircuitBreakerEnabled())
+                .hedgingEnabled(serviceRoute.getHedgingEnabled())
+                .hedgeDelayMs(serviceRoute.getHedgeDelayMs())
+                .maxRetries(serviceRoute.getMaxRetries())
+                .cacheEnabled(serviceRoute.getCacheEnabled())
+                .cacheTtlSeconds(serviceRoute.getCacheTtlSeconds())
+                .cacheSharedAcrossApiKeys(serviceRoute.getCacheSharedAcrossApiKeys())
+                .coalescingEnabled(serviceRoute.getCoalescingEnabled())
+                .coalescingMaxBytes(serviceRoute.getCoalescingMaxBytes())
+                .coalescingTimeoutMs(serviceRoute.getCoalescingTimeoutMs())
                 .isActive(serviceRoute.getIsActive())
                 .createdByUserId(serviceRoute.getCreatedByUserId())
                 .createdAt(serviceRoute.getCreatedAt())
@@ -0,0 +1,27 @@
+-- ============================================
+-- Migration: Add API key change feed
+-- Purpose: Let gateways sync API keys as versioned deltas (/api/keys/changes) instead of full reloads
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE api_keys
+ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN api_keys.change_version IS 
+'Version of the last create/update/revoke of this key (0 = before the change feed existed)';
+
+CREATE INDEX IF NOT EXISTS idx_api_keys_change_version ON api_keys(change_version);
+
+-- Single-row counter; key writes lock it, so versions commit in order
+CREATE TABLE IF NOT EXISTS api_key_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+    );
+
+INSERT INTO api_key_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: api_keys.change_version column and api_key_version table added';
+END $$;
@@ -0,0 +1,18 @@
+-- ============================================
+-- Migration: Add per-route circuit breaker switch
+-- Purpose: Allow opting a route in or out of the gateway circuit breaker
+-- Date: 2026-10-16
+-- ============================================
+
+-- NULL = gateway default (gateway.circuit-breaker.enabled-by-default)
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS circuit_breaker_enabled BOOLEAN;
+
+COMMENT ON COLUMN service_routes.circuit_breaker_enabled IS 
+'TRUE/FALSE overrides the gateway circuit breaker default for this route (NULL = default)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: circuit_breaker_enabled column added to service_routes table';
+END $$;
@@ -0,0 +1,28 @@
+-- ============================================
+-- Migration: Add config change outbox
+-- Purpose: Push route/API key/rate limit changes to gateways (Redis pub/sub) instead of waiting for their next poll
+-- Date: 2026-10-16
+-- ============================================
+
+-- Written in the same transaction as the change; config-service publishes and marks the rows
+CREATE TABLE IF NOT EXISTS config_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+    );
+
+COMMENT ON COLUMN config_outbox.entity_type IS
+'ROUTE, API_KEY or RATE_LIMIT';
+
+COMMENT ON COLUMN config_outbox.published_at IS
+'When the change was sent to gateways (NULL = pending; published rows are purged after an hour)';
+
+CREATE INDEX IF NOT EXISTS idx_config_outbox_unpublished ON config_outbox(published_at, id);
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: config_outbox table added';
+END $$;
@@ -0,0 +1,19 @@
+-- ============================================
+-- Migration: Add config version
+-- Purpose: Versioned gateway config for /config/watch (long-poll) and /config/snapshot (ETag)
+-- Date: 2026-10-16
+-- ============================================
+
+-- Single-row counter; every route/API key/rate limit write locks and advances it
+CREATE TABLE IF NOT EXISTS config_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+    );
+
+INSERT INTO config_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: config_version table added';
+END $$;
@@ -0,0 +1,30 @@
+-- ============================================
+-- Migration: Add upstream connection pool settings
+-- Purpose: Per-route tuning of the gateway's pooled upstream connections
+-- Date: 2026-10-16
+-- ============================================
+
+-- All columns are nullable: NULL means "use the gateway default"
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS max_connections INTEGER,
+ADD COLUMN IF NOT EXISTS max_pending_acquires INTEGER,
+ADD COLUMN IF NOT EXISTS max_idle_time_ms INTEGER,
+ADD COLUMN IF NOT EXISTS max_life_time_ms INTEGER,
+ADD COLUMN IF NOT EXISTS keep_alive BOOLEAN;
+
+COMMENT ON COLUMN service_routes.max_connections IS 
+'Max pooled connections to the target origin (NULL = gateway default)';
+COMMENT ON COLUMN service_routes.max_pending_acquires IS 
+'Max requests waiting for a free pooled connection (NULL = gateway default)';
+COMMENT ON COLUMN service_routes.max_idle_time_ms IS 
+'Idle pooled connections are evicted after this many milliseconds (NULL = gateway default)';
+COMMENT ON COLUMN service_routes.max_life_time_ms IS 
+'Pooled connections are closed after this many milliseconds (NULL = gateway default)';
+COMMENT ON COLUMN service_routes.keep_alive IS 
+'HTTP keep-alive towards the target origin (NULL = TRUE)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: connection pool columns added to service_routes table';
+END $$;
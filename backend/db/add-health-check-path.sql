@@ -0,0 +1,18 @@
+-- ============================================
+-- Migration: Add active health check path
+-- Purpose: Let the gateway probe route targets and take dead instances out of rotation
+-- Date: 2026-10-16
+-- ============================================
+
+-- NULL = no active probes (passive outlier ejection still applies)
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS health_check_path VARCHAR(200);
+
+COMMENT ON COLUMN service_routes.health_check_path IS 
+'Path probed on every target origin, e.g. /actuator/health (NULL = passive health checks only)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: health_check_path column added to service_routes table';
+END $$;
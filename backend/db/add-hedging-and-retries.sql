@@ -0,0 +1,23 @@
+-- ============================================
+-- Migration: Add hedging and retry settings
+-- Purpose: Opt-in hedged requests and bounded connect-failure retries per route
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS hedging_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+ADD COLUMN IF NOT EXISTS hedge_delay_ms INTEGER,
+ADD COLUMN IF NOT EXISTS max_retries INTEGER;
+
+COMMENT ON COLUMN service_routes.hedging_enabled IS 
+'If TRUE, slow GET/HEAD/OPTIONS requests are hedged to a second target';
+COMMENT ON COLUMN service_routes.hedge_delay_ms IS 
+'Delay before the hedged attempt (NULL = observed p95 latency of the route)';
+COMMENT ON COLUMN service_routes.max_retries IS 
+'Retries on connect failures for idempotent methods (NULL = gateway default)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: hedging and retry columns added to service_routes table';
+END $$;
@@ -0,0 +1,23 @@
+-- ============================================
+-- Migration: Add selectable rate limiting algorithms
+-- Purpose: Choose token bucket, GCRA or sliding window counter per route or per rate limit rule
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_algorithm VARCHAR(30) DEFAULT 'TOKEN_BUCKET';
+
+COMMENT ON COLUMN service_routes.rate_limit_algorithm IS 
+'Rate limiting algorithm: TOKEN_BUCKET, GCRA or SLIDING_WINDOW';
+
+ALTER TABLE rate_limits
+ADD COLUMN IF NOT EXISTS algorithm VARCHAR(30);
+
+COMMENT ON COLUMN rate_limits.algorithm IS 
+'Rate limiting algorithm for this rule (NULL = the service route''s algorithm)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: rate_limit_algorithm added to service_routes, algorithm added to rate_limits';
+END $$;
@@ -0,0 +1,36 @@
+-- ============================================
+-- Migration: Add weighted rate limit costs
+-- Purpose: Let expensive requests (by route, HTTP method and body size) take more than one token
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_cost INTEGER CHECK (rate_limit_cost >= 1);
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_cost_per_kb INTEGER;
+
+COMMENT ON COLUMN service_routes.rate_limit_cost IS 
+'Rate limit tokens one request takes (NULL = 1)';
+
+COMMENT ON COLUMN service_routes.rate_limit_cost_per_kb IS 
+'Extra rate limit tokens per started KiB of request body, by Content-Length (NULL or 0 = none)';
+
+-- Per HTTP method cost (no row = rate_limit_cost)
+CREATE TABLE IF NOT EXISTS service_route_method_costs (
+    service_route_id BIGINT NOT NULL,
+    http_method VARCHAR(10) NOT NULL,
+    cost INTEGER NOT NULL CHECK (cost >= 1),
+
+    PRIMARY KEY (service_route_id, http_method),
+    CONSTRAINT fk_service_route_method_costs_route
+    FOREIGN KEY (service_route_id)
+    REFERENCES service_routes(id)
+    ON DELETE CASCADE
+    );
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: rate_limit_cost columns and service_route_method_costs table added';
+END $$;
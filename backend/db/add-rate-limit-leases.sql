@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Add rate limit lease size
+-- Purpose: Let gateway nodes lease batches of tokens from the shared Redis bucket per route
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_lease_percent INTEGER;
+
+COMMENT ON COLUMN service_routes.rate_limit_lease_percent IS 
+'Tokens leased per gateway node, as a percentage of the per-minute limit (NULL or 0 = exact, Redis per request)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: rate_limit_lease_percent column added to service_routes table';
+END $$;
@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Add rate limit traffic shaping
+-- Purpose: Let routes queue over-limit requests on the gateway instead of rejecting them
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_shaping_max_delay_ms INTEGER;
+
+COMMENT ON COLUMN service_routes.rate_limit_shaping_max_delay_ms IS 
+'Longest time an over-limit request waits for a token before 429 (NULL or 0 = reject immediately)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: rate_limit_shaping_max_delay_ms column added to service_routes table';
+END $$;
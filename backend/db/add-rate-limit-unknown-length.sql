@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Charge streamed request bodies
+-- Purpose: Bodies without Content-Length (chunked uploads) pay an assumed size on routes with rate_limit_cost_per_kb
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS rate_limit_unknown_length_kb INTEGER CHECK (rate_limit_unknown_length_kb >= 0);
+
+COMMENT ON COLUMN service_routes.rate_limit_unknown_length_kb IS 
+'KiB charged (times rate_limit_cost_per_kb) for a request body without Content-Length (NULL = gateway default)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: rate_limit_unknown_length_kb column added to service_routes table';
+END $$;
@@ -0,0 +1,23 @@
+-- ============================================
+-- Migration: Add request coalescing settings
+-- Purpose: Opt-in single-flight for identical concurrent GET requests per route
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS coalescing_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+ADD COLUMN IF NOT EXISTS coalescing_max_bytes INTEGER,
+ADD COLUMN IF NOT EXISTS coalescing_timeout_ms INTEGER;
+
+COMMENT ON COLUMN service_routes.coalescing_enabled IS 
+'If TRUE, identical concurrent GET requests share one upstream call';
+COMMENT ON COLUMN service_routes.coalescing_max_bytes IS 
+'Largest shared response body; larger responses are fetched per request (NULL = gateway default)';
+COMMENT ON COLUMN service_routes.coalescing_timeout_ms IS 
+'Max wait on an in-flight call before fetching independently (NULL = gateway default)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: request coalescing columns added to service_routes table';
+END $$;
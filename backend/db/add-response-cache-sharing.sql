@@ -0,0 +1,17 @@
+-- ============================================
+-- Migration: Per-API-key response cache entries
+-- Purpose: Cached responses are no longer shared between API keys unless the route opts in
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS cache_shared_across_api_keys BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN service_routes.cache_shared_across_api_keys IS 
+'If TRUE, one cached response serves all API keys; otherwise entries are per API key unless the upstream sends public or s-maxage';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: cache_shared_across_api_keys column added to service_routes table';
+END $$;
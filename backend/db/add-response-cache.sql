@@ -0,0 +1,20 @@
+-- ============================================
+-- Migration: Add response cache settings
+-- Purpose: Opt-in gateway response cache for GET routes
+-- Date: 2026-10-16
+-- ============================================
+
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS cache_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+ADD COLUMN IF NOT EXISTS cache_ttl_seconds INTEGER;
+
+COMMENT ON COLUMN service_routes.cache_enabled IS 
+'If TRUE, GET responses are cached by the gateway (honors Cache-Control, Expires and Vary)';
+COMMENT ON COLUMN service_routes.cache_ttl_seconds IS 
+'Freshness lifetime for responses without max-age/Expires (NULL = do not cache those)';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: response cache columns added to service_routes table';
+END $$;
@@ -0,0 +1,36 @@
+-- ============================================
+-- Migration: Add weighted upstream targets and load balancing strategy
+-- Purpose: Spread a route's traffic over several backend instances
+-- Date: 2026-10-16
+-- ============================================
+
+-- Strategy used by the gateway to pick a target
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS load_balancing_strategy VARCHAR(30) DEFAULT 'WEIGHTED_ROUND_ROBIN';
+
+COMMENT ON COLUMN service_routes.load_balancing_strategy IS 
+'Target selection: WEIGHTED_ROUND_ROBIN, LEAST_OUTSTANDING or P2C_EWMA';
+
+-- Weighted backend instances (no rows = all traffic to target_url)
+CREATE TABLE IF NOT EXISTS service_route_targets (
+    service_route_id BIGINT NOT NULL,
+    position INTEGER NOT NULL,
+    url VARCHAR(500) NOT NULL,
+    weight INTEGER NOT NULL DEFAULT 1 CHECK (weight BETWEEN 1 AND 10000),
+
+    PRIMARY KEY (service_route_id, position),
+    CONSTRAINT fk_service_route_targets_route
+    FOREIGN KEY (service_route_id)
+    REFERENCES service_routes(id)
+    ON DELETE CASCADE
+    );
+
+-- Weight bound also for tables created before it existed
+ALTER TABLE service_route_targets DROP CONSTRAINT IF EXISTS service_route_targets_weight_check;
+ALTER TABLE service_route_targets ADD CONSTRAINT service_route_targets_weight_check CHECK (weight BETWEEN 1 AND 10000);
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: load_balancing_strategy column and service_route_targets table added';
+END $$;
@@ -0,0 +1,18 @@
+-- ============================================
+-- Migration: Add streaming proxy mode flag
+-- Purpose: Stream request/response bodies through the gateway without buffering
+-- Date: 2026-10-16
+-- ============================================
+
+-- Add streaming_enabled column (existing routes keep regular forwarding)
+ALTER TABLE service_routes
+ADD COLUMN IF NOT EXISTS streaming_enabled BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMENT ON COLUMN service_routes.streaming_enabled IS 
+'If TRUE, request and response bodies are streamed between client and backend without buffering';
+
+-- Display migration status
+DO $$
+BEGIN
+    RAISE NOTICE 'Migration completed: streaming_enabled column added to service_routes table';
+END $$;
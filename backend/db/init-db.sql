@@ -33,6 +33,8 @@ CREATE TABLE IF NOT EXISTS service_routes (
     public_path VARCHAR(200) NOT NULL UNIQUE,
     target_url VARCHAR(500) NOT NULL,
     allowed_methods TEXT[] NOT NULL DEFAULT ARRAY['GET', 'POST', 'PUT', 'DELETE'],
+    load_balancing_strategy VARCHAR(30) DEFAULT 'WEIGHTED_ROUND_ROBIN',
+    health_check_path VARCHAR(200),
 
     -- Auth config
     auth_required BOOLEAN NOT NULL DEFAULT TRUE,
@@ -43,11 +45,46 @@ CREATE TABLE IF NOT EXISTS service_routes (
     rate_limit_enabled BOOLEAN NOT NULL DEFAULT TRUE,
     rate_limit_per_minute INTEGER DEFAULT 100,
     rate_limit_per_hour INTEGER DEFAULT 5000,
+    rate_limit_lease_percent INTEGER,  -- Local token lease size (NULL = exact)
+    rate_limit_algorithm VARCHAR(30) DEFAULT 'TOKEN_BUCKET',  -- TOKEN_BUCKET, GCRA, SLIDING_WINDOW
+    rate_limit_shaping_max_delay_ms INTEGER,  -- Queue over-limit requests up to this long (NULL = 429)
+    rate_limit_cost INTEGER CHECK (rate_limit_cost >= 1),  -- Tokens per request (NULL = 1)
+    rate_limit_cost_per_kb INTEGER,  -- Extra tokens per KiB of request body (NULL = none)
+    rate_limit_unknown_length_kb INTEGER CHECK (rate_limit_unknown_length_kb >= 0),  -- KiB charged without Content-Length (NULL = gateway default)
 
     -- Other config
     timeout_ms INTEGER DEFAULT 30000,
     custom_headers TEXT,
 
+    -- Upstream connection pool (NULL = gateway defaults)
+    max_connections INTEGER,
+    max_pending_acquires INTEGER,
+    max_idle_time_ms INTEGER,
+    max_life_time_ms INTEGER,
+    keep_alive BOOLEAN,
+
+    -- Zero-copy streaming proxy mode (large uploads/downloads)
+    streaming_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+
+    -- Per-route circuit breaker (NULL = gateway default)
+    circuit_breaker_enabled BOOLEAN,
+
+    -- Hedging / retries for idempotent methods (NULL = gateway defaults)
+    hedging_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    hedge_delay_ms INTEGER,
+    max_retries INTEGER,
+
+    -- Gateway response cache for GET (TTL NULL = upstream freshness headers only,
+    -- entries per API key unless shared)
+    cache_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    cache_ttl_seconds INTEGER,
+    cache_shared_across_api_keys BOOLEAN NOT NULL DEFAULT FALSE,
+
+    -- Request coalescing for identical concurrent GETs (NULL = gateway defaults)
+    coalescing_enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    coalescing_max_bytes INTEGER,
+    coalescing_timeout_ms INTEGER,
+
     -- Status
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
     created_by_user_id BIGINT NOT NULL,
@@ -66,6 +103,39 @@ CREATE INDEX IF NOT EXISTS idx_service_routes_public_path ON service_routes(publ
 CREATE INDEX IF NOT EXISTS idx_service_routes_active ON service_routes(is_active);
 CREATE INDEX IF NOT EXISTS idx_service_routes_created_by ON service_routes(created_by_user_id);
 
+-- ============================================
+-- Table: service_route_targets
+-- Weighted backend instances per route (empty = target_url only)
+-- ============================================
+CREATE TABLE IF NOT EXISTS service_route_targets (
+    service_route_id BIGINT NOT NULL,
+    position INTEGER NOT NULL,
+    url VARCHAR(500) NOT NULL,
+    weight INTEGER NOT NULL DEFAULT 1 CHECK (weight BETWEEN 1 AND 10000),
+
+    PRIMARY KEY (service_route_id, position),
+    CONSTRAINT fk_service_route_targets_route
+    FOREIGN KEY (service_route_id)
+    REFERENCES service_routes(id)
+    ON DELETE CASCADE
+    );
+
+-- ============================================
+-- Table: service_route_method_costs
+-- Rate limit tokens per request by HTTP method (overrides rate_limit_cost)
+-- ============================================
+CREATE TABLE IF NOT EXISTS service_route_method_costs (
+    service_route_id BIGINT NOT NULL,
+    http_method VARCHAR(10) NOT NULL,
+    cost INTEGER NOT NULL CHECK (cost >= 1),
+
+    PRIMARY KEY (service_route_id, http_method),
+    CONSTRAINT fk_service_route_method_costs_route
+    FOREIGN KEY (service_route_id)
+    REFERENCES service_routes(id)
+    ON DELETE CASCADE
+    );
+
 -- ============================================
 -- Table: api_keys
 -- ============================================
@@ -85,6 +155,7 @@ CREATE TABLE IF NOT EXISTS api_keys (
     last_used_at TIMESTAMP,
 
     notes VARCHAR(500),
+    change_version BIGINT NOT NULL DEFAULT 0,  -- Version of the last change (change feed for gateways)
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
@@ -99,6 +170,18 @@ CREATE INDEX IF NOT EXISTS idx_api_keys_created_by_user ON api_keys(created_by_u
 CREATE INDEX IF NOT EXISTS idx_api_keys_active ON api_keys(is_active);
 CREATE INDEX IF NOT EXISTS idx_api_keys_client_name ON api_keys(client_name);
 CREATE INDEX IF NOT EXISTS idx_api_keys_expires_at ON api_keys(expires_at) WHERE expires_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_api_keys_change_version ON api_keys(change_version);
+
+-- ============================================
+-- Table: api_key_version
+-- Single-row counter of the API key change feed
+-- ============================================
+CREATE TABLE IF NOT EXISTS api_key_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+    );
+
+INSERT INTO api_key_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
 
 -- ============================================
 -- Table: rate_limits (UPDATED!)
@@ -115,6 +198,7 @@ CREATE TABLE IF NOT EXISTS rate_limits (
        requests_per_minute INTEGER NOT NULL,
        requests_per_hour INTEGER,
        requests_per_day INTEGER,
+       algorithm VARCHAR(30),  -- NULL = the service route's algorithm
 
        is_active BOOLEAN NOT NULL DEFAULT TRUE,
        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -145,6 +229,31 @@ CREATE INDEX IF NOT EXISTS idx_rate_limits_api_key ON rate_limits(api_key_id);
 CREATE INDEX IF NOT EXISTS idx_rate_limits_service_route ON rate_limits(service_route_id);
 CREATE INDEX IF NOT EXISTS idx_rate_limits_api_key_service ON rate_limits(api_key_id, service_route_id);
 
+-- ============================================
+-- Table: config_outbox
+-- Route/API key/rate limit changes, published to gateways over Redis pub/sub
+-- ============================================
+CREATE TABLE IF NOT EXISTS config_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,  -- ROUTE, API_KEY, RATE_LIMIT
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP  -- NULL until sent
+    );
+
+CREATE INDEX IF NOT EXISTS idx_config_outbox_unpublished ON config_outbox(published_at, id);
+
+-- ============================================
+-- Table: config_version
+-- Single-row counter of all gateway config (/config/watch)
+-- ============================================
+CREATE TABLE IF NOT EXISTS config_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+    );
+
+INSERT INTO config_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
 -- ============================================
 -- Trigger function for updated_at
 -- ============================================
@@ -0,0 +1,65 @@
+package com.nexusgate.gateway.apikey;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of valid key hashes (ApiKeyHash) in front of the key tables: a key it has
+ * never seen is rejected without a map lookup or index probe - the common case when a
+ * credential-stuffing flood sends random keys.
+ *
+ * 10 bits and 7 probes per key (about 1% false positives while at most {@code expectedKeys}
+ * keys are in it). Add-only and thread-safe: deltas add their keys to the filter of the
+ * current table before the new table is published, readers of older tables only see
+ * more "maybe" answers. Tables build a new filter on full loads and once it is saturated.
+ */
+public final class ApiKeyBloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+    private static final long MIN_BITS = 1024;
+
+    private final AtomicLongArray words;
+    private final long bitMask;
+    private final int expectedKeys;
+    private final AtomicInteger added = new AtomicInteger();
+
+    public ApiKeyBloomFilter(int expectedKeys) {
+        long wanted = Math.max(MIN_BITS, (long) Math.max(1, expectedKeys) * BITS_PER_KEY);
+        long bits = Long.highestOneBit(wanted - 1) << 1;
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.bitMask = bits - 1;
+        this.expectedKeys = Math.max(1, expectedKeys);
+    }
+
+    public void put(long high, long low) {
+        long step = low | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (high + i * step) & bitMask;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    public boolean mightContain(long high, long low) {
+        long step = low | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (high + i * step) & bitMask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * More keys added than it was sized for - false positives climb, build a new one
+     */
+    public boolean isSaturated() {
+        return added.get() > expectedKeys + (expectedKeys >> 1);
+    }
+}
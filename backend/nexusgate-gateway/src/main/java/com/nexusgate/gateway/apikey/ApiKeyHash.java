@@ -0,0 +1,55 @@
+package com.nexusgate.gateway.apikey;
+
+import java.security.SecureRandom;
+
+/**
+ * 128-bit hash of an API key value, seeded randomly per process. Keys are looked up by this
+ * hash in the Bloom filter, the negative cache and the off-heap index; it is computed once
+ * per request and allocates nothing.
+ *
+ * Without knowing the seeds a made-up key matches a given real one with a 2^-128 chance,
+ * and no key can be crafted to collide.
+ */
+public final class ApiKeyHash {
+
+    private static final long SEED_HIGH;
+    private static final long SEED_LOW;
+
+    static {
+        SecureRandom random = new SecureRandom();
+        SEED_HIGH = random.nextLong();
+        SEED_LOW = random.nextLong();
+    }
+
+    private ApiKeyHash() {
+    }
+
+    public static long high(String keyValue) {
+        return hash(keyValue, SEED_HIGH);
+    }
+
+    /**
+     * Low half; never 0 together with the high half - an all-zero hash marks empty slots
+     */
+    public static long low(String keyValue, long high) {
+        long low = hash(keyValue, SEED_LOW);
+        return high == 0 && low == 0 ? 1 : low;
+    }
+
+    /**
+     * 64-bit seeded hash over the key's chars (multiply-xorshift per char, murmur3 finalizer)
+     */
+    private static long hash(String value, long seed) {
+        long h = seed ^ (value.length() * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,164 @@
+package com.nexusgate.gateway.apikey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Off-heap open-addressing hash table of API keys: per key a 128-bit hash of the key
+ * value, its id and its state word (active flag + expiry, see ApiKeyTable.state).
+ *
+ * Slot layout (32 bytes, in direct buffers of up to 512 MiB - nothing per key on the Java heap):
+ *   0  hash high   8  hash low   16  id   24  state
+ * An all-zero hash marks an empty slot. Linear probing, load factor at most 0.7,
+ * so 10 million keys take 512 MiB.
+ *
+ * The key value itself is not stored, only its ApiKeyHash - a made-up key matching a real
+ * one is a 2^-128 chance per stored key. The Builder fills an ApiKeyBloomFilter of the same
+ * hashes alongside.
+ *
+ * Built once by a Builder and never modified afterwards; lookups read absolute positions
+ * and allocate nothing. The memory is released when the index is garbage collected
+ * (count it against -XX:MaxDirectMemorySize).
+ */
+public final class ApiKeyIndex {
+
+    private static final int SLOT_BYTES = 32;
+    private static final int SEGMENT_BITS = 24;  // 2^24 slots = 512 MiB per buffer
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final long MAX_SLOTS = 1L << 28;
+    private static final double MAX_LOAD = 0.7;
+
+    private final ByteBuffer[] segments;
+    private final long mask;
+    private final int size;
+    private final ApiKeyBloomFilter bloomFilter;
+
+    private ApiKeyIndex(ByteBuffer[] segments, long mask, int size, ApiKeyBloomFilter bloomFilter) {
+        this.segments = segments;
+        this.mask = mask;
+        this.size = size;
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * @return the key's id, or ApiKeyTable.UNKNOWN / INACTIVE / EXPIRED
+     */
+    public long resolve(long high, long low, long nowEpochSecond) {
+        long slot = high & mask;
+        while (true) {
+            ByteBuffer segment = segments[(int) (slot >>> SEGMENT_BITS)];
+            int offset = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+            long slotHigh = segment.getLong(offset);
+            long slotLow = segment.getLong(offset + 8);
+            if (slotHigh == high && slotLow == low) {
+                return ApiKeyTable.resolve(segment.getLong(offset + 16), segment.getLong(offset + 24), nowEpochSecond);
+            }
+            if (slotHigh == 0 && slotLow == 0) {
+                return ApiKeyTable.UNKNOWN;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean contains(long high, long low) {
+        return resolve(high, low, Long.MIN_VALUE) != ApiKeyTable.UNKNOWN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long bytes() {
+        return (mask + 1) * SLOT_BYTES;
+    }
+
+    /**
+     * Bloom filter of the keys put into this index (deltas may add to it)
+     */
+    public ApiKeyBloomFilter bloomFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * New builder holding this index's entries, sized for {@code extra} more keys
+     */
+    Builder toBuilder(int extra) {
+        Builder builder = new Builder(size + extra);
+        for (long slot = 0; slot <= mask; slot++) {
+            ByteBuffer segment = segments[(int) (slot >>> SEGMENT_BITS)];
+            int offset = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+            long high = segment.getLong(offset);
+            long low = segment.getLong(offset + 8);
+            if (high != 0 || low != 0) {
+                builder.put(high, low, segment.getLong(offset + 16), segment.getLong(offset + 24));
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Fills a new table off to the side; the built index takes over its memory
+     */
+    public static final class Builder {
+
+        private final ByteBuffer[] segments;
+        private final long mask;
+        private final long maxSize;
+        private final ApiKeyBloomFilter bloomFilter;
+        private int size;
+
+        public Builder(int expectedKeys) {
+            long wanted = Math.max(16, (long) Math.ceil(expectedKeys / MAX_LOAD));
+            long capacity = Long.highestOneBit(wanted - 1) << 1;
+            if (capacity > MAX_SLOTS) {
+                throw new IllegalArgumentException("Too many API keys for one index: " + expectedKeys);
+            }
+            long segmentSlots = Math.min(capacity, 1L << SEGMENT_BITS);
+            this.segments = new ByteBuffer[(int) (capacity / segmentSlots)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = ByteBuffer.allocateDirect((int) (segmentSlots * SLOT_BYTES)).order(ByteOrder.nativeOrder());
+            }
+            this.mask = capacity - 1;
+            this.maxSize = (long) (capacity * MAX_LOAD);
+            this.bloomFilter = new ApiKeyBloomFilter(expectedKeys);
+        }
+
+        public Builder put(String keyValue, long id, long state) {
+            long high = ApiKeyHash.high(keyValue);
+            return put(high, ApiKeyHash.low(keyValue, high), id, state);
+        }
+
+        /**
+         * Insert, or replace the entry with the same hash
+         */
+        Builder put(long high, long low, long id, long state) {
+            bloomFilter.put(high, low);
+            long slot = high & mask;
+            while (true) {
+                ByteBuffer segment = segments[(int) (slot >>> SEGMENT_BITS)];
+                int offset = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+                long slotHigh = segment.getLong(offset);
+                long slotLow = segment.getLong(offset + 8);
+                boolean empty = slotHigh == 0 && slotLow == 0;
+                if (empty || (slotHigh == high && slotLow == low)) {
+                    if (empty) {
+                        if (size >= maxSize) {
+                            throw new IllegalStateException("API key index is full (" + size + " keys)");
+                        }
+                        segment.putLong(offset, high);
+                        segment.putLong(offset + 8, low);
+                        size++;
+                    }
+                    segment.putLong(offset + 16, id);
+                    segment.putLong(offset + 24, state);
+                    return this;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        public ApiKeyIndex build() {
+            return new ApiKeyIndex(segments, mask, size, bloomFilter);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.nexusgate.gateway.apikey;
+
+import com.nexusgate.gateway.dto.ApiKeyResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Immutable lookup table of API keys for one cache snapshot.
+ *
+ * {@link #resolve} is the request hot path: it answers with the key id or a negative
+ * status instead of a DTO, so the off-heap table can serve it without allocating. Callers
+ * hash the key once (ApiKeyHash) and ask {@link #mightContain} first - a Bloom filter
+ * that turns away keys which were never valid without a lookup. Changes produce a new
+ * table; the current one is never modified while requests read it (its Bloom filter only
+ * ever gains keys).
+ */
+public interface ApiKeyTable {
+
+    long UNKNOWN = -1;
+    long INACTIVE = -2;
+    long EXPIRED = -3;
+
+    // State word for keys without expiry: active bit set, expiry as far out as it goes
+    long NO_EXPIRY = Long.MAX_VALUE >> 1;
+
+    /**
+     * @param high ApiKeyHash.high of the key value
+     * @param low  ApiKeyHash.low of the key value
+     * @return the key's id, or UNKNOWN, INACTIVE or EXPIRED
+     */
+    long resolve(String keyValue, long high, long low, long nowEpochSecond);
+
+    /**
+     * false if the key with this ApiKeyHash is definitely not in the table
+     */
+    boolean mightContain(long high, long low);
+
+    int size();
+
+    /**
+     * Copy with changed keys replaced (revoked keys stay, inactive)
+     */
+    ApiKeyTable with(List<ApiKeyResponse> changed);
+
+    /**
+     * Full key DTOs, or null if this table does not keep them
+     */
+    List<ApiKeyResponse> keys();
+
+    /**
+     * Bytes held outside the Java heap
+     */
+    default long offHeapBytes() {
+        return 0;
+    }
+
+    /**
+     * Collects a complete key set page by page, so each page can be dropped once added
+     */
+    interface Builder {
+
+        Builder add(List<ApiKeyResponse> keys);
+
+        ApiKeyTable build();
+    }
+
+    /**
+     * Active flag and expiry packed into one word: (expiry epoch second << 1) | active
+     */
+    static long state(ApiKeyResponse key) {
+        LocalDateTime expiresAt = key.getExpiresAt();
+        long expiry = expiresAt != null ? expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond() : NO_EXPIRY;
+        return (expiry << 1) | (Boolean.TRUE.equals(key.getIsActive()) ? 1 : 0);
+    }
+
+    static long resolve(long id, long state, long nowEpochSecond) {
+        if ((state & 1) == 0) {
+            return INACTIVE;
+        }
+        if ((state >> 1) < nowEpochSecond) {
+            return EXPIRED;
+        }
+        return id;
+    }
+}
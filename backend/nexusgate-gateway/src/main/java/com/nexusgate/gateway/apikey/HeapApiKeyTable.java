@@ -0,0 +1,105 @@
+package com.nexusgate.gateway.apikey;
+
+import com.nexusgate.gateway.dto.ApiKeyResponse;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys as full DTOs in a HashMap keyed by key value ({@code gateway.api-keys.index=HEAP}).
+ * Simple and keeps everything for the admin endpoints; for millions of keys use
+ * OffHeapApiKeyTable.
+ *
+ * Deltas add their keys to the Bloom filter of the table they are applied to; a new filter
+ * is built once it holds half again as many keys as it was sized for.
+ */
+public final class HeapApiKeyTable implements ApiKeyTable {
+
+    public static final HeapApiKeyTable EMPTY = new HeapApiKeyTable(Map.of(), new ApiKeyBloomFilter(0));
+
+    private final Map<String, ApiKeyResponse> keys;
+    private final ApiKeyBloomFilter bloomFilter;
+
+    private HeapApiKeyTable(Map<String, ApiKeyResponse> keys, ApiKeyBloomFilter bloomFilter) {
+        this.keys = keys;
+        this.bloomFilter = bloomFilter;
+    }
+
+    public static ApiKeyTable.Builder builder() {
+        Map<String, ApiKeyResponse> table = new HashMap<>();
+        return new ApiKeyTable.Builder() {
+            @Override
+            public ApiKeyTable.Builder add(List<ApiKeyResponse> keys) {
+                index(table, keys);
+                return this;
+            }
+
+            @Override
+            public HeapApiKeyTable build() {
+                Map<String, ApiKeyResponse> keys = Collections.unmodifiableMap(table);
+                return new HeapApiKeyTable(keys, bloomFilter(keys.values()));
+            }
+        };
+    }
+
+    @Override
+    public long resolve(String keyValue, long high, long low, long nowEpochSecond) {
+        ApiKeyResponse key = keys.get(keyValue);
+        if (key == null) {
+            return UNKNOWN;
+        }
+        return ApiKeyTable.resolve(key.getId(), ApiKeyTable.state(key), nowEpochSecond);
+    }
+
+    @Override
+    public boolean mightContain(long high, long low) {
+        return bloomFilter.mightContain(high, low);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public HeapApiKeyTable with(List<ApiKeyResponse> changed) {
+        Map<String, ApiKeyResponse> table = index(new HashMap<>(keys), changed);
+        if (bloomFilter.isSaturated()) {
+            return new HeapApiKeyTable(table, bloomFilter(table.values()));
+        }
+        put(bloomFilter, changed);
+        return new HeapApiKeyTable(table, bloomFilter);
+    }
+
+    @Override
+    public List<ApiKeyResponse> keys() {
+        return List.copyOf(keys.values());
+    }
+
+    private static Map<String, ApiKeyResponse> index(Map<String, ApiKeyResponse> table, List<ApiKeyResponse> keys) {
+        for (ApiKeyResponse key : keys) {
+            if (key.getKeyValue() != null && key.getId() != null) {
+                table.put(key.getKeyValue(), key);
+            }
+        }
+        return Collections.unmodifiableMap(table);
+    }
+
+    private static ApiKeyBloomFilter bloomFilter(Collection<ApiKeyResponse> keys) {
+        ApiKeyBloomFilter bloomFilter = new ApiKeyBloomFilter(keys.size());
+        put(bloomFilter, keys);
+        return bloomFilter;
+    }
+
+    private static void put(ApiKeyBloomFilter bloomFilter, Collection<ApiKeyResponse> keys) {
+        for (ApiKeyResponse key : keys) {
+            if (key.getKeyValue() != null && key.getId() != null) {
+                long high = ApiKeyHash.high(key.getKeyValue());
+                bloomFilter.put(high, ApiKeyHash.low(key.getKeyValue(), high));
+            }
+        }
+    }
+}
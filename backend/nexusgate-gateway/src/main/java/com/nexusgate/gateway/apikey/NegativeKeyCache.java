@@ -0,0 +1,41 @@
+package com.nexusgate.gateway.apikey;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache of key hashes a table lookup confirmed unknown - keys that got past the
+ * Bloom filter (its false positives, or a stuffing list replaying the same keys) are
+ * turned away without probing the table again.
+ *
+ * Direct-mapped: a fixed number of slots (power of two) indexed by the key's ApiKeyHash,
+ * a new entry replaces whatever was in its slot, so memory stays bounded however many
+ * distinct keys arrive. Each entry remembers the generation of the key snapshot it was
+ * confirmed against and only counts for that generation - a key created afterwards is never
+ * rejected from the cache, and entries hold no reference to retired tables.
+ * Hits allocate nothing.
+ */
+public final class NegativeKeyCache {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    public NegativeKeyCache(int size) {
+        int capacity = Integer.highestOneBit(Math.max(16, Math.min(size, 1 << 24)) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * true if the key was confirmed unknown in the snapshot of this generation
+     */
+    public boolean contains(long high, long low, long generation) {
+        Entry entry = slots.get((int) low & mask);
+        return entry != null && entry.generation() == generation && entry.high() == high && entry.low() == low;
+    }
+
+    public void put(long high, long low, long generation) {
+        slots.lazySet((int) low & mask, new Entry(high, low, generation));
+    }
+
+    private record Entry(long high, long low, long generation) {}
+}
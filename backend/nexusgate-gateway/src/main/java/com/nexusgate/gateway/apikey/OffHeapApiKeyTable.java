@@ -0,0 +1,123 @@
+package com.nexusgate.gateway.apikey;
+
+import com.nexusgate.gateway.dto.ApiKeyResponse;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keys in an off-heap ApiKeyIndex ({@code gateway.api-keys.index=OFF_HEAP}) - 46 to 92 bytes
+ * per key outside the heap instead of a DTO, strings and map entry per key on it.
+ *
+ * Delta changes go into a small on-heap overlay in front of the index, so a change does
+ * not copy the whole table. Once the overlay outgrows 1/64 of the index (at least
+ * 1024 keys) a new index is built with the overlay folded in, off to the side of the
+ * table requests are reading. Overlay keys are added to the index's Bloom filter; the
+ * compacted index gets a new one (also built early once the filter is saturated).
+ *
+ * Key DTOs are not kept; admin listings fetch them from config-service.
+ */
+public final class OffHeapApiKeyTable implements ApiKeyTable {
+
+    private static final int MIN_OVERLAY_LIMIT = 1024;
+
+    private final ApiKeyIndex index;
+    private final Map<String, Entry> overlay;  // Changes since the index was built
+    private final int size;
+
+    private OffHeapApiKeyTable(ApiKeyIndex index, Map<String, Entry> overlay, int size) {
+        this.index = index;
+        this.overlay = overlay;
+        this.size = size;
+    }
+
+    /**
+     * Builds the index straight from pages of the key set - no DTOs are kept.
+     * Fails with IllegalStateException once well over expectedKeys keys were added.
+     */
+    public static ApiKeyTable.Builder builder(int expectedKeys) {
+        ApiKeyIndex.Builder builder = new ApiKeyIndex.Builder(expectedKeys);
+        return new ApiKeyTable.Builder() {
+            @Override
+            public ApiKeyTable.Builder add(List<ApiKeyResponse> keys) {
+                for (ApiKeyResponse key : keys) {
+                    if (key.getKeyValue() != null && key.getId() != null) {
+                        builder.put(key.getKeyValue(), key.getId(), ApiKeyTable.state(key));
+                    }
+                }
+                return this;
+            }
+
+            @Override
+            public OffHeapApiKeyTable build() {
+                ApiKeyIndex index = builder.build();
+                return new OffHeapApiKeyTable(index, Map.of(), index.size());
+            }
+        };
+    }
+
+    @Override
+    public long resolve(String keyValue, long high, long low, long nowEpochSecond) {
+        if (!overlay.isEmpty()) {
+            Entry changed = overlay.get(keyValue);
+            if (changed != null) {
+                return ApiKeyTable.resolve(changed.id(), changed.state(), nowEpochSecond);
+            }
+        }
+        return index.resolve(high, low, nowEpochSecond);
+    }
+
+    @Override
+    public boolean mightContain(long high, long low) {
+        return index.bloomFilter().mightContain(high, low);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public OffHeapApiKeyTable with(List<ApiKeyResponse> changed) {
+        Map<String, Entry> nextOverlay = new HashMap<>(overlay);
+        int nextSize = size;
+        for (ApiKeyResponse key : changed) {
+            if (key.getKeyValue() == null || key.getId() == null) {
+                continue;
+            }
+            long high = ApiKeyHash.high(key.getKeyValue());
+            long low = ApiKeyHash.low(key.getKeyValue(), high);
+            Entry previous = nextOverlay.put(key.getKeyValue(), new Entry(key.getId(), ApiKeyTable.state(key)));
+            if (previous == null && !index.contains(high, low)) {
+                nextSize++;
+            }
+            index.bloomFilter().put(high, low);
+        }
+        if (nextOverlay.size() > Math.max(MIN_OVERLAY_LIMIT, index.size() / 64)
+                || index.bloomFilter().isSaturated()) {
+            return compact(nextOverlay);
+        }
+        return new OffHeapApiKeyTable(index, Collections.unmodifiableMap(nextOverlay), nextSize);
+    }
+
+    @Override
+    public List<ApiKeyResponse> keys() {
+        return null;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return index.bytes();
+    }
+
+    private OffHeapApiKeyTable compact(Map<String, Entry> changes) {
+        ApiKeyIndex.Builder builder = index.toBuilder(changes.size());
+        changes.forEach((keyValue, entry) -> builder.put(keyValue, entry.id(), entry.state()));
+        ApiKeyIndex compacted = builder.build();
+        return new OffHeapApiKeyTable(compacted, Map.of(), compacted.size());
+    }
+
+    private record Entry(long id, long state) {}
+}
@@ -0,0 +1,208 @@
+package com.nexusgate.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shared-cache rules (RFC 9111 subset) for the gateway response cache.
+ *
+ * No revalidation: responses that require it (no-cache, must-revalidate with max-age=0)
+ * are simply not stored.
+ */
+public final class CachePolicy {
+
+    /** Status codes that are cacheable by default */
+    private static final Set<Integer> CACHEABLE_STATUSES = Set.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+
+    private CachePolicy() {
+    }
+
+    /**
+     * Request-side bypass: "no-store" skips the cache completely
+     */
+    public static boolean isNoStore(HttpHeaders requestHeaders) {
+        return hasDirective(requestHeaders.get(HttpHeaders.CACHE_CONTROL), "no-store");
+    }
+
+    /**
+     * Request-side refresh: "no-cache", "max-age=0" or "Pragma: no-cache" skip the lookup,
+     * the fresh response is still stored
+     */
+    public static boolean wantsRefresh(HttpHeaders requestHeaders) {
+        List<String> cacheControl = requestHeaders.get(HttpHeaders.CACHE_CONTROL);
+        if (hasDirective(cacheControl, "no-cache") || Long.valueOf(0).equals(directiveSeconds(cacheControl, "max-age"))) {
+            return true;
+        }
+        return cacheControl == null && hasDirective(requestHeaders.get(HttpHeaders.PRAGMA), "no-cache");
+    }
+
+    /**
+     * Freshness lifetime of an upstream response, or null if it must not be stored.
+     * Order: s-maxage, max-age, Expires, then the route's TTL as a heuristic.
+     */
+    public static Duration freshness(int status, HttpHeaders responseHeaders, HttpHeaders requestHeaders,
+                                     Duration routeTtl) {
+        if (!CACHEABLE_STATUSES.contains(status) || responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        List<String> cacheControl = responseHeaders.get(HttpHeaders.CACHE_CONTROL);
+        if (hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "private")
+                || hasDirective(cacheControl, "no-cache")) {
+            return null;
+        }
+        if (varyNames(responseHeaders).contains("*")) {
+            return null;
+        }
+
+        Long sharedMaxAge = directiveSeconds(cacheControl, "s-maxage");
+        // Authorized requests are only shared with explicit permission
+        if (requestHeaders.containsKey(HttpHeaders.AUTHORIZATION)
+                && sharedMaxAge == null && !hasDirective(cacheControl, "public")) {
+            return null;
+        }
+
+        Long seconds = sharedMaxAge != null ? sharedMaxAge : directiveSeconds(cacheControl, "max-age");
+        if (seconds == null && responseHeaders.containsKey(HttpHeaders.EXPIRES)) {
+            long expires = dateHeader(responseHeaders, HttpHeaders.EXPIRES);
+            if (expires < 0) {
+                // Invalid Expires means "already expired"
+                return null;
+            }
+            long date = dateHeader(responseHeaders, HttpHeaders.DATE);
+            seconds = (expires - (date >= 0 ? date : System.currentTimeMillis())) / 1000;
+        }
+        if (seconds == null) {
+            return routeTtl;
+        }
+        return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+    }
+
+    /**
+     * Does the upstream allow one stored response to serve every client ("public" or s-maxage)?
+     */
+    public static boolean isExplicitlyShared(List<String> cacheControl) {
+        return hasDirective(cacheControl, "public") || directiveSeconds(cacheControl, "s-maxage") != null;
+    }
+
+    /**
+     * Same for a stored response's headers (names as received)
+     */
+    public static boolean isExplicitlyShared(Map<String, List<String>> storedHeaders) {
+        for (Map.Entry<String, List<String>> header : storedHeaders.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(HttpHeaders.CACHE_CONTROL) && isExplicitlyShared(header.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lower-case header names listed in the response's Vary header(s)
+     */
+    public static List<String> varyNames(HttpHeaders responseHeaders) {
+        List<String> names = new ArrayList<>();
+        List<String> vary = responseHeaders.get(HttpHeaders.VARY);
+        if (vary == null) {
+            return names;
+        }
+        for (String value : vary) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim().toLowerCase(Locale.ROOT);
+                if (!trimmed.isEmpty()) {
+                    names.add(trimmed);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Values of the Vary headers on the request as the backend saw it.
+     * X-Api-Key-Id is injected by the gateway, so it comes from the exchange.
+     */
+    public static Map<String, String> varyValues(List<String> names, ServerWebExchange exchange) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : names) {
+            String value;
+            if (name.equals("x-api-key-id")) {
+                Long apiKeyId = exchange.getAttribute("apiKeyId");
+                value = apiKeyId != null ? String.valueOf(apiKeyId) : "";
+            } else {
+                List<String> requestValues = exchange.getRequest().getHeaders().get(name);
+                value = requestValues != null ? String.join(",", requestValues) : "";
+            }
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    /**
+     * Does the stored variant match this request?
+     */
+    public static boolean matchesVary(CachedResponse response, ServerWebExchange exchange) {
+        Map<String, String> stored = response.varyValues();
+        if (stored == null || stored.isEmpty()) {
+            return true;
+        }
+        return stored.equals(varyValues(List.copyOf(stored.keySet()), exchange));
+    }
+
+    /**
+     * Date header in epoch millis, -1 if missing or not a valid HTTP date
+     */
+    private static long dateHeader(HttpHeaders headers, String name) {
+        try {
+            return headers.getFirstDate(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean hasDirective(List<String> headerValues, String directive) {
+        if (headerValues == null) {
+            return false;
+        }
+        for (String value : headerValues) {
+            for (String part : value.split(",")) {
+                String trimmed = part.trim();
+                int eq = trimmed.indexOf('=');
+                String name = eq >= 0 ? trimmed.substring(0, eq) : trimmed;
+                if (name.trim().equalsIgnoreCase(directive)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Long directiveSeconds(List<String> headerValues, String directive) {
+        if (headerValues == null) {
+            return null;
+        }
+        for (String value : headerValues) {
+            for (String part : value.split(",")) {
+                String trimmed = part.trim();
+                int eq = trimmed.indexOf('=');
+                if (eq < 0 || !trimmed.substring(0, eq).trim().equalsIgnoreCase(directive)) {
+                    continue;
+                }
+                String seconds = trimmed.substring(eq + 1).trim().replace("\"", "");
+                try {
+                    return Math.max(0, Long.parseLong(seconds));
+                } catch (NumberFormatException e) {
+                    // Invalid value - treat as stale
+                    return 0L;
+                }
+            }
+        }
+        return null;
+    }
+}
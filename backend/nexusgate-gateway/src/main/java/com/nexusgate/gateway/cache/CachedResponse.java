@@ -0,0 +1,48 @@
+package com.nexusgate.gateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stored upstream response. Immutable once cached; also the JSON payload of the Redis tier.
+ *
+ * @param varyValues request header values (lower-case name → value) the response was
+ *                   produced for, per the response's Vary header
+ */
+public record CachedResponse(
+        int status,
+        Map<String, List<String>> headers,
+        byte[] body,
+        Map<String, String> varyValues,
+        long storedAtMillis,
+        long expiresAtMillis) {
+
+    // Rough fixed cost per entry and per header value (key, record, map nodes)
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int HEADER_OVERHEAD_BYTES = 48;
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < expiresAtMillis;
+    }
+
+    public long remainingMillis(long nowMillis) {
+        return Math.max(0, expiresAtMillis - nowMillis);
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    /**
+     * Approximate heap footprint in bytes - the in-memory tier is bounded by this, not by entry count
+     */
+    public int weight() {
+        long weight = ENTRY_OVERHEAD_BYTES + (body != null ? body.length : 0);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                weight += HEADER_OVERHEAD_BYTES + header.getKey().length() + value.length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+}
@@ -0,0 +1,218 @@
+package com.nexusgate.gateway.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier response cache.
+ *
+ * L1: in-process Caffeine cache bounded by bytes (body + headers), with Caffeine's
+ * W-TinyLFU admission - one-hit wonders cannot push out popular entries.
+ * L2 (optional): Redis through the shared ReactiveRedisTemplate, so a fresh gateway
+ * instance starts warm. Redis errors/timeouts count as misses.
+ *
+ * Each entry expires at its own freshness lifetime.
+ *
+ * Metrics:
+ *   gateway.response.cache.requests{tier=memory|redis, result=hit|miss}
+ *   gateway.response.cache.evictions       size-based evictions from memory
+ *   gateway.response.cache.stores
+ *   gateway.response.cache.weight          bytes held in memory
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final String REDIS_KEY_PREFIX = "response-cache:";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final Duration redisTimeout;
+    private final int maxEntryBytes;
+
+    private final Cache<String, CachedResponse> memory;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter evictions;
+    private final Counter stores;
+
+    public ResponseCache(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes,
+            @Value("${gateway.response-cache.redis.enabled:false}") boolean redisEnabled,
+            @Value("${gateway.response-cache.redis.timeout-ms:50}") long redisTimeoutMs) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTimeout = Duration.ofMillis(redisTimeoutMs);
+        this.maxEntryBytes = maxEntryBytes;
+
+        this.memoryHits = requests(meterRegistry, "memory", "hit");
+        this.memoryMisses = requests(meterRegistry, "memory", "miss");
+        this.redisHits = requests(meterRegistry, "redis", "hit");
+        this.redisMisses = requests(meterRegistry, "redis", "miss");
+        this.evictions = Counter.builder("gateway.response.cache.evictions")
+                .description("Responses evicted from the in-memory tier to stay within max-bytes")
+                .register(meterRegistry);
+        this.stores = Counter.builder("gateway.response.cache.stores")
+                .register(meterRegistry);
+
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfter(new FreshnessExpiry())
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+
+        Gauge.builder("gateway.response.cache.weight", memory,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Fresh response for the key that matches the request's Vary headers, empty on miss
+     */
+    public Mono<CachedResponse> lookup(String key, ServerWebExchange exchange) {
+        long now = System.currentTimeMillis();
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached != null && cached.isFresh(now) && CachePolicy.matchesVary(cached, exchange)) {
+            memoryHits.increment();
+            return Mono.just(cached);
+        }
+        memoryMisses.increment();
+        if (!redisEnabled) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key)
+                .timeout(redisTimeout)
+                .flatMap(json -> Mono.justOrEmpty(deserialize(json)))
+                .filter(response -> response.isFresh(System.currentTimeMillis())
+                        && CachePolicy.matchesVary(response, exchange))
+                .doOnNext(response -> {
+                    redisHits.increment();
+                    // Promote to memory for the remaining lifetime
+                    memory.put(key, response);
+                })
+                .switchIfEmpty(Mono.fromRunnable(redisMisses::increment))
+                .onErrorResume(e -> {
+                    redisMisses.increment();
+                    log.debug("Response cache Redis lookup failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public void store(String key, CachedResponse response) {
+        if (response.body() != null && response.body().length > maxEntryBytes) {
+            return;
+        }
+        memory.put(key, response);
+        stores.increment();
+
+        if (redisEnabled) {
+            long ttlMillis = response.remainingMillis(System.currentTimeMillis());
+            String json = serialize(response);
+            if (json == null || ttlMillis <= 0) {
+                return;
+            }
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, json, Duration.ofMillis(ttlMillis))
+                    .timeout(redisTimeout)
+                    .subscribe(
+                            ignored -> {},
+                            error -> log.debug("Response cache Redis store failed for {}: {}", key, error.getMessage())
+                    );
+        }
+    }
+
+    /**
+     * Drop a key from both tiers (e.g. after a successful unsafe request to the same URL)
+     */
+    public void invalidate(String key) {
+        memory.invalidate(key);
+        if (redisEnabled) {
+            redisTemplate.delete(REDIS_KEY_PREFIX + key)
+                    .timeout(redisTimeout)
+                    .subscribe(
+                            ignored -> {},
+                            error -> log.debug("Response cache Redis invalidation failed for {}: {}", key, error.getMessage())
+                    );
+        }
+    }
+
+    private String serialize(CachedResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (Exception e) {
+            log.warn("Failed to serialize cached response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private CachedResponse deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, CachedResponse.class);
+        } catch (Exception e) {
+            log.warn("Failed to deserialize cached response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Entries live exactly as long as their freshness lifetime; reads don't extend it
+     */
+    private static final class FreshnessExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(value.remainingMillis(System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
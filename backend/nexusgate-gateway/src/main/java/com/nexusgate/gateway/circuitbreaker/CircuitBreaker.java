@@ -0,0 +1,232 @@
+package com.nexusgate.gateway.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free circuit breaker for one route.
+ *
+ * CLOSED    → calls pass; outcomes are counted in a time-bucketed sliding window.
+ *             Opens when the failure or slow-call rate crosses its threshold.
+ * OPEN      → calls are rejected without touching the network until openDuration passes.
+ * HALF_OPEN → a few trial calls pass; all succeeding closes the breaker, any failure reopens it.
+ *
+ * State and a generation, bumped by every transition, share one atomic word. A permit is that
+ * word: a result only counts while the breaker is still in the state and generation its
+ * permit was taken in - late results of an earlier state are dropped, never mixed into
+ * trials or a fresh window.
+ *
+ * The window is a ring of one-second buckets, each an immutable record tagged with its second
+ * and generation and replaced by CAS, so recycling a bucket and counting into it cannot lose
+ * updates, and a new generation starts with an empty window without any reset.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED(0), OPEN(1), HALF_OPEN(2);
+
+        private final int code;
+
+        State(int code) {
+            this.code = code;
+        }
+
+        public int code() {
+            return code;
+        }
+    }
+
+    public interface TransitionListener {
+        void onTransition(CircuitBreaker breaker, State from, State to);
+    }
+
+    /** tryAcquirePermission: fail fast */
+    public static final long NO_PERMISSION = -1;
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+    private static final int STATE_BITS = 2;
+    private static final long STATE_MASK = (1 << STATE_BITS) - 1;
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final TransitionListener listener;
+    private final long slowCallNanos;
+    private final long openDurationNanos;
+
+    // generation << STATE_BITS | state
+    private final AtomicLong state = new AtomicLong(CLOSED);
+    private volatile long stateSinceNanos = System.nanoTime();
+
+    // Sliding window: slot i holds the bucket of a second ≡ i (mod buckets), null if never used
+    private final int buckets;
+    private final AtomicReferenceArray<Bucket> window;
+
+    // Half-open trial bookkeeping
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config, TransitionListener listener) {
+        this.name = name;
+        this.config = config;
+        this.listener = listener;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.slowCallDurationMs());
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.openDurationMs());
+        this.buckets = Math.max(1, config.windowSeconds());
+        this.window = new AtomicReferenceArray<>(buckets);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return switch (stateOf(state.get())) {
+            case OPEN -> State.OPEN;
+            case HALF_OPEN -> State.HALF_OPEN;
+            default -> State.CLOSED;
+        };
+    }
+
+    /**
+     * @return the permit to report the call's outcome with, or NO_PERMISSION to fail fast
+     */
+    public long tryAcquirePermission() {
+        long current = state.get();
+        if (stateOf(current) == CLOSED) {
+            return current;
+        }
+
+        long now = System.nanoTime();
+        if (stateOf(current) == OPEN) {
+            if (now - stateSinceNanos < openDurationNanos) {
+                return NO_PERMISSION;
+            }
+            if (transition(current, HALF_OPEN) != NO_PERMISSION) {
+                trialPermits.set(0);
+                trialSuccesses.set(0);
+            }
+            current = state.get();
+            if (stateOf(current) != HALF_OPEN) {
+                return stateOf(current) == CLOSED ? current : NO_PERMISSION;
+            }
+        }
+
+        if (trialPermits.incrementAndGet() <= config.halfOpenPermits()) {
+            return current;
+        }
+        // Trials that never reported back (e.g. cancelled) must not wedge the breaker - a new
+        // round is a new generation, so their results no longer count
+        if (now - stateSinceNanos >= openDurationNanos) {
+            long round = transition(current, HALF_OPEN);
+            if (round != NO_PERMISSION) {
+                trialPermits.set(1);
+                trialSuccesses.set(0);
+                return round;
+            }
+        }
+        return NO_PERMISSION;
+    }
+
+    /**
+     * Report the outcome of a permitted call
+     *
+     * @param permit        what tryAcquirePermission returned for the call
+     * @param durationNanos time until the backend responded (or failed)
+     * @param failed        5xx response, connect failure or timeout
+     */
+    public void onResult(long permit, long durationNanos, boolean failed) {
+        if (permit == NO_PERMISSION || permit != state.get()) {
+            return;  // late result of a call permitted in an earlier state or generation
+        }
+        boolean slow = durationNanos >= slowCallNanos;
+
+        if (stateOf(permit) == HALF_OPEN) {
+            if (failed || slow) {
+                transition(permit, OPEN);
+            } else if (trialSuccesses.incrementAndGet() >= config.halfOpenPermits()) {
+                transition(permit, CLOSED);
+            }
+            return;
+        }
+        if (stateOf(permit) != CLOSED) {
+            return;
+        }
+
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        int i = (int) Math.floorMod(second, (long) buckets);
+        while (true) {
+            Bucket bucket = window.get(i);
+            Bucket updated;
+            if (bucket != null && bucket.generation() == permit && bucket.second() == second) {
+                updated = bucket.plus(failed, slow);
+            } else if (bucket == null || bucket.generation() - permit < 0
+                    || (bucket.generation() == permit && bucket.second() < second)) {
+                updated = new Bucket(permit, second, 1, failed ? 1 : 0, slow ? 1 : 0);
+            } else {
+                return;  // a later generation (or second) already owns the slot
+            }
+            if (window.compareAndSet(i, bucket, updated)) {
+                break;
+            }
+        }
+
+        if ((failed || slow) && shouldOpen(permit, second)) {
+            transition(permit, OPEN);
+        }
+    }
+
+    private boolean shouldOpen(long generation, long nowSecond) {
+        long totalCalls = 0;
+        long totalFailures = 0;
+        long totalSlow = 0;
+        for (int i = 0; i < buckets; i++) {
+            Bucket bucket = window.get(i);
+            if (bucket != null && bucket.generation() == generation && nowSecond - bucket.second() < buckets) {
+                totalCalls += bucket.calls();
+                totalFailures += bucket.failures();
+                totalSlow += bucket.slowCalls();
+            }
+        }
+        if (totalCalls < config.minimumCalls()) {
+            return false;
+        }
+        return totalFailures * 100 >= totalCalls * config.failureRateThreshold()
+                || totalSlow * 100 >= totalCalls * config.slowCallRateThreshold();
+    }
+
+    /**
+     * Move from the exact state word {@code from} to {@code to} in the next generation
+     *
+     * @return the new state word, or NO_PERMISSION if the breaker had moved on
+     */
+    private long transition(long from, int to) {
+        long next = ((from >>> STATE_BITS) + 1) << STATE_BITS | to;
+        if (!state.compareAndSet(from, next)) {
+            return NO_PERMISSION;
+        }
+        stateSinceNanos = System.nanoTime();
+        if (listener != null && stateOf(from) != to) {
+            listener.onTransition(this, State.values()[stateOf(from)], State.values()[to]);
+        }
+        return next;
+    }
+
+    private static int stateOf(long word) {
+        return (int) (word & STATE_MASK);
+    }
+
+    /**
+     * Outcomes counted in one second of one generation
+     */
+    private record Bucket(long generation, long second, long calls, long failures, long slowCalls) {
+
+        Bucket plus(boolean failed, boolean slow) {
+            return new Bucket(generation, second, calls + 1,
+                    failed ? failures + 1 : failures, slow ? slowCalls + 1 : slowCalls);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexusgate.gateway.circuitbreaker;
+
+/**
+ * Circuit breaker thresholds.
+ *
+ * @param failureRateThreshold  percentage of failed calls in the window that opens the breaker
+ * @param slowCallRateThreshold percentage of slow calls in the window that opens the breaker
+ * @param slowCallDurationMs    calls slower than this count as slow
+ * @param minimumCalls          calls needed in the window before rates are evaluated
+ * @param windowSeconds         sliding window length (one bucket per second)
+ * @param openDurationMs        time the breaker stays open before allowing trial calls
+ * @param halfOpenPermits       trial calls allowed in half-open; all must succeed to close
+ */
+public record CircuitBreakerConfig(
+        int failureRateThreshold,
+        int slowCallRateThreshold,
+        long slowCallDurationMs,
+        int minimumCalls,
+        int windowSeconds,
+        long openDurationMs,
+        int halfOpenPermits) {
+}
@@ -0,0 +1,135 @@
+package com.nexusgate.gateway.circuitbreaker;
+
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One CircuitBreaker per route id, kept across route refreshes.
+ *
+ * Metrics:
+ *   gateway.circuitbreaker.state{routeId}                 0 = closed, 1 = open, 2 = half-open
+ *   gateway.circuitbreaker.transitions{routeId,from,to}   state changes
+ *   gateway.circuitbreaker.rejected{routeId}              calls failed fast while open
+ */
+@Slf4j
+@Component
+public class CircuitBreakerRegistry {
+
+    private static final CircuitBreaker.State[][] TRANSITIONS = {
+            {CircuitBreaker.State.CLOSED, CircuitBreaker.State.OPEN},
+            {CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN},
+            {CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.OPEN},
+            {CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED}};
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerConfig config;
+    private final boolean enabledByDefault;
+
+    private final Map<Long, Entry> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.circuit-breaker.enabled-by-default:true}") boolean enabledByDefault,
+            @Value("${gateway.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${gateway.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${gateway.circuit-breaker.slow-call-duration-ms:10000}") long slowCallDurationMs,
+            @Value("${gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${gateway.circuit-breaker.window-seconds:10}") int windowSeconds,
+            @Value("${gateway.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${gateway.circuit-breaker.half-open-permits:5}") int halfOpenPermits) {
+        this.meterRegistry = meterRegistry;
+        this.enabledByDefault = enabledByDefault;
+        this.config = new CircuitBreakerConfig(failureRateThreshold, slowCallRateThreshold, slowCallDurationMs,
+                minimumCalls, windowSeconds, openDurationMs, halfOpenPermits);
+    }
+
+    /**
+     * @return the route's breaker, or null if the route has circuit breaking disabled
+     */
+    public CircuitBreaker breakerFor(CompiledRoute route) {
+        Boolean enabled = route.getCircuitBreakerEnabled();
+        if (!(enabled != null ? enabled : enabledByDefault) || route.getId() == null) {
+            return null;
+        }
+        Entry entry = breakers.get(route.getId());
+        if (entry == null) {
+            entry = breakers.computeIfAbsent(route.getId(), this::create);
+        }
+        return entry.breaker();
+    }
+
+    public void recordRejected(CompiledRoute route) {
+        Entry entry = breakers.get(route.getId());
+        if (entry != null) {
+            entry.rejected().increment();
+        }
+    }
+
+    /**
+     * Drop breakers (and their meters) of routes that no longer exist
+     */
+    public void retain(RouteSnapshot snapshot) {
+        Set<Long> live = new HashSet<>();
+        snapshot.routes().forEach(route -> live.add(route.getId()));
+        breakers.entrySet().removeIf(e -> {
+            if (live.contains(e.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(e.getValue().stateGauge());
+            meterRegistry.remove(e.getValue().rejected());
+            e.getValue().transitions().values().forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    public Map<Long, CircuitBreaker.State> getStates() {
+        Map<Long, CircuitBreaker.State> states = new ConcurrentHashMap<>();
+        breakers.forEach((id, entry) -> states.put(id, entry.breaker().getState()));
+        return states;
+    }
+
+    private Entry create(Long routeId) {
+        String routeTag = String.valueOf(routeId);
+        // Registered up front and held by the entry: a transition of a breaker retain() just
+        // dropped only counts on a removed counter, it never registers the meter again
+        Map<String, Counter> transitions = new HashMap<>();
+        for (CircuitBreaker.State[] edge : TRANSITIONS) {
+            transitions.put(edge[0].name() + ">" + edge[1].name(),
+                    Counter.builder("gateway.circuitbreaker.transitions")
+                            .tag("routeId", routeTag)
+                            .tag("from", edge[0].name())
+                            .tag("to", edge[1].name())
+                            .register(meterRegistry));
+        }
+        CircuitBreaker breaker = new CircuitBreaker("route-" + routeId, config, (b, from, to) -> {
+            log.warn("Circuit breaker for route {} changed state: {} → {}", routeId, from, to);
+            Counter counter = transitions.get(from.name() + ">" + to.name());
+            if (counter != null) {
+                counter.increment();
+            }
+        });
+        Gauge stateGauge = Gauge.builder("gateway.circuitbreaker.state", breaker, b -> b.getState().code())
+                .tag("routeId", routeTag)
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.circuitbreaker.rejected")
+                .tag("routeId", routeTag)
+                .register(meterRegistry);
+        return new Entry(breaker, stateGauge, rejected, Map.copyOf(transitions));
+    }
+
+    private record Entry(CircuitBreaker breaker, Gauge stateGauge, Counter rejected,
+                         Map<String, Counter> transitions) {}
+}
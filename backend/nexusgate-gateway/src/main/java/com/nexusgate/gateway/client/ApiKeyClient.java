@@ -1,5 +1,6 @@
 package com.nexusgate.gateway.client;
 
+import com.nexusgate.gateway.dto.ApiKeyChangesResponse;
 import com.nexusgate.gateway.dto.ApiKeyResponse;
 import com.nexusgate.gateway.exception.ApiKeyInvalidException;
 import lombok.RequiredArgsConstructor;
@@ -8,10 +9,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 
 @Slf4j
@@ -59,19 +60,30 @@ public class ApiKeyClient {
     }
 
     /**
-     * Get all API keys from config service (for caching purposes)
+     * API keys changed since a version (first page of the full set for a negative one). Errors are
+     * passed on, so the cache can keep its snapshot and retry from the same version.
      */
-    public Flux<ApiKeyResponse> getAllApiKeys() {
+    public Mono<ApiKeyChangesResponse> getApiKeyChanges(long sinceVersion) {
+        return getApiKeyChanges(sinceVersion, null);
+    }
+
+    /**
+     * Next page of the full key set: the keys after afterId (a page's nextAfterId)
+     */
+    public Mono<ApiKeyChangesResponse> getApiKeyPage(long afterId) {
+        return getApiKeyChanges(-1, afterId);
+    }
+
+    private Mono<ApiKeyChangesResponse> getApiKeyChanges(long sinceVersion, Long afterId) {
         return configServiceWebClient
                 .get()
-                .uri("/api/keys")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/keys/changes")
+                        .queryParam("sinceVersion", sinceVersion)
+                        .queryParamIfPresent("afterId", Optional.ofNullable(afterId))
+                        .build())
                 .retrieve()
-                .bodyToFlux(ApiKeyResponse.class)
-                .timeout(Duration.ofSeconds(10))
-                .doOnNext(apiKey -> log.debug("Fetched API key from config service: id={}", apiKey.getId()))
-                .onErrorResume(e -> {
-                    // Silent fallback - cache will remain empty
-                    return Flux.empty();
-                });
+                .bodyToMono(ApiKeyChangesResponse.class)
+                .timeout(Duration.ofSeconds(10));
     }
 }
\ No newline at end of file
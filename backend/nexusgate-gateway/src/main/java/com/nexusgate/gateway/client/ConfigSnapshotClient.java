@@ -0,0 +1,59 @@
+package com.nexusgate.gateway.client;
+
+import com.nexusgate.gateway.dto.ConfigSnapshotResponse;
+import com.nexusgate.gateway.dto.ConfigVersionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * config-service pull protocol (/config/watch, /config/snapshot). Errors are passed on,
+ * so the watch loop can back off and keep the current caches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfigSnapshotClient {
+
+    private final WebClient configServiceWebClient;
+
+    /**
+     * Long-poll until the config version differs from {@code version}; the answer carries the
+     * new config and API key versions. Empty when config-service answers 304 (nothing changed
+     * within its timeout).
+     */
+    public Mono<ConfigVersionResponse> watch(long version, Duration timeout) {
+        return configServiceWebClient
+                .get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/config/watch")
+                        .queryParam("version", version)
+                        .build())
+                .retrieve()
+                .bodyToMono(ConfigVersionResponse.class)
+                .timeout(timeout)
+                .filter(changed -> changed.getVersion() != null);
+    }
+
+    /**
+     * Routes and rate limits with their ETag. Empty if unchanged since {@code etag}.
+     */
+    public Mono<ResponseEntity<ConfigSnapshotResponse>> getSnapshot(String etag) {
+        return configServiceWebClient
+                .get()
+                .uri("/config/snapshot")
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .retrieve()
+                .toEntity(ConfigSnapshotResponse.class)
+                .timeout(Duration.ofSeconds(30))
+                .filter(entity -> entity.getStatusCode() != HttpStatus.NOT_MODIFIED && entity.getBody() != null);
+    }
+}
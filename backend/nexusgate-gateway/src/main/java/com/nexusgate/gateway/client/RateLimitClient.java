@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -31,4 +32,16 @@ public class RateLimitClient {
                         apiKeyId, serviceRouteId, e))
                 .onErrorResume(e -> Mono.empty());
     }
-}
\ No newline at end of file
+
+    /**
+     * All effective rate limits (bulk preload). Errors propagate so the caller keeps its current table.
+     */
+    public Flux<EffectiveRateLimitResponse> getAllEffectiveRateLimits() {
+        return configServiceWebClient
+                .get()
+                .uri("/rate-limits/effective")
+                .retrieve()
+                .bodyToFlux(EffectiveRateLimitResponse.class)
+                .timeout(Duration.ofSeconds(5));
+    }
+}
@@ -3,11 +3,13 @@ package com.nexusgate.gateway.client;
 import com.nexusgate.gateway.dto.ServiceRouteResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.net.ConnectException;
@@ -71,4 +73,25 @@ public class ServiceRouteClient {
                     return Flux.empty();
                 });
     }
+
+    /**
+     * Fetch one service route (config change events refresh routes one at a time).
+     * Empty if the route does not exist (deleted); other failures are signalled so the
+     * caller can fall back to a full refresh.
+     */
+    public Mono<ServiceRouteResponse> getRoute(Long routeId) {
+        return configServiceWebClient
+                .get()
+                .uri("/service-routes/{id}", routeId)
+                // exchange, not retrieve: the client's default status handler hides the 404
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return response.releaseBody().then(Mono.<ServiceRouteResponse>empty());
+                    }
+                    return response.statusCode().is2xxSuccessful()
+                            ? response.bodyToMono(ServiceRouteResponse.class)
+                            : response.createError();
+                })
+                .timeout(Duration.ofSeconds(5));
+    }
 }
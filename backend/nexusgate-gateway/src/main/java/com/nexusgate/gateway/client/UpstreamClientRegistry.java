@@ -0,0 +1,171 @@
+package com.nexusgate.gateway.client;
+
+import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.loadbalancer.UpstreamTarget;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of long-lived, pooled upstream clients keyed by target origin (scheme://host:port).
+ *
+ * Replaces building a new WebClient per request: every origin gets its own Reactor Netty
+ * ConnectionProvider, sized from the route settings (or gateway defaults), so connection
+ * reuse can be tuned per backend.
+ *
+ * Pool metrics are published to Micrometer and visible through actuator, e.g.
+ *   /actuator/metrics/reactor.netty.connection.provider.active.connections?tag=name:upstream-http://host:8080#1
+ * Available meters: total/active/idle/pending connections and pending.connections.time
+ * (time spent waiting to acquire a connection). The name ends in the pool's generation for the
+ * origin: a rebuilt pool gets the next one, so its meters never collide with those of the
+ * pool it replaces while that one drains.
+ */
+@Slf4j
+@Component
+public class UpstreamClientRegistry {
+
+    private static final String DEFAULT_KEY = "default";
+
+    private final WebClient.Builder webClientBuilder;
+    private final UpstreamPoolSettings defaults;
+    private final Duration pendingAcquireTimeout;
+    private final Duration evictionInterval;
+    private final Duration disposeDelay;
+
+    private final Map<String, UpstreamClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, Integer> generations = new ConcurrentHashMap<>();
+
+    public UpstreamClientRegistry(
+            WebClient.Builder webClientBuilder,
+            @Value("${gateway.upstream.pool.max-connections:500}") int maxConnections,
+            @Value("${gateway.upstream.pool.max-pending-acquires:1000}") int maxPendingAcquires,
+            @Value("${gateway.upstream.pool.max-idle-time-ms:30000}") long maxIdleTimeMs,
+            @Value("${gateway.upstream.pool.max-life-time-ms:300000}") long maxLifeTimeMs,
+            @Value("${gateway.upstream.pool.keep-alive:true}") boolean keepAlive,
+            @Value("${gateway.upstream.pool.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${gateway.upstream.pool.eviction-interval-ms:10000}") long evictionIntervalMs,
+            @Value("${gateway.upstream.pool.dispose-delay-ms:60000}") long disposeDelayMs) {
+        this.webClientBuilder = webClientBuilder;
+        this.defaults = new UpstreamPoolSettings(maxConnections, maxPendingAcquires, maxIdleTimeMs, maxLifeTimeMs, keepAlive);
+        this.pendingAcquireTimeout = Duration.ofMillis(pendingAcquireTimeoutMs);
+        this.evictionInterval = Duration.ofMillis(evictionIntervalMs);
+        this.disposeDelay = Duration.ofMillis(disposeDelayMs);
+    }
+
+    /**
+     * Pooled client for an origin. Created lazily if the origin was not known at the last refresh.
+     */
+    public UpstreamClient clientFor(String origin, ServiceRouteResponse route) {
+        String key = origin != null ? origin : DEFAULT_KEY;
+        UpstreamClient client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
+        return clients.computeIfAbsent(key, k -> create(k, settingsFor(route)));
+    }
+
+    public UpstreamPoolSettings settingsFor(ServiceRouteResponse route) {
+        return route != null ? UpstreamPoolSettings.of(route, defaults) : defaults;
+    }
+
+    /**
+     * Align pools with a new route snapshot: create pools for new origins, rebuild pools
+     * whose settings changed and release pools no route points to anymore.
+     * If several routes share an origin, the first route in the snapshot defines the settings.
+     */
+    public synchronized void reconcile(RouteSnapshot snapshot) {
+        Map<String, UpstreamPoolSettings> desired = new LinkedHashMap<>();
+        for (CompiledRoute route : snapshot.routes()) {
+            for (UpstreamTarget target : route.getTargets()) {
+                if (target.getOrigin() != null) {
+                    desired.putIfAbsent(target.getOrigin(), settingsFor(route.getRoute()));
+                }
+            }
+        }
+
+        desired.forEach((origin, settings) -> {
+            UpstreamClient existing = clients.get(origin);
+            if (existing == null) {
+                clients.put(origin, create(origin, settings));
+            } else if (!existing.settings().equals(settings)) {
+                log.info("Upstream pool settings changed for {} - rebuilding pool: {}", origin, settings);
+                clients.put(origin, create(origin, settings));
+                disposeLater(existing);
+            }
+        });
+
+        clients.entrySet().removeIf(entry -> {
+            if (DEFAULT_KEY.equals(entry.getKey()) || desired.containsKey(entry.getKey())) {
+                return false;
+            }
+            log.info("Upstream {} no longer referenced by any route - releasing pool", entry.getKey());
+            disposeLater(entry.getValue());
+            return true;
+        });
+    }
+
+    public Map<String, UpstreamClient> getClients() {
+        return Map.copyOf(clients);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.provider().dispose());
+        clients.clear();
+    }
+
+    private UpstreamClient create(String origin, UpstreamPoolSettings settings) {
+        int generation = generations.merge(origin, 1, Integer::sum);
+        ConnectionProvider provider = ConnectionProvider.builder("upstream-" + origin + "#" + generation)
+                .maxConnections(settings.maxConnections())
+                .pendingAcquireMaxCount(settings.maxPendingAcquires())
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(Duration.ofMillis(settings.maxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(settings.maxLifeTimeMs()))
+                .evictInBackground(evictionInterval)
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .keepAlive(settings.keepAlive());
+
+        WebClient webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        log.info("Created upstream pool {} - {}", provider.name(), settings);
+        return new UpstreamClient(origin, settings, provider, httpClient, webClient);
+    }
+
+    /**
+     * Replaced pools may still carry in-flight requests - dispose them after a grace period
+     */
+    private void disposeLater(UpstreamClient client) {
+        Mono.delay(disposeDelay)
+                .then(client.provider().disposeLater())
+                .subscribe(
+                        ignored -> {},
+                        error -> log.warn("Failed to dispose upstream pool for {}: {}", client.origin(), error.getMessage())
+                );
+    }
+
+    public record UpstreamClient(
+            String origin,
+            UpstreamPoolSettings settings,
+            ConnectionProvider provider,
+            HttpClient httpClient,
+            WebClient webClient) {}
+}
@@ -0,0 +1,33 @@
+package com.nexusgate.gateway.client;
+
+import com.nexusgate.gateway.dto.ServiceRouteResponse;
+
+/**
+ * Effective connection pool settings for one upstream origin.
+ * Route-level values override the gateway defaults when present.
+ */
+public record UpstreamPoolSettings(
+        int maxConnections,
+        int maxPendingAcquires,
+        long maxIdleTimeMs,
+        long maxLifeTimeMs,
+        boolean keepAlive) {
+
+    public static UpstreamPoolSettings of(ServiceRouteResponse route, UpstreamPoolSettings defaults) {
+        return new UpstreamPoolSettings(
+                positiveOr(route.getMaxConnections(), defaults.maxConnections()),
+                positiveOr(route.getMaxPendingAcquires(), defaults.maxPendingAcquires()),
+                positiveOr(route.getMaxIdleTimeMs(), defaults.maxIdleTimeMs()),
+                positiveOr(route.getMaxLifeTimeMs(), defaults.maxLifeTimeMs()),
+                route.getKeepAlive() != null ? route.getKeepAlive() : defaults.keepAlive()
+        );
+    }
+
+    private static int positiveOr(Integer value, int fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    private static long positiveOr(Integer value, long fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+}
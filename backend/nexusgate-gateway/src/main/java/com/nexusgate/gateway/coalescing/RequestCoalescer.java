@@ -0,0 +1,154 @@
+package com.nexusgate.gateway.coalescing;
+
+import com.nexusgate.gateway.routing.CompiledRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for identical concurrent GET requests.
+ *
+ * The first request for a key (the leader) starts the upstream call; requests with the same
+ * key that arrive while it is in flight wait for its buffered response instead of calling
+ * the backend themselves. The flight is detached from the leader's client, so a leader that
+ * disconnects does not fail the waiters.
+ *
+ * Fallback to an independent fetch:
+ *   - a waiter has waited longer than the coalescing timeout
+ *   - the response body is larger than the coalescing size limit (leader and waiters)
+ * Upstream errors are shared - fanning a failure out to N retries is what this avoids.
+ *
+ * Metrics:
+ *   gateway.coalescing.requests{role=leader|follower|fallback}
+ *   gateway.coalescing.inflight    flights currently open
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final int defaultMaxBytes;
+    private final Duration defaultTimeout;
+    private final List<String> keyHeaders;
+    private final boolean shareAcrossApiKeys;
+
+    private final Map<String, Sinks.One<SharedResponse>> flights = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public RequestCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.coalescing.max-bytes:1048576}") int defaultMaxBytes,
+            @Value("${gateway.coalescing.timeout-ms:2000}") long defaultTimeoutMs,
+            @Value("${gateway.coalescing.key-headers:Accept,Accept-Encoding,Accept-Language,Authorization,Cookie}") List<String> keyHeaders,
+            @Value("${gateway.coalescing.share-across-api-keys:false}") boolean shareAcrossApiKeys) {
+        this.defaultMaxBytes = defaultMaxBytes;
+        this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+        this.keyHeaders = keyHeaders.stream().map(String::trim).filter(h -> !h.isEmpty()).toList();
+        this.shareAcrossApiKeys = shareAcrossApiKeys;
+
+        this.leaders = requests(meterRegistry, "leader");
+        this.followers = requests(meterRegistry, "follower");
+        this.fallbacks = requests(meterRegistry, "fallback");
+        Gauge.builder("gateway.coalescing.inflight", flights, Map::size)
+                .register(meterRegistry);
+    }
+
+    public int maxBytes(CompiledRoute route) {
+        return route.getCoalescingMaxBytes() != null ? route.getCoalescingMaxBytes() : defaultMaxBytes;
+    }
+
+    /**
+     * Route + path + query + the request headers that can change the representation.
+     * The API key id is part of the key unless responses may be shared across keys.
+     */
+    public String keyFor(CompiledRoute route, ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(128)
+                .append(route.getId()).append(' ')
+                .append(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : keyHeaders) {
+            List<String> values = request.getHeaders().get(header);
+            if (values != null) {
+                key.append('\n').append(header).append(':').append(String.join(",", values));
+            }
+        }
+        if (!shareAcrossApiKeys) {
+            Long apiKeyId = exchange.getAttribute("apiKeyId");
+            if (apiKeyId != null) {
+                key.append("\nkey:").append(apiKeyId);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Join the flight for the key, or start it.
+     *
+     * @param fetch    upstream call for the shared response; runs once per flight
+     * @param write    writes a shared response to this request's client
+     * @param fallback independent request when coalescing does not apply
+     */
+    public Mono<Void> execute(CompiledRoute route, String key, Mono<SharedResponse> fetch,
+                              Function<SharedResponse, Mono<Void>> write, Supplier<Mono<Void>> fallback) {
+        return Mono.defer(() -> {
+            Sinks.One<SharedResponse> flight = Sinks.one();
+            Sinks.One<SharedResponse> existing = flights.putIfAbsent(key, flight);
+
+            if (existing != null) {
+                followers.increment();
+                Duration timeout = route.getCoalescingTimeout() != null ? route.getCoalescingTimeout() : defaultTimeout;
+                return existing.asMono()
+                        .timeout(timeout)
+                        .flatMap(write)
+                        .onErrorResume(e -> e instanceof TimeoutException || e instanceof DataBufferLimitException,
+                                e -> fallback(route, key, e, fallback));
+            }
+
+            leaders.increment();
+            fetch.doFinally(signal -> flights.remove(key, flight))
+                    .subscribe(
+                            flight::tryEmitValue,
+                            flight::tryEmitError,
+                            flight::tryEmitEmpty
+                    );
+            return flight.asMono()
+                    .flatMap(write)
+                    .onErrorResume(DataBufferLimitException.class, e -> fallback(route, key, e, fallback));
+        });
+    }
+
+    private Mono<Void> fallback(CompiledRoute route, String key, Throwable cause, Supplier<Mono<Void>> fallback) {
+        fallbacks.increment();
+        log.debug("Coalescing fallback - RouteId: {}, Key: {}, Reason: {}",
+                route.getId(), key.replace('\n', ' '), cause.getClass().getSimpleName());
+        return fallback.get();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.nexusgate.gateway.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Fully read upstream response shared by all requests of one flight.
+ * Headers are read-only and the body is never modified, so waiters can write it concurrently.
+ */
+public record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
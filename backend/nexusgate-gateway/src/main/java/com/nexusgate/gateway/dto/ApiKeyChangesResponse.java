@@ -0,0 +1,19 @@
+package com.nexusgate.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiKeyChangesResponse {
+    private Long version;               // Ask for changes since this version next
+    private Boolean full;               // true → keys is a page of the complete set (by id)
+    private Boolean hasMore;            // true → more changes pending, ask again right away
+    private List<ApiKeyResponse> keys;  // Changed keys, oldest change first
+    private Long nextAfterId;           // Full set: afterId of the next page (hasMore)
+    private Long totalKeys;             // Full set, first page: keys in the set
+}
@@ -0,0 +1,16 @@
+package com.nexusgate.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigSnapshotResponse {
+    private Long version;                                // Config version to watch from next
+    private List<ServiceRouteResponse> routes;           // Active routes
+    private List<EffectiveRateLimitResponse> rateLimits; // All rules plus the system default
+}
@@ -0,0 +1,13 @@
+package com.nexusgate.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigVersionResponse {
+    private Long version;
+    private Long apiKeyVersion;  // API key change feed version - sync keys when it differs from the cache's
+}
@@ -9,8 +9,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class EffectiveRateLimitResponse {
+    private Long rateLimitId;
+    private Long apiKeyId;             // null for DEFAULT and SYSTEM
+    private Long serviceRouteId;       // null for GLOBAL and SYSTEM
     private Integer requestsPerMinute;
     private Integer requestsPerHour;
+    private Integer requestsPerDay;
+    private String source;             // SPECIFIC, DEFAULT, GLOBAL or SYSTEM
+    private String algorithm;          // null → the route's algorithm
     
     @JsonProperty("active")  // Maps to "active" in JSON response
     private Boolean isActive;
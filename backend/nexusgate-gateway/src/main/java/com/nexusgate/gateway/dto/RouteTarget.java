@@ -0,0 +1,13 @@
+package com.nexusgate.gateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteTarget {
+    private String url;
+    private Integer weight;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -14,13 +15,49 @@ public class ServiceRouteResponse {
     private String publicPath;
     private String targetUrl;
     private List<String> allowedMethods;
+    private List<RouteTarget> targets;       // Weighted backend instances (empty → targetUrl only)
+    private String loadBalancingStrategy;
+    private String healthCheckPath;          // Active probe path (null → passive checks only)
     private Boolean authRequired;
     private String authType;
     private Boolean requiresApiKey;
     private Boolean rateLimitEnabled;
     private Integer rateLimitPerMinute;
     private Integer rateLimitPerHour;
+    private Integer rateLimitLeasePercent;   // Local token lease size, null/0 → Redis per request
+    private String rateLimitAlgorithm;       // TOKEN_BUCKET, GCRA or SLIDING_WINDOW (null → TOKEN_BUCKET)
+    private Integer rateLimitShapingMaxDelayMs; // Queue over-limit requests up to this long, null/0 → 429
+    private Integer rateLimitCost;           // Tokens per request, null → 1
+    private Map<String, Integer> rateLimitMethodCosts; // Per-method cost, overrides rateLimitCost
+    private Integer rateLimitCostPerKb;      // Extra tokens per KiB of request body
+    private Integer rateLimitUnknownLengthKb; // KiB charged for bodies without Content-Length, null → gateway default
     private Integer timeoutMs;
     private String customHeaders;
+
+    // Upstream connection pool (null → gateway defaults)
+    private Integer maxConnections;
+    private Integer maxPendingAcquires;
+    private Integer maxIdleTimeMs;
+    private Integer maxLifeTimeMs;
+    private Boolean keepAlive;
+
+    private Boolean streamingEnabled;
+    private Boolean circuitBreakerEnabled;   // null → gateway default
+
+    // Hedging / retries (idempotent methods only)
+    private Boolean hedgingEnabled;
+    private Integer hedgeDelayMs;            // null → observed p95 of the route
+    private Integer maxRetries;              // retries on connect failures, null → gateway default
+
+    // Response cache (GET only)
+    private Boolean cacheEnabled;
+    private Integer cacheTtlSeconds;         // null → upstream Cache-Control/Expires only
+    private Boolean cacheSharedAcrossApiKeys; // false → cached per API key
+
+    // Request coalescing (GET only)
+    private Boolean coalescingEnabled;
+    private Integer coalescingMaxBytes;      // null → gateway default
+    private Integer coalescingTimeoutMs;     // null → gateway default
+
     private Boolean isActive;
 }
@@ -1,9 +1,9 @@
 package com.nexusgate.gateway.filter;
 
-import com.nexusgate.gateway.client.ApiKeyClient;
-import com.nexusgate.gateway.dto.ApiKeyResponse;
+import com.nexusgate.gateway.apikey.ApiKeyTable;
 import com.nexusgate.gateway.dto.ServiceRouteResponse;
 import com.nexusgate.gateway.security.JwtValidator;
+import com.nexusgate.gateway.service.ApiKeyCacheService;
 import com.nexusgate.gateway.util.ErrorResponseUtil;
 import com.nexusgate.gateway.util.HeaderUtil;
 import lombok.RequiredArgsConstructor;
@@ -16,14 +16,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
-    private final ApiKeyClient apiKeyClient;
+    private final ApiKeyCacheService apiKeyCacheService;
     private final JwtValidator jwtValidator;
     private final ErrorResponseUtil errorResponseUtil;
 
@@ -44,19 +44,22 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         // Handle different authentication types
         switch (authType.toUpperCase()) {
             case "API_KEY":
-                return authenticateWithApiKey(exchange, chain);
+                return authenticateWithApiKey(exchange, () -> chain.filter(exchange));
             case "JWT":
                 return authenticateWithJwt(exchange, chain);
             case "BOTH":
-                return authenticateWithApiKey(exchange, chain)
-                        .flatMap(ignored -> authenticateWithJwt(exchange, chain));
+                return authenticateWithApiKey(exchange, () -> authenticateWithJwt(exchange, chain));
             default:
                 log.warn("Unknown auth type: {}", authType);
                 return chain.filter(exchange);
         }
     }
 
-    private Mono<Void> authenticateWithApiKey(ServerWebExchange exchange, GatewayFilterChain chain) {
+    /**
+     * Check the key against the local key cache (no config-service call) and continue with
+     * {@code next} if it is valid
+     */
+    private Mono<Void> authenticateWithApiKey(ServerWebExchange exchange, Supplier<Mono<Void>> next) {
         String apiKey = HeaderUtil.extractApiKey(exchange.getRequest());
 
         if (apiKey == null || apiKey.isEmpty()) {
@@ -64,23 +67,32 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
             return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "API key is required");
         }
 
-        return apiKeyClient.validateApiKey(apiKey)
-                .flatMap(apiKeyResponse -> {
-                    if (!isValidApiKey(apiKeyResponse)) {
-                        log.warn("Invalid or expired API key");
-                        return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Invalid or expired API key");
-                    }
-
-                    // Store API key ID for downstream filters
-                    exchange.getAttributes().put("apiKeyId", apiKeyResponse.getId());
-                    log.debug("API key validated successfully for keyId: {}", apiKeyResponse.getId());
-                    return chain.filter(exchange);
-                })
-                .onErrorResume(throwable -> {
-                    log.error("Error during API key validation", throwable);
-                    return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "API key validation failed");
-                })
-                .switchIfEmpty(errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Invalid API key"));
+        // Already resolved by GlobalRequestFilter (routes with requiresApiKey)
+        if (exchange.getAttribute("apiKeyId") != null && apiKey.equals(exchange.getAttribute("apiKeyValue"))) {
+            return next.get();
+        }
+
+        if (!apiKeyCacheService.isLoaded()) {
+            log.error("API key cache not loaded yet for path: {}", exchange.getRequest().getPath());
+            return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Authentication service temporarily unavailable");
+        }
+
+        long apiKeyId = apiKeyCacheService.resolveApiKeyId(apiKey);
+        if (apiKeyId == ApiKeyTable.UNKNOWN) {
+            // Counted in gateway.apikeys.rejected - a warning per key would flood the log under credential stuffing
+            log.debug("Invalid API key for path: {}", exchange.getRequest().getPath());
+            return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Invalid API key");
+        }
+        if (apiKeyId < 0) {
+            log.warn("Inactive or expired API key");
+            return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "Invalid or expired API key");
+        }
+
+        // Store API key ID for downstream filters
+        exchange.getAttributes().put("apiKeyId", apiKeyId);
+        log.debug("API key validated successfully for keyId: {}", apiKeyId);
+        return next.get();
     }
 
     private Mono<Void> authenticateWithJwt(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -101,22 +113,6 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange);
     }
 
-    private boolean isValidApiKey(ApiKeyResponse apiKeyResponse) {
-        if (apiKeyResponse == null) {
-            return false;
-        }
-
-        if (apiKeyResponse.getIsActive() == null || !apiKeyResponse.getIsActive()) {
-            return false;
-        }
-
-        if (apiKeyResponse.getExpiresAt() != null) {
-            return apiKeyResponse.getExpiresAt().isAfter(LocalDateTime.now());
-        }
-
-        return true;
-    }
-
     @Override
     public int getOrder() {
         return -90;
@@ -1,6 +1,6 @@
 package com.nexusgate.gateway.filter;
 
-import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.routing.CompiledRoute;
 import com.nexusgate.gateway.util.ErrorResponseUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +13,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 /**
  * Filter to validate that the incoming HTTP method is allowed for the matched route.
  * Runs at order -95, after route resolution but before authentication.
@@ -28,10 +26,10 @@ public class MethodValidationFilter implements GlobalFilter, Ordered {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServiceRouteResponse route = exchange.getAttribute("serviceRoute");
+        CompiledRoute route = exchange.getAttribute("compiledRoute");
 
         // If no route found or allowedMethods not configured, skip validation
-        if (route == null || route.getAllowedMethods() == null || route.getAllowedMethods().isEmpty()) {
+        if (route == null || route.allowsAnyMethod()) {
             return chain.filter(exchange);
         }
 
@@ -41,34 +39,19 @@ public class MethodValidationFilter implements GlobalFilter, Ordered {
             return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.BAD_REQUEST, "Invalid HTTP method");
         }
 
-        String methodName = requestMethod.name();
-        List<String> allowedMethods = route.getAllowedMethods();
-
-        // Debug: Log the exact comparison
-        log.debug("Validating method '{}' against allowed methods: {}", methodName, allowedMethods);
-        if (allowedMethods != null) {
-            allowedMethods.forEach(method -> 
-                log.debug("  Comparing '{}' with '{}' (equals: {}, equalsIgnoreCase: {})", 
-                    methodName, method, methodName.equals(method), methodName.equalsIgnoreCase(method))
-            );
-        }
-
-        // Check if the request method is in the allowed list (case-insensitive)
-        boolean isAllowed = allowedMethods != null && allowedMethods.stream()
-                .anyMatch(allowed -> allowed != null && allowed.equalsIgnoreCase(methodName));
-
-        if (!isAllowed) {
-            log.warn("Method {} not allowed for route {} (path: {}). Allowed methods: {} (null check: {}, stream check: {})", 
-                    methodName, route.getId(), route.getPublicPath(), allowedMethods,
-                    allowedMethods == null, allowedMethods != null ? allowedMethods.stream().anyMatch(m -> m != null && m.equalsIgnoreCase(methodName)) : "list was null");
+        // Precomputed bitmask check (case-insensitive, normalized when the route was compiled)
+        if (!route.isMethodAllowed(requestMethod)) {
+            String methodName = requestMethod.name();
+            log.warn("Method {} not allowed for route {} (path: {}). Allowed methods: {}",
+                    methodName, route.getId(), route.getPublicPath(), route.getAllowedMethodsDescription());
             return errorResponseUtil.writeErrorResponse(
                     exchange, 
                     HttpStatus.METHOD_NOT_ALLOWED, 
-                    String.format("Method %s is not allowed. Allowed methods: %s", methodName, String.join(", ", allowedMethods))
+                    String.format("Method %s is not allowed. Allowed methods: %s", methodName, route.getAllowedMethodsDescription())
             );
         }
 
-        log.debug("Method {} is allowed for route {} (path: {})", methodName, route.getId(), route.getPublicPath());
+        log.debug("Method {} is allowed for route {} (path: {})", requestMethod, route.getId(), route.getPublicPath());
         return chain.filter(exchange);
     }
 
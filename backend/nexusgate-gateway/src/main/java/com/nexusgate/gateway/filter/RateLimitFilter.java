@@ -2,13 +2,21 @@ package com.nexusgate.gateway.filter;
 
 
 import com.nexusgate.gateway.client.AnalyticsClient;
-import com.nexusgate.gateway.client.RateLimitClient;
+import com.nexusgate.gateway.dto.EffectiveRateLimitResponse;
 import com.nexusgate.gateway.dto.ServiceRouteResponse;
-import com.nexusgate.gateway.redis.RedisRateLimiterService;
+import com.nexusgate.gateway.redis.RateLimitAlgorithm;
+import com.nexusgate.gateway.redis.RateLimitDecision;
+import com.nexusgate.gateway.redis.RateLimitDenialCache;
+import com.nexusgate.gateway.redis.RateLimitStrategies;
+import com.nexusgate.gateway.redis.TokenLeaseManager;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.service.RateLimitCacheService;
+import com.nexusgate.gateway.shaping.TrafficShaper;
 import com.nexusgate.gateway.util.ErrorResponseUtil;
 import com.nexusgate.gateway.util.HeaderUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -17,16 +25,25 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RateLimitFilter implements GlobalFilter, Ordered {
 
-    private final RateLimitClient rateLimitClient;
-    private final RedisRateLimiterService redisRateLimiterService;
+    private final RateLimitCacheService rateLimitCacheService;
+    private final TokenLeaseManager tokenLeaseManager;
+    private final RateLimitStrategies rateLimitStrategies;
+    private final RateLimitDenialCache denialCache;
+    private final TrafficShaper trafficShaper;
     private final ErrorResponseUtil errorResponseUtil;
     private final AnalyticsClient analyticsClient;
 
+    // KiB charged for request bodies without Content-Length on routes with rateLimitCostPerKb
+    @Value("${gateway.rate-limit.unknown-length-kb:64}")
+    private long unknownLengthKb;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServiceRouteResponse route = exchange.getAttribute("serviceRoute");
@@ -43,33 +60,62 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
 
         log.debug("Checking rate limits for ApiKeyId: {}, RouteId: {}", apiKeyId, route.getId());
 
-        return rateLimitClient.checkRateLimit(apiKeyId, route.getId())
-                .flatMap(rateLimitResponse -> {
+        // Optional wrapper: an empty lookup must continue the chain exactly once
+        return rateLimitCacheService.getEffectiveRateLimit(apiKeyId, route.getId())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(lookup -> {
+                    if (lookup.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    var rateLimitResponse = lookup.get();
                     if (rateLimitResponse.getIsActive() == null || !rateLimitResponse.getIsActive()) {
                         log.debug("Rate limiting not active for ApiKeyId: {}, RouteId: {}", apiKeyId, route.getId());
                         return chain.filter(exchange);
                     }
+                    long cost = cost(exchange, rateLimitResponse);
 
-                    return redisRateLimiterService.isAllowed(
-                            apiKeyId,
-                            route.getId(),
+                    // Still inside a remembered denial: 429 without Redis or analytics calls
+                    // (shaping routes queue it instead)
+                    RateLimitDecision cached = denialCache.get(apiKeyId, route.getId(),
                             rateLimitResponse.getRequestsPerMinute(),
-                            rateLimitResponse.getRequestsPerHour()
-                    ).flatMap(allowed -> {
-                        if (!allowed) {
-                            log.warn("Rate limit exceeded - ApiKeyId: {}, RouteId: {}, Path: {}", 
-                                    apiKeyId, route.getId(), exchange.getRequest().getPath().value());
+                            rateLimitResponse.getRequestsPerHour(),
+                            rateLimitResponse.getRequestsPerDay(),
+                            cost);
+                    if (cached != null && !isShaping(route)) {
+                        log.debug("Rate limit denial cached - ApiKeyId: {}, RouteId: {}, RetryAfter: {}ms",
+                                apiKeyId, route.getId(), cached.retryAfterMs());
+                        exchange.getAttributes().put("rateLimited", true);
+                        return reject(exchange, cached);
+                    }
+
+                    Mono<RateLimitDecision> decided = (cached != null
+                            ? Mono.just(cached)
+                            : check(apiKeyId, route, rateLimitResponse, cost))
+                            .flatMap(decision -> shape(apiKeyId, route, rateLimitResponse, cost, decision));
+                    return decided.flatMap(decision -> {
+                        if (!decision.allowed()) {
+                            log.warn("Rate limit exceeded - ApiKeyId: {}, RouteId: {}, Path: {}, Tier: {}", 
+                                    apiKeyId, route.getId(), exchange.getRequest().getPath().value(),
+                                    decision.exceededTier());
                             
                             // Mark as rate limited for analytics
                             exchange.getAttributes().put("rateLimited", true);
+                            denialCache.put(apiKeyId, route.getId(),
+                                    rateLimitResponse.getRequestsPerMinute(),
+                                    rateLimitResponse.getRequestsPerHour(),
+                                    rateLimitResponse.getRequestsPerDay(),
+                                    cost,
+                                    decision);
                             
                             // Send rate limit violation to Analytics Service
                             try {
                                 String apiKeyValue = exchange.getAttribute("apiKeyValue");
                                 String clientIp = HeaderUtil.getClientIp(exchange.getRequest());
-                                String limitValue = String.format("%d/min, %d/hour", 
+                                String limitValue = String.format("%d/min, %d/hour, %d/day", 
                                         rateLimitResponse.getRequestsPerMinute(),
-                                        rateLimitResponse.getRequestsPerHour());
+                                        rateLimitResponse.getRequestsPerHour(),
+                                        rateLimitResponse.getRequestsPerDay());
                                 
                                 analyticsClient.sendRateLimitViolation(
                                         apiKeyValue != null ? apiKeyValue : "unknown",
@@ -84,14 +130,99 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
                                 log.warn("Failed to send rate limit violation: {}", e.getMessage());
                             }
                             
-                            return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.TOO_MANY_REQUESTS,
-                                    "Rate limit exceeded");
+                            return reject(exchange, decision);
                         }
                         log.debug("Rate limit check passed for ApiKeyId: {}, RouteId: {}", apiKeyId, route.getId());
                         return chain.filter(exchange);
                     });
-                })
-                .switchIfEmpty(chain.filter(exchange));
+                });
+    }
+
+    /**
+     * Tokens this request takes (route/method cost plus body size, see CompiledRoute), capped
+     * at the tightest configured limit - a request costing more than a whole window could never pass
+     */
+    private long cost(ServerWebExchange exchange, EffectiveRateLimitResponse limit) {
+        CompiledRoute compiledRoute = exchange.getAttribute("compiledRoute");
+        if (compiledRoute == null) {
+            return 1;
+        }
+        long cost = compiledRoute.rateLimitCost(exchange.getRequest().getMethod(),
+                exchange.getRequest().getHeaders(), unknownLengthKb);
+        for (Integer perWindow : new Integer[]{
+                limit.getRequestsPerMinute(), limit.getRequestsPerHour(), limit.getRequestsPerDay()}) {
+            if (perWindow != null && perWindow > 0) {
+                cost = Math.min(cost, perWindow);
+            }
+        }
+        return Math.max(1, cost);
+    }
+
+    private static boolean isShaping(ServiceRouteResponse route) {
+        return route.getRateLimitShapingMaxDelayMs() != null && route.getRateLimitShapingMaxDelayMs() > 0;
+    }
+
+    /**
+     * Shaping routes: queue a denied request until a re-check passes, for at most the
+     * route's rateLimitShapingMaxDelayMs. Denials that need a longer wait pass through.
+     */
+    private Mono<RateLimitDecision> shape(Long apiKeyId, ServiceRouteResponse route,
+                                          EffectiveRateLimitResponse limit, long cost, RateLimitDecision decision) {
+        if (decision.allowed() || !isShaping(route)
+                || decision.retryAfterMs() > route.getRateLimitShapingMaxDelayMs()) {
+            return Mono.just(decision);
+        }
+        return trafficShaper.shape(apiKeyId + ":" + route.getId(), emissionIntervalMs(decision, limit) * cost,
+                route.getRateLimitShapingMaxDelayMs(), decision, () -> check(apiKeyId, route, limit, cost));
+    }
+
+    /**
+     * Spacing between shaped requests of cost 1: window / limit of the tier that denied
+     */
+    private static long emissionIntervalMs(RateLimitDecision decision, EffectiveRateLimitResponse limit) {
+        Integer perWindow;
+        long windowMs;
+        if ("day".equals(decision.exceededTier())) {
+            perWindow = limit.getRequestsPerDay();
+            windowMs = 86_400_000L;
+        } else if ("hour".equals(decision.exceededTier())) {
+            perWindow = limit.getRequestsPerHour();
+            windowMs = 3_600_000L;
+        } else {
+            perWindow = limit.getRequestsPerMinute();
+            windowMs = 60_000L;
+        }
+        return perWindow != null && perWindow > 0 ? Math.max(1, windowMs / perWindow) : 1;
+    }
+
+    /**
+     * 429 with Retry-After (seconds, rounded up) when the refill time is known
+     */
+    private Mono<Void> reject(ServerWebExchange exchange, RateLimitDecision decision) {
+        if (decision.retryAfterMs() > 0) {
+            exchange.getResponse().getHeaders().set("Retry-After",
+                    String.valueOf((decision.retryAfterMs() + 999) / 1000));
+        }
+        return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                "Rate limit exceeded");
+    }
+
+    /**
+     * Algorithm of the rate limit rule, else of the route, else token bucket.
+     * Token bucket checks go through the lease manager (local leases for routes with rateLimitLeasePercent),
+     * unless the peer-to-peer backend replaces Redis.
+     */
+    private Mono<RateLimitDecision> check(Long apiKeyId, ServiceRouteResponse route, EffectiveRateLimitResponse limit,
+                                          long cost) {
+        RateLimitAlgorithm algorithm = RateLimitAlgorithm.from(
+                limit.getAlgorithm() != null ? limit.getAlgorithm() : route.getRateLimitAlgorithm());
+        if (algorithm == RateLimitAlgorithm.TOKEN_BUCKET && !rateLimitStrategies.isPeerToPeer()) {
+            return tokenLeaseManager.isAllowed(apiKeyId, route.getId(),
+                    limit.getRequestsPerMinute(), limit.getRequestsPerHour(), limit.getRequestsPerDay(),
+                    route.getRateLimitLeasePercent(), cost);
+        }
+        return rateLimitStrategies.get(algorithm).isAllowed(apiKeyId, route.getId(),
+                limit.getRequestsPerMinute(), limit.getRequestsPerHour(), limit.getRequestsPerDay(), cost);
     }
 
     @Override
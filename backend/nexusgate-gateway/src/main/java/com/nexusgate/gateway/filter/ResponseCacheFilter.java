@@ -0,0 +1,217 @@
+package com.nexusgate.gateway.filter;
+
+import com.nexusgate.gateway.cache.CachePolicy;
+import com.nexusgate.gateway.cache.CachedResponse;
+import com.nexusgate.gateway.cache.ResponseCache;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Gateway response cache for routes with cacheEnabled.
+ *
+ * Runs after authentication and rate limiting, so cache hits are still authorized and
+ * counted. GET responses are served from the cache when fresh; on a miss the upstream
+ * response is teed into the cache while it streams to the client (no added latency).
+ * Successful unsafe requests (POST/PUT/PATCH/DELETE) invalidate the cached URL.
+ *
+ * Entries are per API key: a response fetched with one key is only served to that key,
+ * unless the route sets cacheSharedAcrossApiKeys or the backend marks the response
+ * "public" / s-maxage - those are stored once under the URL for every key. An unsafe
+ * request invalidates the shared entry and its own key's entry; other keys' entries of the
+ * URL expire with their freshness lifetime.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CompiledRoute route = exchange.getAttribute("compiledRoute");
+        if (route == null || !route.isCacheEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        String sharedKey = cacheKey(route, request);
+        Long apiKeyId = exchange.getAttribute("apiKeyId");
+        String ownKey = route.isCacheSharedAcrossApiKeys() || apiKeyId == null
+                ? sharedKey
+                : sharedKey + "#key=" + apiKeyId;
+
+        if (method != HttpMethod.GET) {
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE) {
+                return chain.filter(exchange);
+            }
+            // Unsafe method - a successful change makes the cached representation stale
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && (status.is2xxSuccessful() || status.is3xxRedirection())) {
+                    responseCache.invalidate(sharedKey);
+                    if (!ownKey.equals(sharedKey)) {
+                        responseCache.invalidate(ownKey);
+                    }
+                }
+            });
+        }
+
+        if (CachePolicy.isNoStore(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        Mono<CachedResponse> cached;
+        if (CachePolicy.wantsRefresh(request.getHeaders())) {
+            cached = Mono.empty();
+        } else if (ownKey.equals(sharedKey)) {
+            cached = responseCache.lookup(sharedKey, exchange);
+        } else {
+            // Own entry first, then one the backend allowed to be shared (an entry stored while
+            // the route was shared is not served across keys)
+            cached = responseCache.lookup(ownKey, exchange)
+                    .switchIfEmpty(Mono.defer(() -> responseCache.lookup(sharedKey, exchange)
+                            .filter(response -> CachePolicy.isExplicitlyShared(response.headers()))));
+        }
+
+        // Optional wrapper: writing a hit completes empty, so switchIfEmpty would also forward it
+        return cached
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(hit -> {
+                    if (hit.isPresent()) {
+                        return writeCached(exchange, route, hit.get());
+                    }
+                    ServerHttpResponse decorated = new CachingResponseDecorator(exchange, route, sharedKey, ownKey);
+                    return chain.filter(exchange.mutate().response(decorated).build());
+                });
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CompiledRoute route, CachedResponse cached) {
+        log.debug("Response cache hit - RouteId: {}, Path: {}", route.getId(), exchange.getRequest().getPath().value());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach(headers::addAll);
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.currentTimeMillis())));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (cached.body() == null || cached.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Route id + path + query, shared by all API keys; Vary variants are checked on lookup
+     */
+    private static String cacheKey(CompiledRoute route, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().value();
+        return route.getId() + ":" + (query != null ? path + "?" + query : path);
+    }
+
+    /**
+     * Tees the upstream body into a byte array while it is written to the client and
+     * stores the response once the body completed. Bodies over max-entry-bytes are not stored.
+     * Responses marked public / s-maxage go under the shared key, everything else under the
+     * requesting API key's.
+     */
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final CompiledRoute route;
+        private final String sharedKey;
+        private final String ownKey;
+
+        CachingResponseDecorator(ServerWebExchange exchange, CompiledRoute route, String sharedKey, String ownKey) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.route = route;
+            this.sharedKey = sharedKey;
+            this.ownKey = ownKey;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            Duration freshness = status != null
+                    ? CachePolicy.freshness(status.value(), headers, exchange.getRequest().getHeaders(), route.getCacheTtl())
+                    : null;
+            if (freshness == null) {
+                return super.writeWith(body);
+            }
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            String key = CachePolicy.isExplicitlyShared(headers.get(HttpHeaders.CACHE_CONTROL)) ? sharedKey : ownKey;
+
+            // Snapshot before the body is written - headers may become read-only once committed
+            int statusCode = status.value();
+            Map<String, List<String>> storedHeaders = new LinkedHashMap<>();
+            headers.forEach((name, values) -> {
+                if (!name.equalsIgnoreCase(CACHE_STATUS_HEADER) && !name.equalsIgnoreCase(HttpHeaders.AGE)) {
+                    storedHeaders.put(name, List.copyOf(values));
+                }
+            });
+            Map<String, String> varyValues = CachePolicy.varyValues(CachePolicy.varyNames(headers), exchange);
+
+            int maxEntryBytes = responseCache.getMaxEntryBytes();
+            ByteArrayOutputStream[] capture = {new ByteArrayOutputStream()};
+            Flux<DataBuffer> tee = Flux.from(body)
+                    .map(buffer -> {
+                        ByteArrayOutputStream out = capture[0];
+                        int length = buffer.readableByteCount();
+                        if (out != null && out.size() + length <= maxEntryBytes) {
+                            byte[] bytes = new byte[length];
+                            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, length);
+                            out.write(bytes, 0, length);
+                        } else {
+                            // Too large to cache - stop copying
+                            capture[0] = null;
+                        }
+                        return (DataBuffer) buffer;
+                    })
+                    .doOnComplete(() -> {
+                        ByteArrayOutputStream out = capture[0];
+                        if (out == null) {
+                            return;
+                        }
+                        long now = System.currentTimeMillis();
+                        responseCache.store(key, new CachedResponse(statusCode, storedHeaders, out.toByteArray(),
+                                varyValues, now, now + freshness.toMillis()));
+                    });
+            return super.writeWith(tee);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return -75;
+    }
+}
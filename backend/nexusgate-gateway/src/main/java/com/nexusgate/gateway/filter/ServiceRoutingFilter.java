@@ -1,41 +1,87 @@
 package com.nexusgate.gateway.filter;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.circuitbreaker.CircuitBreaker;
+import com.nexusgate.gateway.circuitbreaker.CircuitBreakerRegistry;
+import com.nexusgate.gateway.client.UpstreamClientRegistry;
+import com.nexusgate.gateway.coalescing.RequestCoalescer;
+import com.nexusgate.gateway.coalescing.SharedResponse;
+import com.nexusgate.gateway.loadbalancer.EndpointStats;
+import com.nexusgate.gateway.loadbalancer.UpstreamTarget;
+import com.nexusgate.gateway.retry.RouteRetryRegistry;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.util.ErrorResponseUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.util.ReferenceCountUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
 import java.time.Duration;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ServiceRoutingFilter implements GlobalFilter, Ordered {
 
-    private final WebClient.Builder webClientBuilder;
-    private final ObjectMapper objectMapper;
+    private final UpstreamClientRegistry upstreamClientRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RouteRetryRegistry routeRetryRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final ErrorResponseUtil errorResponseUtil;
+
+    // Hedged responses are buffered so two attempts can race; larger bodies fail the attempt
+    @Value("${gateway.hedging.max-buffer-bytes:10485760}")
+    private int hedgingMaxBufferBytes;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServiceRouteResponse route = exchange.getAttribute("serviceRoute");
+        CompiledRoute route = exchange.getAttribute("compiledRoute");
         if (route == null) {
             return chain.filter(exchange);
         }
 
         ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        boolean coalesced = route.isCoalescingEnabled() && method == HttpMethod.GET && !route.isStreamingEnabled();
+
+        // Fail fast while the route's circuit breaker is open - no network call. Coalesced
+        // requests take a permit only for a call they make themselves (leader or fallback) -
+        // a follower's permit would never get an outcome
+        CircuitBreaker breaker = circuitBreakerRegistry.breakerFor(route);
+        long permit = !coalesced && breaker != null ? breaker.tryAcquirePermission() : CircuitBreaker.NO_PERMISSION;
+        if (!coalesced && breaker != null && permit == CircuitBreaker.NO_PERMISSION) {
+            return rejectOpenCircuit(exchange, route, breaker);
+        }
+
         Long apiKeyId = exchange.getAttribute("apiKeyId");
 
         // Build headers - copy from request but exclude hop-by-hop headers and sensitive headers
@@ -43,26 +89,17 @@ public class ServiceRoutingFilter implements GlobalFilter, Ordered {
         request.getHeaders().forEach((key, values) -> {
             // Skip hop-by-hop headers that shouldn't be forwarded
             String lowerKey = key.toLowerCase();
-            if (!lowerKey.equals("host") && !lowerKey.equals("connection") && 
+            if (!lowerKey.equals("host") && !lowerKey.equals("connection") &&
                 !lowerKey.equals("keep-alive") && !lowerKey.equals("transfer-encoding") &&
-                !lowerKey.equals("te") && !lowerKey.equals("trailer") && 
+                !lowerKey.equals("te") && !lowerKey.equals("trailer") &&
                 !lowerKey.equals("proxy-authorization") && !lowerKey.equals("proxy-authenticate") &&
                 !lowerKey.equals("upgrade") && !lowerKey.equals("x-api-key")) {  // Remove X-API-KEY header
                 headers.addAll(key, values);
             }
         });
 
-        if (route.getCustomHeaders() != null && !route.getCustomHeaders().isEmpty()) {
-            try {
-                Map<String, String> customHeaders = objectMapper.readValue(
-                        route.getCustomHeaders(),
-                        new TypeReference<Map<String, String>>() {}
-                );
-                customHeaders.forEach(headers::add);
-            } catch (Exception e) {
-                log.error("Failed to parse custom headers", e);
-            }
-        }
+        // Custom headers are parsed once when the route snapshot is built
+        headers.addAll(route.getCustomHeaders());
 
         // Inject internal headers for backend services
         if (apiKeyId != null) {
@@ -72,102 +109,458 @@ public class ServiceRoutingFilter implements GlobalFilter, Ordered {
         headers.add("X-Route-Id", String.valueOf(route.getId()));
         log.debug("Injected X-Route-Id: {}", route.getId());
 
-        int timeoutMs = route.getTimeoutMs() != null ? route.getTimeoutMs() : 30000;
-        
-        // Create new WebClient for each request to avoid connection reuse issues
-        WebClient client = webClientBuilder
-                .build();
+        // Every original request earns retry budget; retries and hedges spend it
+        RouteRetryRegistry.RouteRetryState retryState = routeRetryRegistry.stateFor(route);
+        retryState.budget().onRequest();
+        ProxyCall call = new ProxyCall(exchange, route, headers, breaker, new AtomicLong(permit), retryState);
+
+        // Only idempotent, bodiless requests may be sent more than once
+        boolean idempotent = method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+        int maxRetries = idempotent ? routeRetryRegistry.maxRetries(route) : 0;
+
+        // Pick a backend instance; each attempt uses the long-lived pooled client of its origin
+        UpstreamTarget target = route.getLoadBalancer().choose();
+
+        Mono<Void> proxied;
+        if (coalesced) {
+            proxied = coalescedRequest(call, target, maxRetries);
+        } else if (route.isHedgingEnabled() && idempotent && !route.isStreamingEnabled()) {
+            // A response too large to buffer is fetched again without hedging, as coalescing does
+            proxied = bufferedAttempts(call, target, maxRetries, hedgingMaxBufferBytes)
+                    .flatMap(response -> writeBuffered(exchange, response))
+                    .onErrorResume(DataBufferLimitException.class, e -> {
+                        log.debug("Hedging fallback - RouteId: {}, Reason: {}", route.getId(), e.getMessage());
+                        return withRetries(call, route.getLoadBalancer().choose(), maxRetries,
+                                t -> forwardRequest(call, t));
+                    });
+        } else if (route.isStreamingEnabled()) {
+            proxied = withRetries(call, target, maxRetries, t -> streamRequest(call, t));
+        } else {
+            proxied = withRetries(call, target, maxRetries, t -> forwardRequest(call, t));
+        }
+
+        return proxied.onErrorResume(e -> {
+            if (e instanceof CircuitOpenException) {
+                return rejectOpenCircuit(exchange, route, breaker);
+            }
+            // Don't set response if already committed
+            if (exchange.getResponse().isCommitted()) {
+                log.warn("Response already committed, cannot set error status");
+                return exchange.getResponse().setComplete();
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+            return exchange.getResponse().setComplete();
+        });
+    }
+
+    /**
+     * Run one attempt against a target. On a connect failure (the request never reached the
+     * backend) retry on another target while retries remain and the retry budget has tokens.
+     */
+    private <T> Mono<T> withRetries(ProxyCall call, UpstreamTarget target, int retriesLeft,
+                                    Function<UpstreamTarget, Mono<T>> attempt) {
+        return tracked(target, () -> attempt.apply(target))
+                .onErrorResume(e -> {
+                    if (retriesLeft <= 0 || !isConnectFailure(e)
+                            || call.exchange().getResponse().isCommitted()
+                            || !call.retryState().tryAcquireExtraAttempt()) {
+                        return Mono.error(e);
+                    }
+                    UpstreamTarget next = call.route().getLoadBalancer().chooseExcluding(target);
+                    call.retryState().retries().increment();
+                    log.warn("Retrying request - Path: {}, RouteId: {}, FailedTarget: {}, NextTarget: {}",
+                            call.exchange().getRequest().getPath().value(), call.route().getId(),
+                            target.getUrl(), next.getUrl());
+                    return withRetries(call, next, retriesLeft - 1, attempt);
+                });
+    }
+
+    /**
+     * Single-flight: identical concurrent GETs share one upstream call (see RequestCoalescer).
+     * Responses over the size limit and waiters past the timeout are fetched independently.
+     */
+    private Mono<Void> coalescedRequest(ProxyCall call, UpstreamTarget target, int maxRetries) {
+        ServerWebExchange exchange = call.exchange();
+        CompiledRoute route = call.route();
+        // An open breaker fails the leader's flight, and with it every follower
+        Mono<SharedResponse> fetch = Mono.defer(() -> permitted(call)
+                ? bufferedAttempts(call, target, maxRetries, requestCoalescer.maxBytes(route)).map(BufferedResponse::share)
+                : Mono.error(new CircuitOpenException()));
+
+        return requestCoalescer.execute(route, requestCoalescer.keyFor(route, exchange), fetch,
+                shared -> writeShared(exchange, shared),
+                () -> permitted(call)
+                        ? withRetries(call, route.getLoadBalancer().choose(), maxRetries, t -> forwardRequest(call, t))
+                        : Mono.error(new CircuitOpenException()));
+    }
+
+    private static boolean permitted(ProxyCall call) {
+        if (call.breaker() == null) {
+            return true;
+        }
+        call.breakerPermit().set(call.breaker().tryAcquirePermission());
+        return call.breakerPermit().get() != CircuitBreaker.NO_PERMISSION;
+    }
+
+    private Mono<Void> rejectOpenCircuit(ServerWebExchange exchange, CompiledRoute route, CircuitBreaker breaker) {
+        circuitBreakerRegistry.recordRejected(route);
+        exchange.getAttributes().put("blocked", true);
+        log.warn("Circuit breaker {} for route {} - rejecting request: {}",
+                breaker.getState(), route.getId(), exchange.getRequest().getPath().value());
+        return errorResponseUtil.writeErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+                "Service temporarily unavailable. Please try again later.");
+    }
+
+    /**
+     * Buffered attempts of one request: retries on connect failures and, if the route has
+     * hedging enabled, a hedged attempt
+     */
+    private Mono<BufferedResponse> bufferedAttempts(ProxyCall call, UpstreamTarget target, int maxRetries,
+                                                    int maxBytes) {
+        Mono<BufferedResponse> attempts = withRetries(call, target, maxRetries, t -> bufferedRequest(call, t, maxBytes));
+        return call.route().isHedgingEnabled() ? hedged(call, target, attempts, maxBytes) : attempts;
+    }
+
+    /**
+     * Hedged request: if the first attempt has not answered after the hedge delay (fixed per
+     * route, or the route's observed p95), a second attempt goes to another target and the
+     * first response wins. The losing attempt is cancelled, which closes its connection.
+     */
+    private Mono<BufferedResponse> hedged(ProxyCall call, UpstreamTarget primaryTarget,
+                                          Mono<BufferedResponse> primary, int maxBytes) {
+        Duration delay = routeRetryRegistry.hedgeDelay(call.route(), call.retryState());
+
+        Mono<BufferedResponse> hedge = Mono.delay(delay).flatMap(tick -> {
+            UpstreamTarget hedgeTarget = call.route().getLoadBalancer().chooseExcluding(primaryTarget);
+            if (hedgeTarget == primaryTarget || !call.retryState().tryAcquireExtraAttempt()) {
+                return Mono.empty();
+            }
+            call.retryState().hedges().increment();
+            log.info("Hedging request - Path: {}, RouteId: {}, After: {}ms, HedgeTarget: {}",
+                    call.exchange().getRequest().getPath().value(), call.route().getId(),
+                    delay.toMillis(), hedgeTarget.getUrl());
+            return tracked(hedgeTarget, () -> bufferedRequest(call, hedgeTarget, maxBytes));
+        });
 
-        return forwardRequest(client, request, timeoutMs, route.getTargetUrl(), headers, exchange);
+        return Mono.firstWithValue(primary, hedge)
+                .doOnDiscard(BufferedResponse.class, BufferedResponse::release);
     }
 
-    private Mono<Void> forwardRequest(WebClient client, ServerHttpRequest request,
-                                      int timeoutMs, String targetUrl, HttpHeaders headers, 
-                                      ServerWebExchange exchange) {
+    private Mono<Void> writeBuffered(ServerWebExchange exchange, BufferedResponse buffered) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(buffered.status());
+        response.getHeaders().addAll(buffered.headers());
+        return buffered.body() != null
+                ? response.writeWith(Mono.just(buffered.body()))
+                : response.setComplete();
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        response.getHeaders().addAll(shared.headers());
+        return shared.body().length > 0
+                ? response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())))
+                : response.setComplete();
+    }
+
+    /**
+     * In-flight counter of the target must be released exactly once - also on cancel
+     */
+    private <T> Mono<T> tracked(UpstreamTarget target, Supplier<Mono<T>> attempt) {
+        EndpointStats stats = target.getStats();
+        return Mono.defer(() -> {
+                    stats.onRequestStart();
+                    return attempt.get();
+                })
+                .doFinally(signal -> stats.onRequestEnd());
+    }
+
+    /**
+     * Streaming proxy mode.
+     * Netty buffers are handed from the inbound channel to the upstream channel (and back)
+     * without copying, aggregating or re-encoding. Backpressure is driven by the receiving
+     * side; buffers still in flight on cancel/timeout are released.
+     *
+     * The route timeout applies to the upstream response headers only, so long downloads
+     * are not cut off mid-body.
+     */
+    private Mono<Void> streamRequest(ProxyCall call, UpstreamTarget target) {
+        ServerWebExchange exchange = call.exchange();
+        CompiledRoute route = call.route();
+        ServerHttpRequest request = exchange.getRequest();
         HttpMethod method = request.getMethod();
         String fullPath = request.getPath().value();
-        String publicPath = exchange.getAttribute("publicPath");
         Long apiKeyId = exchange.getAttribute("apiKeyId");
-        ServiceRouteResponse route = exchange.getAttribute("serviceRoute");
         long startTime = System.currentTimeMillis();
-        
-        // Extract remaining path after the publicPath pattern
-        String remainingPath = extractRemainingPath(fullPath, publicPath);
-        
-        // If remaining path is just "/" or empty, don't append anything
-        if (remainingPath.isEmpty() || remainingPath.equals("/")) {
-            remainingPath = "";
+        long startNanos = System.nanoTime();
+        final String completeUrl = completeUrl(request, route, target);
+
+        // Transfer-Encoding was stripped as hop-by-hop - re-apply chunked framing towards the backend
+        HttpHeaders requestHeaders = request.getHeaders();
+        boolean chunked = requestHeaders.containsKey(HttpHeaders.TRANSFER_ENCODING);
+        boolean hasBody = chunked || requestHeaders.getContentLength() > 0;
+
+        DefaultHttpHeaders nettyHeaders = new DefaultHttpHeaders();
+        call.headers().forEach(nettyHeaders::add);
+        if (chunked) {
+            nettyHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
         }
-        
-        // Build complete URL
-        String query = request.getURI().getRawQuery();
-        final String completeUrl = query != null 
-            ? targetUrl + remainingPath + "?" + query 
-            : targetUrl + remainingPath;
-        
-        log.info("Forwarding request - Method: {}, Path: {}, TargetUrl: {}, RouteId: {}, ApiKeyId: {}", 
-                method, fullPath, completeUrl, route != null ? route.getId() : null, apiKeyId);
+
+        log.info("Streaming request - Method: {}, Path: {}, TargetUrl: {}, RouteId: {}, ApiKeyId: {}",
+                method, fullPath, completeUrl, route.getId(), apiKeyId);
+
+        ServerHttpResponse response = exchange.getResponse();
+
+        return upstreamClientRegistry.clientFor(target.getOrigin(), route.getRoute()).httpClient()
+                .request(io.netty.handler.codec.http.HttpMethod.valueOf(method.name()))
+                .uri(completeUrl)
+                .send((upstreamRequest, outbound) -> {
+                    upstreamRequest.headers(nettyHeaders);
+                    upstreamRequest.responseTimeout(route.getTimeout());
+                    if (!hasBody) {
+                        return outbound;
+                    }
+                    // Request buffers are retained by the server; the upstream write releases them
+                    return outbound.send(request.getBody()
+                            .map(NettyDataBufferFactory::toByteBuf)
+                            .doOnDiscard(ByteBuf.class, ReferenceCountUtil::safeRelease));
+                })
+                .responseConnection((upstreamResponse, connection) -> {
+                    recordOutcome(call, target, upstreamResponse.status().code() >= 500, startNanos);
+                    log.info("Streaming response - Method: {}, Path: {}, Status: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}",
+                            method, fullPath, upstreamResponse.status().code(),
+                            System.currentTimeMillis() - startTime, route.getId(), apiKeyId);
+
+                    response.setStatusCode(HttpStatusCode.valueOf(upstreamResponse.status().code()));
+                    upstreamResponse.responseHeaders().forEach(entry -> {
+                        String key = entry.getKey();
+                        if (!key.equalsIgnoreCase("Transfer-Encoding") &&
+                            !key.equalsIgnoreCase("Connection") &&
+                            !key.equalsIgnoreCase("Keep-Alive")) {
+                            response.getHeaders().add(key, entry.getValue());
+                        }
+                    });
+
+                    // Retain each received chunk so it outlives Netty's read cycle;
+                    // the server write releases it after flushing to the client
+                    Flux<DataBuffer> body = connection.inbound().receive()
+                            .retain()
+                            .map(byteBuf -> wrap(byteBuf, response))
+                            .doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+                    return response.writeWith(body);
+                })
+                .then()
+                .doOnError(e -> {
+                    log.error("Error streaming request - Method: {}, Path: {}, TargetUrl: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}, Error: {}",
+                            method, fullPath, completeUrl, System.currentTimeMillis() - startTime,
+                            route.getId(), apiKeyId, e.getMessage());
+                    // Nothing received from the backend - connect failure or timeout
+                    if (!response.isCommitted()) {
+                        recordOutcome(call, target, true, startNanos);
+                    }
+                });
+    }
+
+    private Mono<Void> forwardRequest(ProxyCall call, UpstreamTarget target) {
+        ServerWebExchange exchange = call.exchange();
+        CompiledRoute route = call.route();
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        String fullPath = request.getPath().value();
+        Long apiKeyId = exchange.getAttribute("apiKeyId");
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        final String completeUrl = completeUrl(request, route, target);
+
+        log.info("Forwarding request - Method: {}, Path: {}, TargetUrl: {}, RouteId: {}, ApiKeyId: {}",
+                method, fullPath, completeUrl, route.getId(), apiKeyId);
+
+        return requestSpec(call, target, completeUrl)
+                .exchangeToMono(clientResponse -> {
+                    recordOutcome(call, target, clientResponse.statusCode().is5xxServerError(), startNanos);
+                    long duration = System.currentTimeMillis() - startTime;
+                    log.info("Request forwarded successfully - Method: {}, Path: {}, Status: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}",
+                            method, fullPath, clientResponse.statusCode(), duration,
+                            route.getId(), apiKeyId);
+
+                    exchange.getResponse().setStatusCode(clientResponse.statusCode());
+                    copyResponseHeaders(clientResponse.headers().asHttpHeaders(), exchange.getResponse().getHeaders());
+
+                    return exchange.getResponse()
+                            .writeWith(clientResponse.bodyToFlux(DataBuffer.class));
+                })
+                .timeout(route.getTimeout())
+                .doOnError(e -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    log.error("Error forwarding request - Method: {}, Path: {}, TargetUrl: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}, Error: {}",
+                            method, fullPath, completeUrl, duration,
+                            route.getId(), apiKeyId, e.getMessage(), e);
+                    // Nothing received from the backend - connect failure or timeout
+                    if (!exchange.getResponse().isCommitted()) {
+                        recordOutcome(call, target, true, startNanos);
+                    }
+                });
+    }
+
+    /**
+     * One attempt whose response is read into a single buffer (at most maxBytes), so it can
+     * lose a hedging race or be shared without touching the client response
+     */
+    private Mono<BufferedResponse> bufferedRequest(ProxyCall call, UpstreamTarget target, int maxBytes) {
+        ServerWebExchange exchange = call.exchange();
+        CompiledRoute route = call.route();
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        String fullPath = request.getPath().value();
+        Long apiKeyId = exchange.getAttribute("apiKeyId");
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        final String completeUrl = completeUrl(request, route, target);
+
+        log.info("Forwarding request - Method: {}, Path: {}, TargetUrl: {}, RouteId: {}, ApiKeyId: {}",
+                method, fullPath, completeUrl, route.getId(), apiKeyId);
+
+        boolean[] recorded = {false};
+
+        return requestSpec(call, target, completeUrl)
+                .exchangeToMono(clientResponse -> {
+                    HttpStatusCode status = clientResponse.statusCode();
+                    boolean failed = status.is5xxServerError();
+                    if (failed) {
+                        recorded[0] = true;
+                        recordOutcome(call, target, true, startNanos);
+                    }
+                    log.info("Request forwarded successfully - Method: {}, Path: {}, Status: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}",
+                            method, fullPath, status, System.currentTimeMillis() - startTime,
+                            route.getId(), apiKeyId);
+
+                    // Declared larger than the buffer: fail before reading any of it
+                    long contentLength = clientResponse.headers().contentLength().orElse(-1);
+                    if (contentLength > maxBytes) {
+                        return clientResponse.releaseBody().then(Mono.error(new DataBufferLimitException(
+                                "Content-Length " + contentLength + " exceeds the buffer limit of " + maxBytes)));
+                    }
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    copyResponseHeaders(clientResponse.headers().asHttpHeaders(), responseHeaders);
+                    return DataBufferUtils.join(clientResponse.bodyToFlux(DataBuffer.class), maxBytes)
+                            .map(body -> new BufferedResponse(status, responseHeaders, body))
+                            .defaultIfEmpty(new BufferedResponse(status, responseHeaders, null))
+                            // Success only once the body is buffered - the client never sees one over the limit
+                            .doOnSuccess(buffered -> {
+                                if (!failed) {
+                                    recorded[0] = true;
+                                    recordOutcome(call, target, false, startNanos);
+                                }
+                            });
+                })
+                .timeout(route.getTimeout())
+                .doOnError(e -> {
+                    log.error("Error forwarding request - Method: {}, Path: {}, TargetUrl: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}, Error: {}",
+                            method, fullPath, completeUrl, System.currentTimeMillis() - startTime,
+                            route.getId(), apiKeyId, e.getMessage());
+                    // A body over the limit is the gateway's buffer, not a backend failure
+                    if (!recorded[0] && !(e instanceof DataBufferLimitException)) {
+                        recordOutcome(call, target, true, startNanos);
+                    }
+                });
+    }
+
+    private WebClient.RequestHeadersSpec<?> requestSpec(ProxyCall call, UpstreamTarget target, String completeUrl) {
+        ServerWebExchange exchange = call.exchange();
+        HttpMethod method = exchange.getRequest().getMethod();
+        WebClient client = upstreamClientRegistry.clientFor(target.getOrigin(), call.route().getRoute()).webClient();
 
         WebClient.RequestBodySpec requestBodySpec = client.method(method)
                 .uri(completeUrl)
-                .headers(h -> h.addAll(headers));
+                .headers(h -> h.addAll(call.headers()));
 
         // Only add body for methods that support request bodies (POST, PUT, PATCH, DELETE)
-        WebClient.RequestHeadersSpec<?> headersSpec;
-        if (method == HttpMethod.POST || method == HttpMethod.PUT || 
+        if (method == HttpMethod.POST || method == HttpMethod.PUT ||
             method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
             // Use cached body if available to avoid stream consumption issues
             Object cachedBody = exchange.getAttribute("cachedRequestBodyObject");
             if (cachedBody != null) {
-                headersSpec = requestBodySpec.bodyValue(cachedBody);
-            } else {
-                headersSpec = requestBodySpec.body((outputMessage, context) -> 
-                    outputMessage.writeWith(exchange.getRequest().getBody()));
+                return requestBodySpec.bodyValue(cachedBody);
             }
+            return requestBodySpec.body((outputMessage, context) ->
+                outputMessage.writeWith(exchange.getRequest().getBody()));
+        }
+        // For GET, HEAD, OPTIONS - no body
+        return requestBodySpec;
+    }
+
+    /**
+     * Target URL + remaining path after the publicPath pattern (base path precomputed per route) + query
+     */
+    private String completeUrl(ServerHttpRequest request, CompiledRoute route, UpstreamTarget target) {
+        String remainingPath = route.remainingPath(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        return query != null
+            ? target.getUrl() + remainingPath + "?" + query
+            : target.getUrl() + remainingPath;
+    }
+
+    /**
+     * Copy headers from backend response (avoiding ReadOnlyHttpHeaders issue)
+     */
+    private void copyResponseHeaders(HttpHeaders from, HttpHeaders to) {
+        from.forEach((key, values) -> {
+            // Skip certain headers that should not be forwarded
+            if (!key.equalsIgnoreCase("Transfer-Encoding") &&
+                !key.equalsIgnoreCase("Connection") &&
+                !key.equalsIgnoreCase("Keep-Alive")) {
+                // Add each value individually to avoid ReadOnlyHttpHeaders issues
+                values.forEach(value -> to.add(key, value));
+            }
+        });
+    }
+
+    /**
+     * Passive health + latency feedback for the load balancer, the route's circuit breaker
+     * and the route's latency tracker (adaptive hedge delay)
+     */
+    private void recordOutcome(ProxyCall call, UpstreamTarget target, boolean failed, long startNanos) {
+        long durationNanos = System.nanoTime() - startNanos;
+        EndpointStats stats = target.getStats();
+        stats.recordLatency(durationNanos);
+        if (failed) {
+            stats.recordFailure();
         } else {
-            // For GET, HEAD, OPTIONS - no body
-            headersSpec = requestBodySpec;
+            stats.recordSuccess();
+            call.retryState().latency().record(durationNanos);
+        }
+        if (call.breaker() != null) {
+            call.breaker().onResult(call.breakerPermit().get(), durationNanos, failed);
         }
+    }
 
-        return headersSpec
-                .exchangeToMono(clientResponse -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("Request forwarded successfully - Method: {}, Path: {}, Status: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}", 
-                            method, fullPath, clientResponse.statusCode(), duration, 
-                            route != null ? route.getId() : null, apiKeyId);
-                    
-                    exchange.getResponse().setStatusCode(clientResponse.statusCode());
-                    
-                    // Copy headers from backend response (avoiding ReadOnlyHttpHeaders issue)
-                    clientResponse.headers().asHttpHeaders().forEach((key, values) -> {
-                        // Skip certain headers that should not be forwarded
-                        if (!key.equalsIgnoreCase("Transfer-Encoding") && 
-                            !key.equalsIgnoreCase("Connection") &&
-                            !key.equalsIgnoreCase("Keep-Alive")) {
-                            // Add each value individually to avoid ReadOnlyHttpHeaders issues
-                            values.forEach(value -> exchange.getResponse().getHeaders().add(key, value));
-                        }
-                    });
-                    
-                    return exchange.getResponse()
-                            .writeWith(clientResponse.bodyToFlux(org.springframework.core.io.buffer.DataBuffer.class));
-                })
-                .timeout(Duration.ofMillis(timeoutMs))
-                .onErrorResume(e -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.error("Error forwarding request - Method: {}, Path: {}, TargetUrl: {}, Duration: {}ms, RouteId: {}, ApiKeyId: {}, Error: {}", 
-                            method, fullPath, completeUrl, duration, 
-                            route != null ? route.getId() : null, apiKeyId, e.getMessage(), e);
-                    
-                    // Don't set response if already committed
-                    if (exchange.getResponse().isCommitted()) {
-                        log.warn("Response already committed, cannot set error status");
-                        return exchange.getResponse().setComplete();
-                    }
-                    
-                    exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
-                    return exchange.getResponse().setComplete();
-                });
+    /**
+     * Connect-level failures - the request never reached the backend, so it is safe to retry
+     */
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() != e ? e.getCause() : null) {
+            if (e instanceof ConnectException || e instanceof ConnectTimeoutException
+                    || e instanceof UnknownHostException || e instanceof NoRouteToHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DataBuffer wrap(ByteBuf byteBuf, ServerHttpResponse response) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        if (bufferFactory instanceof NettyDataBufferFactory nettyFactory) {
+            return nettyFactory.wrap(byteBuf);
+        }
+        // Non-Netty server: copy once and release the Netty buffer
+        try {
+            byte[] bytes = new byte[byteBuf.readableBytes()];
+            byteBuf.readBytes(bytes);
+            return bufferFactory.wrap(bytes);
+        } finally {
+            byteBuf.release();
+        }
     }
 
     @Override
@@ -176,38 +569,41 @@ public class ServiceRoutingFilter implements GlobalFilter, Ordered {
     }
 
     /**
-     * Extract the remaining path after the matched publicPath pattern.
-     * For example:
-     *   fullPath: /api/users/123
-     *   publicPath: /api/users/**
-     *   result: /123
-     * 
-     * If fullPath matches basePath exactly, return empty string.
-     * If publicPath ends with /**, remove it and extract the remaining segment.
+     * Per-request state shared by all attempts (retries, hedges) of one request. breakerPermit
+     * is taken up front, or by the coalesced call that actually goes upstream.
      */
-    private String extractRemainingPath(String fullPath, String publicPath) {
-        if (publicPath == null || fullPath == null) {
-            return fullPath;
-        }
+    private record ProxyCall(ServerWebExchange exchange, CompiledRoute route, HttpHeaders headers,
+                             CircuitBreaker breaker, AtomicLong breakerPermit,
+                             RouteRetryRegistry.RouteRetryState retryState) {}
 
-        // Remove /** wildcard suffix if present
-        String basePath = publicPath.endsWith("/**") 
-            ? publicPath.substring(0, publicPath.length() - 3)
-            : publicPath;
+    /**
+     * A coalesced call found the route's circuit breaker open (answered with 503, no stack trace)
+     */
+    private static final class CircuitOpenException extends RuntimeException {
 
-        // If fullPath equals basePath exactly, no remaining path
-        if (fullPath.equals(basePath)) {
-            return "";
+        CircuitOpenException() {
+            super("Circuit breaker open", null, false, false);
         }
+    }
+
+    private record BufferedResponse(HttpStatusCode status, HttpHeaders headers, DataBuffer body) {
 
-        // If fullPath starts with basePath, extract the remaining part
-        if (fullPath.startsWith(basePath)) {
-            String remaining = fullPath.substring(basePath.length());
-            // Ensure it starts with / if not empty
-            return remaining.isEmpty() || remaining.startsWith("/") ? remaining : "/" + remaining;
+        void release() {
+            if (body != null) {
+                DataBufferUtils.release(body);
+            }
         }
 
-        // Fallback: return full path
-        return fullPath;
+        /**
+         * Copy into an immutable SharedResponse and release the buffer
+         */
+        SharedResponse share() {
+            byte[] bytes = new byte[body != null ? body.readableByteCount() : 0];
+            if (body != null) {
+                body.read(bytes);
+                release();
+            }
+            return new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), bytes);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live, lock-free statistics and health state for one upstream origin.
+ *
+ * Shared by every route and route snapshot that points at the origin, so in-flight
+ * counters and ejections stay correct across route refreshes.
+ *
+ * Latency is tracked as a time-decayed EWMA: a sample's influence halves roughly
+ * every DECAY_NANOS * ln(2), independent of request rate.
+ *
+ * Health:
+ * - passive: N consecutive failures (5xx / connect errors) eject the origin for
+ *   baseEjection * ejectionCount (capped)
+ * - active: probe results mark the origin down/up after consecutive thresholds
+ * - slow start: after an ejection ends or a probe brings the origin back,
+ *   availability() ramps from ~0 to 1 over the slow-start window
+ */
+@Slf4j
+public final class EndpointStats {
+
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long NEVER = Long.MIN_VALUE;
+    private static final double MIN_AVAILABILITY = 0.05;
+
+    private final String key;
+    private final HealthPolicy policy;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong lastSampleNanos = new AtomicLong(System.nanoTime());
+
+    // Passive health
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private volatile long ejectedUntilNanos = NEVER;
+
+    // Active health (written by the probe scheduler only)
+    private volatile boolean probeHealthy = true;
+    private int probeSuccesses;
+    private int probeFailures;
+
+    // Start of the current slow-start window
+    private volatile long warmingSinceNanos = NEVER;
+
+    public EndpointStats(String key) {
+        this(key, HealthPolicy.DEFAULT);
+    }
+
+    public EndpointStats(String key, HealthPolicy policy) {
+        this.key = key;
+        this.policy = policy;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void onRequestStart() {
+        outstanding.incrementAndGet();
+    }
+
+    public void onRequestEnd() {
+        outstanding.decrementAndGet();
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Fold a latency sample into the EWMA (CAS loop, no locks)
+     */
+    public void recordLatency(long latencyNanos) {
+        long now = System.nanoTime();
+        long elapsed = Math.max(0, now - lastSampleNanos.getAndSet(now));
+        double weight = Math.exp(-elapsed / DECAY_NANOS);
+
+        long prevBits;
+        long nextBits;
+        do {
+            prevBits = ewmaBits.get();
+            double prev = Double.longBitsToDouble(prevBits);
+            double next = prev == 0.0 ? latencyNanos : prev * weight + latencyNanos * (1.0 - weight);
+            nextBits = Double.doubleToRawLongBits(next);
+        } while (!ewmaBits.compareAndSet(prevBits, nextBits));
+    }
+
+    public double getEwmaLatencyNanos() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    /**
+     * Expected cost of sending one more request: latency scaled by queue depth.
+     * Unmeasured endpoints score lowest so they receive traffic and get measured.
+     */
+    public double cost() {
+        return (getEwmaLatencyNanos() + 1.0) * (outstanding.get() + 1);
+    }
+
+    // ============ HEALTH ============
+
+    /**
+     * Successful upstream response (non-5xx)
+     */
+    public void recordSuccess() {
+        // Read first - avoids a shared-cache-line write on every healthy response
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (ejections.get() != 0 && warmingSinceNanos == NEVER) {
+            ejections.set(0);
+        }
+    }
+
+    /**
+     * 5xx response or connect failure / timeout
+     */
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= policy.consecutiveFailures()) {
+            eject();
+        }
+    }
+
+    private synchronized void eject() {
+        long now = System.nanoTime();
+        if (isEjected(now) || consecutiveFailures.get() < policy.consecutiveFailures()) {
+            return;  // another thread already ejected
+        }
+        int count = ejections.incrementAndGet();
+        long ejectionMs = Math.min(policy.baseEjectionMs() * count, policy.maxEjectionMs());
+        ejectedUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        warmingSinceNanos = ejectedUntilNanos;
+        consecutiveFailures.set(0);
+        log.warn("Upstream {} ejected for {}ms after {} consecutive failures (ejection #{})",
+                key, ejectionMs, policy.consecutiveFailures(), count);
+    }
+
+    /**
+     * Result of an active health probe
+     */
+    public synchronized void recordProbe(boolean healthy) {
+        if (healthy) {
+            probeFailures = 0;
+            if (!probeHealthy && ++probeSuccesses >= policy.healthyThreshold()) {
+                probeHealthy = true;
+                probeSuccesses = 0;
+                warmingSinceNanos = System.nanoTime();
+                log.info("Upstream {} passed health checks - back in rotation (slow start {}ms)",
+                        key, policy.slowStartMs());
+            }
+        } else {
+            probeSuccesses = 0;
+            if (probeHealthy && ++probeFailures >= policy.unhealthyThreshold()) {
+                probeHealthy = false;
+                probeFailures = 0;
+                log.warn("Upstream {} failed {} health checks - removed from rotation",
+                        key, policy.unhealthyThreshold());
+            }
+        }
+    }
+
+    /**
+     * Forget active probe state, e.g. when no route probes this origin anymore
+     */
+    public synchronized void clearProbeState() {
+        probeHealthy = true;
+        probeSuccesses = 0;
+        probeFailures = 0;
+    }
+
+    public boolean isHealthy() {
+        return probeHealthy && !isEjected(System.nanoTime());
+    }
+
+    private boolean isEjected(long now) {
+        long until = ejectedUntilNanos;
+        return until != NEVER && now - until < 0;
+    }
+
+    /**
+     * Share of normal traffic this origin should receive, in [0, 1].
+     * 0 while down or ejected, ramps up linearly during slow start, 1 otherwise.
+     */
+    public double availability() {
+        if (!probeHealthy) {
+            return 0.0;
+        }
+        long now = System.nanoTime();
+        if (isEjected(now)) {
+            return 0.0;
+        }
+        long since = warmingSinceNanos;
+        if (since == NEVER) {
+            return 1.0;
+        }
+        long slowStartNanos = TimeUnit.MILLISECONDS.toNanos(policy.slowStartMs());
+        long warm = now - since;
+        if (warm >= slowStartNanos) {
+            warmingSinceNanos = NEVER;
+            return 1.0;
+        }
+        return Math.max(MIN_AVAILABILITY, (double) warm / slowStartNanos);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical EndpointStats per upstream origin.
+ * Routes are recompiled on every refresh; stats live here so they survive it.
+ */
+@Component
+public class EndpointStatsRegistry {
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final HealthPolicy healthPolicy;
+
+    public EndpointStatsRegistry(
+            @Value("${gateway.health.passive.consecutive-failures:5}") int consecutiveFailures,
+            @Value("${gateway.health.passive.base-ejection-ms:30000}") long baseEjectionMs,
+            @Value("${gateway.health.passive.max-ejection-ms:300000}") long maxEjectionMs,
+            @Value("${gateway.health.slow-start-ms:30000}") long slowStartMs,
+            @Value("${gateway.health.active.unhealthy-threshold:2}") int unhealthyThreshold,
+            @Value("${gateway.health.active.healthy-threshold:2}") int healthyThreshold) {
+        this.healthPolicy = new HealthPolicy(consecutiveFailures, baseEjectionMs, maxEjectionMs,
+                slowStartMs, unhealthyThreshold, healthyThreshold);
+    }
+
+    public EndpointStats statsFor(String key) {
+        EndpointStats existing = stats.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return stats.computeIfAbsent(key, k -> new EndpointStats(k, healthPolicy));
+    }
+
+    /**
+     * Drop stats for origins no route references anymore
+     */
+    public void retain(RouteSnapshot snapshot) {
+        Set<String> live = new HashSet<>();
+        for (CompiledRoute route : snapshot.routes()) {
+            for (UpstreamTarget target : route.getTargets()) {
+                live.add(target.getStats().getKey());
+            }
+        }
+        stats.keySet().retainAll(live);
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        return Map.copyOf(stats);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexusgate.gateway.loadbalancer;
+
+/**
+ * Thresholds for passive outlier ejection, slow start and active probing.
+ *
+ * @param consecutiveFailures 5xx responses / connect failures in a row that eject a target
+ * @param baseEjectionMs      ejection time for the first ejection; multiplied by the ejection count
+ * @param maxEjectionMs       upper bound for the ejection time
+ * @param slowStartMs         ramp-up window after a target comes back (0 = no slow start)
+ * @param unhealthyThreshold  failed probes in a row before a target is marked down
+ * @param healthyThreshold    successful probes in a row before a down target is marked up
+ */
+public record HealthPolicy(
+        int consecutiveFailures,
+        long baseEjectionMs,
+        long maxEjectionMs,
+        long slowStartMs,
+        int unhealthyThreshold,
+        int healthyThreshold) {
+
+    public static final HealthPolicy DEFAULT = new HealthPolicy(5, 30000, 300000, 30000, 2, 2);
+}
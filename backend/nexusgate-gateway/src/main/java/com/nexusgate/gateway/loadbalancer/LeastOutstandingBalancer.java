@@ -0,0 +1,46 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Least outstanding requests, weighted: picks the target with the lowest
+ * (in-flight + 1) / weight. Ejected/down targets are skipped and targets in slow
+ * start only compete on a share of picks. The scan starts at a random offset so
+ * ties do not always favour the first target.
+ */
+final class LeastOutstandingBalancer implements LoadBalancer {
+
+    private final List<UpstreamTarget> targets;
+    private final UpstreamTarget[] array;
+
+    LeastOutstandingBalancer(List<UpstreamTarget> targets) {
+        this.targets = List.copyOf(targets);
+        this.array = this.targets.toArray(new UpstreamTarget[0]);
+    }
+
+    @Override
+    public UpstreamTarget choose() {
+        int n = array.length;
+        int start = ThreadLocalRandom.current().nextInt(n);
+        UpstreamTarget best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            UpstreamTarget target = array[(start + i) % n];
+            if (!TargetSelection.admit(target)) {
+                continue;
+            }
+            double score = (target.getStats().getOutstanding() + 1) / (double) target.getWeight();
+            if (score < bestScore) {
+                best = target;
+                bestScore = score;
+            }
+        }
+        return best != null ? best : TargetSelection.anyAvailable(array);
+    }
+
+    @Override
+    public List<UpstreamTarget> targets() {
+        return targets;
+    }
+}
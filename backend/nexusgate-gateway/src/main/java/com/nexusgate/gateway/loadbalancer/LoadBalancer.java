@@ -0,0 +1,64 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.List;
+
+/**
+ * Picks the upstream target for a request. Implementations are immutable apart from
+ * lock-free counters and are rebuilt with every route snapshot.
+ */
+public interface LoadBalancer {
+
+    UpstreamTarget choose();
+
+    /**
+     * Pick a target other than the given one (for retries and hedges).
+     * Returns the excluded target only if the route has no other target.
+     */
+    default UpstreamTarget chooseExcluding(UpstreamTarget excluded) {
+        List<UpstreamTarget> all = targets();
+        if (all.size() < 2) {
+            return all.get(0);
+        }
+        for (int i = 0; i < all.size(); i++) {
+            UpstreamTarget candidate = choose();
+            if (candidate != excluded) {
+                return candidate;
+            }
+        }
+        for (UpstreamTarget candidate : all) {
+            if (candidate != excluded && candidate.getStats().availability() > 0.0) {
+                return candidate;
+            }
+        }
+        return all.get(0) != excluded ? all.get(0) : all.get(1);
+    }
+
+    List<UpstreamTarget> targets();
+
+    static LoadBalancer create(LoadBalancingStrategy strategy, List<UpstreamTarget> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required");
+        }
+        if (targets.size() == 1) {
+            return new SingleTargetBalancer(targets.get(0));
+        }
+        return switch (strategy) {
+            case LEAST_OUTSTANDING -> new LeastOutstandingBalancer(targets);
+            case P2C_EWMA -> new PowerOfTwoChoicesBalancer(targets);
+            default -> new WeightedRoundRobinBalancer(targets);
+        };
+    }
+
+    record SingleTargetBalancer(UpstreamTarget target) implements LoadBalancer {
+
+        @Override
+        public UpstreamTarget choose() {
+            return target;
+        }
+
+        @Override
+        public List<UpstreamTarget> targets() {
+            return List.of(target);
+        }
+    }
+}
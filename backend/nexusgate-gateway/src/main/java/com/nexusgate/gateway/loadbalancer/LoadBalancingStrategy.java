@@ -0,0 +1,23 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.Locale;
+
+public enum LoadBalancingStrategy {
+    WEIGHTED_ROUND_ROBIN,
+    LEAST_OUTSTANDING,
+    P2C_EWMA;
+
+    /**
+     * Lenient parse - unknown or missing values fall back to weighted round-robin
+     */
+    public static LoadBalancingStrategy from(String value) {
+        if (value == null || value.isBlank()) {
+            return WEIGHTED_ROUND_ROBIN;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return WEIGHTED_ROUND_ROBIN;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices on EWMA latency: sample two distinct targets at random and
+ * take the one with the lower cost (EWMA latency x in-flight requests, divided by weight).
+ * Ejected/down targets are never preferred; targets in slow start only compete on a
+ * share of picks.
+ * O(1) per request and avoids the herding a global "best target" pick causes.
+ */
+final class PowerOfTwoChoicesBalancer implements LoadBalancer {
+
+    private final List<UpstreamTarget> targets;
+    private final UpstreamTarget[] array;
+
+    PowerOfTwoChoicesBalancer(List<UpstreamTarget> targets) {
+        this.targets = List.copyOf(targets);
+        this.array = this.targets.toArray(new UpstreamTarget[0]);
+    }
+
+    @Override
+    public UpstreamTarget choose() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int n = array.length;
+        int first = random.nextInt(n);
+        int second = random.nextInt(n - 1);
+        if (second >= first) {
+            second++;
+        }
+        UpstreamTarget a = array[first];
+        UpstreamTarget b = array[second];
+        double costA = cost(a);
+        double costB = cost(b);
+        if (costA == Double.POSITIVE_INFINITY && costB == Double.POSITIVE_INFINITY) {
+            return TargetSelection.anyAvailable(array);
+        }
+        return costA <= costB ? a : b;
+    }
+
+    @Override
+    public List<UpstreamTarget> targets() {
+        return targets;
+    }
+
+    private static double cost(UpstreamTarget target) {
+        if (!TargetSelection.admit(target)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return target.getStats().cost() / target.getWeight();
+    }
+}
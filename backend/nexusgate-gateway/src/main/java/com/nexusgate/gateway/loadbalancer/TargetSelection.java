@@ -0,0 +1,38 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Health-aware helpers shared by the load balancers.
+ */
+final class TargetSelection {
+
+    private TargetSelection() {
+    }
+
+    /**
+     * Admit a target with probability equal to its availability (slow start)
+     */
+    static boolean admit(UpstreamTarget target) {
+        double availability = target.getStats().availability();
+        return availability >= 1.0
+                || (availability > 0.0 && ThreadLocalRandom.current().nextDouble() < availability);
+    }
+
+    /**
+     * Any target that is not ejected/down, scanning from a random offset.
+     * If every target is unavailable, fall back to a random one (panic mode) -
+     * failing every request would be worse than trying a possibly-recovered backend.
+     */
+    static UpstreamTarget anyAvailable(UpstreamTarget[] targets) {
+        int n = targets.length;
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            UpstreamTarget target = targets[(start + i) % n];
+            if (target.getStats().availability() > 0.0) {
+                return target;
+            }
+        }
+        return targets[start];
+    }
+}
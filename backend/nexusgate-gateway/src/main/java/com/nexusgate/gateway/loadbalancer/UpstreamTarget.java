@@ -0,0 +1,65 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * One backend instance of a route: parsed URL, weight and the shared live stats of its origin.
+ */
+@Slf4j
+@Getter
+public final class UpstreamTarget {
+
+    private final String url;
+    private final int weight;
+
+    /** scheme://host:port of the upstream, null if the URL has no host */
+    private final String origin;
+
+    private final EndpointStats stats;
+
+    private UpstreamTarget(String url, int weight, String origin, EndpointStats stats) {
+        this.url = url;
+        this.weight = weight;
+        this.origin = origin;
+        this.stats = stats;
+    }
+
+    public static UpstreamTarget of(String url, Integer weight, Function<String, EndpointStats> statsLookup) {
+        String trimmed = url != null ? url.trim() : "";
+        String origin = originOf(trimmed);
+        return new UpstreamTarget(
+                trimmed,
+                weight != null && weight > 0 ? weight : 1,
+                origin,
+                statsLookup.apply(origin != null ? origin : trimmed)
+        );
+    }
+
+    private static String originOf(String url) {
+        if (url.isEmpty()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "http";
+            int port = uri.getPort() >= 0 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+            return scheme + "://" + uri.getHost() + ":" + port;
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid target URL '{}'", url);
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return url + " (weight " + weight + ")";
+    }
+}
@@ -0,0 +1,95 @@
+package com.nexusgate.gateway.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Smooth weighted round-robin.
+ *
+ * The interleaved sequence (e.g. weights 5,1,1 → a a b a c a a) is computed once at
+ * build time, so choosing is a single atomic increment and an array read.
+ * Unavailable targets are skipped and their turn goes to the next slot.
+ */
+final class WeightedRoundRobinBalancer implements LoadBalancer {
+
+    private static final int MAX_SCHEDULE_LENGTH = 4096;
+
+    private final List<UpstreamTarget> targets;
+    private final UpstreamTarget[] array;
+    private final UpstreamTarget[] schedule;
+    private final AtomicLong cursor = new AtomicLong();
+
+    WeightedRoundRobinBalancer(List<UpstreamTarget> targets) {
+        this.targets = List.copyOf(targets);
+        this.array = this.targets.toArray(new UpstreamTarget[0]);
+        this.schedule = buildSchedule(this.targets);
+    }
+
+    /**
+     * Walks the schedule, skipping ejected/down targets and thinning targets in slow start
+     */
+    @Override
+    public UpstreamTarget choose() {
+        int attempts = array.length * 2;
+        for (int i = 0; i < attempts; i++) {
+            UpstreamTarget target = schedule[(int) Math.floorMod(cursor.getAndIncrement(), (long) schedule.length)];
+            if (TargetSelection.admit(target)) {
+                return target;
+            }
+        }
+        return TargetSelection.anyAvailable(array);
+    }
+
+    @Override
+    public List<UpstreamTarget> targets() {
+        return targets;
+    }
+
+    private static UpstreamTarget[] buildSchedule(List<UpstreamTarget> targets) {
+        int n = targets.size();
+        int[] weights = new int[n];
+        int gcd = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = targets.get(i).getWeight();
+            gcd = gcd(gcd, weights[i]);
+        }
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] /= gcd;
+            total += weights[i];
+        }
+        // Keep the schedule small for extreme weights; proportions stay approximately equal
+        if (total > MAX_SCHEDULE_LENGTH) {
+            long scaledTotal = 0;
+            for (int i = 0; i < n; i++) {
+                weights[i] = (int) Math.max(1, (long) weights[i] * MAX_SCHEDULE_LENGTH / total);
+                scaledTotal += weights[i];
+            }
+            total = scaledTotal;
+        }
+
+        UpstreamTarget[] schedule = new UpstreamTarget[(int) total];
+        long[] current = new long[n];
+        for (int slot = 0; slot < schedule.length; slot++) {
+            int best = 0;
+            for (int i = 0; i < n; i++) {
+                current[i] += weights[i];
+                if (current[i] > current[best]) {
+                    best = i;
+                }
+            }
+            current[best] -= total;
+            schedule[slot] = targets.get(best);
+        }
+        return schedule;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,122 @@
+package com.nexusgate.gateway.peer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary format of one gossip datagram:
+ *
+ *   version (1) | node id length (1) | node id (UTF-8) | entry count (2) | entries | [mac (16)]
+ *   entry: apiKeyId (8) | routeId (8) | tier (1) | window index (8) | current (8) | previous (8)
+ *
+ * With a shared secret, the datagram ends with the first 16 bytes of HMAC-SHA256 over
+ * everything before it; datagrams with a wrong or missing MAC are dropped.
+ */
+final class GossipCodec {
+
+    static final int MAX_DATAGRAM_BYTES = 1400;   // fits a typical MTU without fragmentation
+
+    private static final byte VERSION = 1;
+    private static final int ENTRY_BYTES = 41;
+    private static final int MAC_BYTES = 16;
+
+    private final byte[] nodeId;
+    private final SecretKeySpec key;
+
+    GossipCodec(String nodeId, String secret) {
+        this.nodeId = nodeId.getBytes(StandardCharsets.UTF_8);
+        if (this.nodeId.length > 255) {
+            throw new IllegalArgumentException("Node id too long: " + nodeId);
+        }
+        this.key = secret == null || secret.isEmpty()
+                ? null
+                : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    record Entry(long apiKeyId, long routeId, int tier, long windowIndex, long current, long previous) {}
+
+    record Message(String nodeId, List<Entry> entries) {}
+
+    /**
+     * Entries split into as many datagrams as needed
+     */
+    List<ByteBuffer> encode(List<Entry> entries) {
+        int header = 1 + 1 + nodeId.length + 2;
+        int perDatagram = (MAX_DATAGRAM_BYTES - header - (key != null ? MAC_BYTES : 0)) / ENTRY_BYTES;
+        List<ByteBuffer> datagrams = new ArrayList<>();
+        for (int from = 0; from < entries.size(); from += perDatagram) {
+            List<Entry> chunk = entries.subList(from, Math.min(entries.size(), from + perDatagram));
+            ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM_BYTES);
+            buffer.put(VERSION).put((byte) nodeId.length).put(nodeId).putShort((short) chunk.size());
+            for (Entry entry : chunk) {
+                buffer.putLong(entry.apiKeyId()).putLong(entry.routeId()).put((byte) entry.tier())
+                        .putLong(entry.windowIndex()).putLong(entry.current()).putLong(entry.previous());
+            }
+            if (key != null) {
+                buffer.put(mac(buffer.array(), buffer.position()), 0, MAC_BYTES);
+            }
+            buffer.flip();
+            datagrams.add(buffer);
+        }
+        return datagrams;
+    }
+
+    /**
+     * @return the message, or null if the datagram is malformed or not authentic
+     */
+    Message decode(ByteBuffer buffer) {
+        try {
+            int length = buffer.remaining();
+            if (key != null) {
+                if (length <= MAC_BYTES) {
+                    return null;
+                }
+                byte[] data = new byte[length];
+                buffer.duplicate().get(data);
+                byte[] expected = Arrays.copyOf(mac(data, length - MAC_BYTES), MAC_BYTES);
+                if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(data, length - MAC_BYTES, length))) {
+                    return null;
+                }
+                buffer.limit(buffer.position() + length - MAC_BYTES);
+            }
+            if (buffer.get() != VERSION) {
+                return null;
+            }
+            byte[] sender = new byte[buffer.get() & 0xFF];
+            buffer.get(sender);
+            int count = buffer.getShort() & 0xFFFF;
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long apiKeyId = buffer.getLong();
+                long routeId = buffer.getLong();
+                int tier = buffer.get();
+                if (tier < 0 || tier >= PeerCounters.TIER_WINDOWS_MS.length) {
+                    return null;
+                }
+                entries.add(new Entry(apiKeyId, routeId, tier, buffer.getLong(), buffer.getLong(), buffer.getLong()));
+            }
+            return new Message(new String(sender, StandardCharsets.UTF_8), entries);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private byte[] mac(byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.nexusgate.gateway.peer;
+
+import com.nexusgate.gateway.redis.RateLimitDecision;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sliding window counters of one API key/route, per tier (minute, hour, day), built from
+ * grow-only counters (G-counters): every node only ever increments its own count for a
+ * window, and merging takes the maximum per node. Merges are idempotent and commutative,
+ * so gossip messages can be lost, repeated or reordered.
+ *
+ * Windows are aligned to the epoch on each node's wall clock (nodes need NTP). The rate is
+ * estimated like the Redis sliding window: previous total * unelapsed share + current total.
+ */
+final class PeerCounters {
+
+    static final long[] TIER_WINDOWS_MS = {60_000L, 3_600_000L, 86_400_000L};
+    static final String[] TIER_NAMES = {"minute", "hour", "day"};
+
+    private final long[] index = new long[TIER_WINDOWS_MS.length];
+    @SuppressWarnings("unchecked")
+    private final Map<String, Long>[] current = new Map[TIER_WINDOWS_MS.length];
+    @SuppressWarnings("unchecked")
+    private final Map<String, Long>[] previous = new Map[TIER_WINDOWS_MS.length];
+    private boolean dirty;
+
+    PeerCounters(long now) {
+        for (int i = 0; i < TIER_WINDOWS_MS.length; i++) {
+            index[i] = now / TIER_WINDOWS_MS[i];
+            current[i] = new HashMap<>();
+            previous[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Admit one request of {@code cost} tokens if every tier with a limit (> 0) has room for it,
+     * and count it for this node. A cost above a tier's limit needs the whole limit.
+     */
+    synchronized RateLimitDecision tryAcquire(String self, long[] limits, long cost, long now) {
+        roll(now);
+        int denied = -1;
+        long retryAfter = 0;
+        long remaining = -1;
+        for (int i = 0; i < limits.length; i++) {
+            if (limits[i] <= 0) {
+                continue;
+            }
+            long window = TIER_WINDOWS_MS[i];
+            long elapsed = now - index[i] * window;
+            long prev = total(previous[i]);
+            long curr = total(current[i]);
+            double estimate = prev * (double) (window - elapsed) / window + curr;
+            long need = Math.min(cost, limits[i]);
+
+            long left;
+            if (estimate + need > limits[i]) {
+                if (denied < 0) {
+                    denied = i;
+                }
+                double wait = curr + need <= limits[i]
+                        ? (window - elapsed) - (limits[i] - curr - need) * (double) window / prev
+                        : (window - elapsed) + Math.max(0, window - (limits[i] - need) * (double) window / curr);
+                retryAfter = Math.max(retryAfter, (long) Math.ceil(wait));
+                left = Math.max(0, (long) Math.floor(limits[i] - estimate));
+            } else {
+                left = (long) Math.floor(limits[i] - estimate - need);
+            }
+            if (remaining < 0 || left < remaining) {
+                remaining = left;
+            }
+        }
+        if (denied >= 0) {
+            return new RateLimitDecision(false, TIER_NAMES[denied], remaining, retryAfter);
+        }
+        for (int i = 0; i < limits.length; i++) {
+            if (limits[i] > 0) {
+                current[i].merge(self, Math.min(cost, limits[i]), Long::sum);
+            }
+        }
+        dirty = true;
+        return new RateLimitDecision(true, null, remaining, 0);
+    }
+
+    /**
+     * Apply a peer's counts for the window {@code windowIndex} and the one before it.
+     * Windows this node has already left are ignored.
+     */
+    synchronized void merge(String node, int tier, long windowIndex, long currentCount, long previousCount, long now) {
+        roll(now);
+        if (windowIndex == index[tier]) {
+            current[tier].merge(node, currentCount, Math::max);
+            previous[tier].merge(node, previousCount, Math::max);
+        } else if (windowIndex == index[tier] - 1) {
+            previous[tier].merge(node, currentCount, Math::max);
+        }
+    }
+
+    /**
+     * This node's counts to gossip, or null if nothing changed since the last call
+     * (unless {@code all} is set - periodic full sync repairs lost messages)
+     */
+    synchronized Snapshot ownCounts(String self, long now, boolean all) {
+        if (!dirty && !all) {
+            return null;
+        }
+        roll(now);
+        dirty = false;
+        long[] indexes = index.clone();
+        long[] curr = new long[index.length];
+        long[] prev = new long[index.length];
+        boolean any = false;
+        for (int i = 0; i < index.length; i++) {
+            curr[i] = current[i].getOrDefault(self, 0L);
+            prev[i] = previous[i].getOrDefault(self, 0L);
+            any |= curr[i] > 0 || prev[i] > 0;
+        }
+        return any ? new Snapshot(indexes, curr, prev) : null;
+    }
+
+    /**
+     * Merged count of the current window of a tier - all nodes as far as gossip has arrived
+     */
+    synchronized long currentTotal(int tier, long now) {
+        roll(now);
+        return total(current[tier]);
+    }
+
+    /**
+     * True when no tier holds counts any more - both windows have passed
+     */
+    synchronized boolean isIdle(long now) {
+        roll(now);
+        for (int i = 0; i < index.length; i++) {
+            if (!current[i].isEmpty() || !previous[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void roll(long now) {
+        for (int i = 0; i < index.length; i++) {
+            long target = now / TIER_WINDOWS_MS[i];
+            if (target == index[i]) {
+                continue;
+            }
+            if (target == index[i] + 1) {
+                previous[i] = current[i];
+            } else if (target > index[i]) {
+                previous[i] = new HashMap<>();
+            } else {
+                continue; // Clock went back - keep the newer window
+            }
+            current[i] = new HashMap<>();
+            index[i] = target;
+        }
+    }
+
+    private static long total(Map<String, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Per tier: window index, this node's count in it and in the window before
+     */
+    record Snapshot(long[] index, long[] current, long[] previous) {}
+}
@@ -0,0 +1,288 @@
+package com.nexusgate.gateway.peer;
+
+import com.nexusgate.gateway.redis.RateLimitAlgorithm;
+import com.nexusgate.gateway.redis.RateLimitDecision;
+import com.nexusgate.gateway.redis.RateLimitStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis-free rate limiting for deployments where Redis is an extra hop
+ * ({@code gateway.rate-limit.backend=PEER_TO_PEER}).
+ *
+ * Every node counts its own admissions in sliding window G-counters (PeerCounters) and
+ * gossips its counts for changed keys to all {@code peers} over UDP every
+ * {@code gossip-interval-ms}; every {@code full-sync-every} rounds it sends all its counts
+ * so lost datagrams are repaired. Requests are admitted against the merged view.
+ *
+ * Accuracy: a node does not see admissions of the last gossip interval (plus network delay)
+ * on the other nodes, so over-admission is bounded by about
+ * (nodes - 1) × per-node rate × gossip interval. Nothing is ever under-counted.
+ * Every algorithm is served as a sliding window counter in this mode.
+ *
+ * Metrics:
+ *   gateway.ratelimit.peer.keys                              API key/route counters held
+ *   gateway.ratelimit.peer.datagrams{direction=sent|received|rejected}
+ */
+@Slf4j
+@Component
+public class PeerRateLimiter implements RateLimitStrategy {
+
+    private static final long SWEEP_INTERVAL_MS = 10_000L;
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final int port;
+    private final List<InetSocketAddress> peers;
+    private final int fullSyncEvery;
+    private final int maxKeys;
+    private final GossipCodec codec;
+
+    private final Map<CounterKey, PeerCounters> counters = new ConcurrentHashMap<>();
+    private volatile DatagramChannel channel;
+    private long round;
+    private long lastSweep;
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter rejected;
+
+    public PeerRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.backend:REDIS}") String backend,
+            @Value("${gateway.rate-limit.peer.node-id:}") String nodeId,
+            @Value("${gateway.rate-limit.peer.port:7946}") int port,
+            @Value("${gateway.rate-limit.peer.peers:}") List<String> peers,
+            @Value("${gateway.rate-limit.peer.full-sync-every:20}") int fullSyncEvery,
+            @Value("${gateway.rate-limit.peer.max-keys:100000}") int maxKeys,
+            @Value("${gateway.rate-limit.peer.secret:}") String secret) {
+        this.enabled = "PEER_TO_PEER".equalsIgnoreCase(backend.trim());
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId.trim();
+        this.port = port;
+        this.peers = peers.stream()
+                .filter(peer -> !peer.isBlank())
+                .map(PeerRateLimiter::parseAddress)
+                .toList();
+        this.fullSyncEvery = Math.max(1, fullSyncEvery);
+        this.maxKeys = Math.max(1, maxKeys);
+        this.codec = new GossipCodec(this.nodeId, secret);
+
+        Gauge.builder("gateway.ratelimit.peer.keys", counters, Map::size)
+                .register(meterRegistry);
+        this.sent = datagrams(meterRegistry, "sent");
+        this.received = datagrams(meterRegistry, "received");
+        this.rejected = datagrams(meterRegistry, "rejected");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gateway nodes in the configured peer list, this node included whether or not it is
+     * listed (an entry with this node's port on a local address is this node). 1 without peers.
+     */
+    public int clusterSize() {
+        return (int) peers.stream().filter(peer -> !isSelf(peer)).count() + 1;
+    }
+
+    private boolean isSelf(InetSocketAddress peer) {
+        if (peer.getPort() != port || peer.isUnresolved()) {
+            return false;
+        }
+        InetAddress address = peer.getAddress();
+        try {
+            return address.isAnyLocalAddress() || address.isLoopbackAddress()
+                    || NetworkInterface.getByInetAddress(address) != null;
+        } catch (SocketException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public RateLimitAlgorithm algorithm() {
+        return RateLimitAlgorithm.SLIDING_WINDOW;
+    }
+
+    @Override
+    public Mono<RateLimitDecision> isAllowed(Long apiKeyId, Long serviceRouteId,
+                                             Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                             long cost) {
+        long[] limits = {limit(requestsPerMinute), limit(requestsPerHour), limit(requestsPerDay)};
+        if (limits[0] == 0 && limits[1] == 0 && limits[2] == 0) {
+            return Mono.just(RateLimitDecision.ALLOWED);
+        }
+        long now = System.currentTimeMillis();
+        PeerCounters counter = counterFor(new CounterKey(apiKeyId, serviceRouteId), now);
+        if (counter == null) {
+            return Mono.just(RateLimitDecision.ALLOWED); // Table full - fail open like a Redis outage
+        }
+        return Mono.just(counter.tryAcquire(nodeId, limits, Math.max(1, cost), now));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        channel = DatagramChannel.open().bind(new InetSocketAddress(port));
+        Thread receiver = new Thread(this::receive, "peer-rate-limit-gossip");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Peer-to-peer rate limiting enabled - node: {}, port: {}, peers: {}", nodeId, port, peers);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        DatagramChannel current = channel;
+        if (current != null) {
+            gossip(true); // Hand the latest counts to the peers before leaving
+            current.close();
+        }
+    }
+
+    /**
+     * Send this node's changed counts (all counts every full-sync-every rounds) to every peer
+     */
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.peer.gossip-interval-ms:50}")
+    public void gossip() {
+        if (channel == null) {
+            return;
+        }
+        gossip(++round % fullSyncEvery == 0);
+        long now = System.currentTimeMillis();
+        if (now - lastSweep >= SWEEP_INTERVAL_MS) {
+            lastSweep = now;
+            counters.values().removeIf(counter -> counter.isIdle(now));
+        }
+    }
+
+    private void gossip(boolean all) {
+        long now = System.currentTimeMillis();
+        List<GossipCodec.Entry> entries = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            PeerCounters.Snapshot own = counter.ownCounts(nodeId, now, all);
+            if (own == null) {
+                return;
+            }
+            for (int tier = 0; tier < own.index().length; tier++) {
+                if (own.current()[tier] > 0 || own.previous()[tier] > 0) {
+                    entries.add(new GossipCodec.Entry(key.apiKeyId(), key.serviceRouteId(), tier,
+                            own.index()[tier], own.current()[tier], own.previous()[tier]));
+                }
+            }
+        });
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (ByteBuffer datagram : codec.encode(entries)) {
+            for (InetSocketAddress peer : peers) {
+                try {
+                    channel.send(datagram.duplicate(), peer);
+                    sent.increment();
+                } catch (IOException e) {
+                    log.debug("Failed to gossip to {}: {}", peer, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(GossipCodec.MAX_DATAGRAM_BYTES);
+        while (channel != null && channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                GossipCodec.Message message = codec.decode(buffer);
+                if (message == null) {
+                    rejected.increment();
+                    continue;
+                }
+                if (message.nodeId().equals(nodeId)) {
+                    continue; // Own datagram (this node is in its peer list)
+                }
+                received.increment();
+                long now = System.currentTimeMillis();
+                for (GossipCodec.Entry entry : message.entries()) {
+                    PeerCounters counter = counterFor(new CounterKey(entry.apiKeyId(), entry.routeId()), now);
+                    if (counter != null) {
+                        counter.merge(message.nodeId(), entry.tier(), entry.windowIndex(),
+                                entry.current(), entry.previous(), now);
+                    }
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to process gossip datagram: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Counter of the key; when the table is full, idle counters are dropped first and
+     * null is returned if that frees nothing
+     */
+    private PeerCounters counterFor(CounterKey key, long now) {
+        PeerCounters counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxKeys) {
+            Iterator<PeerCounters> it = counters.values().iterator();
+            while (it.hasNext() && counters.size() >= maxKeys) {
+                if (it.next().isIdle(now)) {
+                    it.remove();
+                }
+            }
+            if (counters.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return counters.computeIfAbsent(key, k -> new PeerCounters(now));
+    }
+
+    private static long limit(Integer value) {
+        return value == null || value <= 0 ? 0 : value;
+    }
+
+    private static InetSocketAddress parseAddress(String peer) {
+        String trimmed = peer.trim();
+        int colon = trimmed.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Peer must be host:port - " + peer);
+        }
+        return new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1)));
+    }
+
+    private static Counter datagrams(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("gateway.ratelimit.peer.datagrams")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private record CounterKey(Long apiKeyId, Long serviceRouteId) {}
+}
@@ -0,0 +1,33 @@
+package com.nexusgate.gateway.redis;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Generic Cell Rate Algorithm (GCRA)
+ *
+ * Algorithm Overview:
+ * - Each key stores one timestamp: the theoretical arrival time (TAT) of the next request
+ * - Every admitted request moves the TAT forward by window / limit
+ * - A request is denied while its TAT would be more than one window ahead of now
+ *
+ * Compared to the token bucket:
+ * - Same admission (burst up to the limit, then the steady rate)
+ * - One string per tier instead of a hash with tokens and last refill
+ * - Retry-After is exact: the time until the TAT is back within the window
+ *
+ * Redis Storage:
+ * - String per tier: rate:gcra:{apiKeyId:serviceRouteId}:{minute|hour|day} = TAT (epoch millis)
+ * - TTL: until the TAT is reached (an expired key means a full burst is available)
+ */
+@Service
+public class GcraRateLimiter extends LuaRateLimitStrategy {
+
+    public GcraRateLimiter(RateLimitScriptExecutor scriptExecutor, LocalRateLimiter localRateLimiter) {
+        super(scriptExecutor, localRateLimiter, "scripts/gcra.lua", "rate:gcra");
+    }
+
+    @Override
+    public RateLimitAlgorithm algorithm() {
+        return RateLimitAlgorithm.GCRA;
+    }
+}
@@ -0,0 +1,200 @@
+package com.nexusgate.gateway.redis;
+
+import com.nexusgate.gateway.peer.PeerRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process token buckets used instead of Redis in degraded mode (see RedisAvailability)
+ * and when a Redis call fails, so a Redis outage does not turn rate limiting off.
+ *
+ * - Each node enforces its share of the limit: limit / {@code node-count}, at least 1.
+ *   Without node-count (0) the node count is the size of the peer list
+ *   ({@code gateway.rate-limit.peer.peers}); with neither, every node enforces the whole
+ *   limit - N nodes admit N times the limit during an outage, which is logged at startup
+ * - One entry per API key/route holding all tiers; updated by CAS on an immutable state
+ * - Bounded to {@code max-keys} entries: when full, idle entries are evicted first,
+ *   then arbitrary ones (a lost entry starts full again)
+ *
+ * With {@code gateway.rate-limit.fallback.enabled=false} Redis errors fail open as before.
+ *
+ * Metrics:
+ *   gateway.ratelimit.fallback.keys   entries held
+ */
+@Slf4j
+@Component
+public class LocalRateLimiter {
+
+    private static final long[] TIER_WINDOWS_MS = {60_000L, 3_600_000L, 86_400_000L};
+    private static final String[] TIER_NAMES = {"minute", "hour", "day"};
+
+    private final RedisAvailability redisAvailability;
+    private final boolean enabled;
+    private final int nodeCount;
+    private final int maxKeys;
+
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public LocalRateLimiter(
+            RedisAvailability redisAvailability,
+            PeerRateLimiter peerRateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.fallback.enabled:true}") boolean enabled,
+            @Value("${gateway.rate-limit.fallback.node-count:0}") int nodeCount,
+            @Value("${gateway.rate-limit.fallback.max-keys:100000}") int maxKeys) {
+        this.redisAvailability = redisAvailability;
+        this.enabled = enabled;
+        this.nodeCount = nodeCount > 0 ? nodeCount : peerRateLimiter.clusterSize();
+        if (enabled && nodeCount <= 0) {
+            if (this.nodeCount == 1) {
+                log.warn("⚠️ gateway.rate-limit.fallback.node-count is not set and there is no peer list - "
+                        + "while Redis is unavailable every gateway node admits the full rate limit. "
+                        + "Set it (GATEWAY_NODE_COUNT) to the number of gateway nodes, or to 1 for a single node.");
+            } else {
+                log.info("Local rate limit fallback: {} nodes from the peer list, each enforcing 1/{} of every limit",
+                        this.nodeCount, this.nodeCount);
+            }
+        }
+        this.maxKeys = Math.max(1, maxKeys);
+
+        Gauge.builder("gateway.ratelimit.fallback.keys", buckets, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * True when checks should skip Redis and come here directly
+     */
+    public boolean isActive() {
+        return enabled && redisAvailability.isDegraded();
+    }
+
+    /**
+     * Check and charge one request of {@code cost} tokens against this node's share of every
+     * configured tier; a cost above a share takes the whole share. Fails open when the fallback is disabled.
+     */
+    public RateLimitDecision isAllowed(Long apiKeyId, Long serviceRouteId,
+                                       Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                       long cost) {
+        if (!enabled) {
+            return RateLimitDecision.ALLOWED;
+        }
+        long[] capacities = {
+                share(requestsPerMinute), share(requestsPerHour), share(requestsPerDay)
+        };
+        if (capacities[0] == 0 && capacities[1] == 0 && capacities[2] == 0) {
+            return RateLimitDecision.ALLOWED;
+        }
+
+        String key = apiKeyId + ":" + serviceRouteId;
+        LocalBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new LocalBucket());
+        }
+        return bucket.take(capacities, Math.max(1, cost), System.currentTimeMillis());
+    }
+
+    private long share(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return 0; // No limit configured
+        }
+        return Math.max(1, limit / nodeCount);
+    }
+
+    /**
+     * Make room for new keys: drop buckets idle for a minute, then arbitrary ones down to 90%
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long idleBefore = System.currentTimeMillis() - TIER_WINDOWS_MS[0];
+            buckets.values().removeIf(bucket -> bucket.lastUpdate() < idleBefore);
+            int target = maxKeys - maxKeys / 10;
+            Iterator<String> keys = buckets.keySet().iterator();
+            while (buckets.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Tokens of all tiers of one API key/route
+     */
+    private static final class LocalBucket {
+
+        private final AtomicReference<State> state = new AtomicReference<>();
+
+        RateLimitDecision take(long[] capacities, long cost, long now) {
+            while (true) {
+                State current = state.get();
+                double[] tokens = new double[capacities.length];
+                int denied = -1;
+                long retryAfter = 0;
+                double remaining = -1;
+                for (int i = 0; i < capacities.length; i++) {
+                    if (capacities[i] == 0) {
+                        continue;
+                    }
+                    double available = capacities[i];
+                    if (current != null && current.capacities[i] == capacities[i]) {
+                        double refill = Math.max(0, now - current.timestamp) * capacities[i] / (double) TIER_WINDOWS_MS[i];
+                        available = Math.min(capacities[i], current.tokens[i] + refill);
+                    }
+                    tokens[i] = available;
+                    long need = Math.min(cost, capacities[i]);
+                    if (available < need) {
+                        if (denied < 0) {
+                            denied = i;
+                        }
+                        retryAfter = Math.max(retryAfter,
+                                (long) Math.ceil((need - available) * TIER_WINDOWS_MS[i] / capacities[i]));
+                    }
+                    if (remaining < 0 || available < remaining) {
+                        remaining = available;
+                    }
+                }
+                if (denied < 0) {
+                    remaining = -1;
+                    for (int i = 0; i < tokens.length; i++) {
+                        if (capacities[i] == 0) {
+                            continue;
+                        }
+                        tokens[i] -= Math.min(cost, capacities[i]);
+                        if (remaining < 0 || tokens[i] < remaining) {
+                            remaining = tokens[i];
+                        }
+                    }
+                }
+                if (state.compareAndSet(current, new State(capacities, tokens, now))) {
+                    return denied < 0
+                            ? new RateLimitDecision(true, null, (long) Math.floor(remaining), 0)
+                            : new RateLimitDecision(false, TIER_NAMES[denied], (long) Math.floor(remaining), retryAfter);
+                }
+            }
+        }
+
+        long lastUpdate() {
+            State current = state.get();
+            return current != null ? current.timestamp : 0;
+        }
+    }
+
+    private record State(long[] capacities, double[] tokens, long timestamp) {}
+}
@@ -0,0 +1,65 @@
+package com.nexusgate.gateway.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Strategy that is one Lua script call per request (pipelined by RateLimitScriptExecutor). The script gets the tiers as
+ * KEYS/ARGV (see RateLimitTiers) plus the tokens to charge (the request's cost), and returns
+ * { allowed, denying tier, remaining, retry after ms }. Without Redis the LocalRateLimiter decides.
+ */
+@Slf4j
+abstract class LuaRateLimitStrategy implements RateLimitStrategy {
+
+    private final RateLimitScriptExecutor scriptExecutor;
+    private final LocalRateLimiter localRateLimiter;
+    private final RedisScript<List<Long>> script;
+    private final String keyPrefix;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    LuaRateLimitStrategy(RateLimitScriptExecutor scriptExecutor, LocalRateLimiter localRateLimiter,
+                         String scriptPath, String keyPrefix) {
+        this.scriptExecutor = scriptExecutor;
+        this.localRateLimiter = localRateLimiter;
+        this.script = (RedisScript) RedisScript.of(new ClassPathResource(scriptPath), List.class);
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public Mono<RateLimitDecision> isAllowed(Long apiKeyId, Long serviceRouteId,
+                                             Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                             long cost) {
+        RateLimitTiers tiers = RateLimitTiers.of(keyPrefix, apiKeyId, serviceRouteId,
+                requestsPerMinute, requestsPerHour, requestsPerDay);
+        if (tiers.isEmpty()) {
+            return Mono.just(RateLimitDecision.ALLOWED);
+        }
+        if (localRateLimiter.isActive()) {
+            return Mono.fromSupplier(() -> localRateLimiter.isAllowed(apiKeyId, serviceRouteId,
+                    requestsPerMinute, requestsPerHour, requestsPerDay, cost));
+        }
+
+        log.debug("Checking rate limits ({}) - ApiKeyId: {}, RouteId: {}, PerMinute: {}, PerHour: {}, PerDay: {}, Cost: {}",
+                algorithm(), apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay, cost);
+
+        return scriptExecutor.execute(script, tiers.keys(), tiers.argsWith(String.valueOf(cost)))
+                .map(tiers::toDecision)
+                .doOnNext(decision -> {
+                    if (!decision.allowed()) {
+                        log.warn("Rate limit exceeded for {} tier ({}) - ApiKeyId: {}, RouteId: {}, RetryAfter: {}ms",
+                                decision.exceededTier(), algorithm(), apiKeyId, serviceRouteId, decision.retryAfterMs());
+                    }
+                })
+                .defaultIfEmpty(RateLimitDecision.ALLOWED)
+                .onErrorResume(e -> {
+                    log.error("Redis error for {} keys: {}", algorithm(), tiers.keys(), e);
+                    // Local limit (or fail open if the fallback is disabled)
+                    return Mono.just(localRateLimiter.isAllowed(apiKeyId, serviceRouteId,
+                            requestsPerMinute, requestsPerHour, requestsPerDay, cost));
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package com.nexusgate.gateway.redis;
+
+import java.util.Locale;
+
+public enum RateLimitAlgorithm {
+    TOKEN_BUCKET,
+    GCRA,
+    SLIDING_WINDOW;
+
+    /**
+     * Lenient parse - unknown or missing values fall back to the token bucket
+     */
+    public static RateLimitAlgorithm from(String value) {
+        if (value == null || value.isBlank()) {
+            return TOKEN_BUCKET;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return TOKEN_BUCKET;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nexusgate.gateway.redis;
+
+/**
+ * Outcome of one rate limit check across all configured tiers.
+ *
+ * @param exceededTier  tier that denied the request (minute, hour, day), null if allowed
+ * @param remaining     tokens left in the tightest tier, -1 if unknown
+ * @param retryAfterMs  time until the request would be allowed, 0 if allowed
+ */
+public record RateLimitDecision(boolean allowed, String exceededTier, long remaining, long retryAfterMs) {
+
+    /** Used when no tier is configured or Redis is unavailable (fail open) */
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, null, -1, 0);
+}
@@ -0,0 +1,133 @@
+package com.nexusgate.gateway.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers rate limit denials per API key/route until the computed refill time, so a
+ * client that keeps hammering an exhausted limit is rejected without any Redis call.
+ *
+ * - An entry lives for the denial's retry-after, capped at {@code max-ttl-ms} (then Redis
+ *   is asked again - limits may have been raised in the meantime). The cap only limits the
+ *   caching: a cached rejection reports the time left until the real refill (e.g. hours for
+ *   an exhausted day tier), not until the entry expires
+ * - An entry only applies while the limits it was computed for are still the effective ones,
+ *   and to requests costing at least as much as the denied one (a cheaper request may fit)
+ * - Bounded to {@code max-entries}: when full, expired entries are purged; if that frees
+ *   nothing, the new denial is simply not cached
+ *
+ * Metrics:
+ *   gateway.ratelimit.denials.cached    requests rejected from this cache
+ *   gateway.ratelimit.denials.entries   entries held
+ */
+@Component
+public class RateLimitDenialCache {
+
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Denial> denials = new ConcurrentHashMap<>();
+    private final AtomicBoolean purging = new AtomicBoolean();
+
+    private final Counter cachedRejections;
+
+    public RateLimitDenialCache(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.denial-cache.enabled:true}") boolean enabled,
+            @Value("${gateway.rate-limit.denial-cache.max-ttl-ms:60000}") long maxTtlMs,
+            @Value("${gateway.rate-limit.denial-cache.max-entries:100000}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxTtlNanos = TimeUnit.MILLISECONDS.toNanos(maxTtlMs);
+        this.maxEntries = Math.max(1, maxEntries);
+
+        this.cachedRejections = Counter.builder("gateway.ratelimit.denials.cached")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.denials.entries", denials, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached denial for these limits and a request of this cost, with the retry-after left, or null
+     */
+    public RateLimitDecision get(Long apiKeyId, Long serviceRouteId,
+                                 Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                 long cost) {
+        if (!enabled || denials.isEmpty()) {
+            return null;
+        }
+        String key = apiKeyId + ":" + serviceRouteId;
+        Denial denial = denials.get(key);
+        if (denial == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (denial.expiresAtNanos() - now <= 0
+                || !denial.limits().equals(new Limits(requestsPerMinute, requestsPerHour, requestsPerDay))) {
+            denials.remove(key, denial);
+            return null;
+        }
+        if (cost < denial.cost()) {
+            return null;
+        }
+        cachedRejections.increment();
+        RateLimitDecision decision = denial.decision();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(now - denial.deniedAtNanos());
+        return new RateLimitDecision(false, decision.exceededTier(), 0,
+                Math.max(1, decision.retryAfterMs() - elapsedMs));
+    }
+
+    /**
+     * Remember a denial until its retry-after has passed
+     */
+    public void put(Long apiKeyId, Long serviceRouteId,
+                    Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                    long cost, RateLimitDecision decision) {
+        if (!enabled || decision.allowed() || decision.retryAfterMs() <= 0) {
+            return;
+        }
+        if (denials.size() >= maxEntries) {
+            purgeExpired();
+            if (denials.size() >= maxEntries) {
+                return;
+            }
+        }
+        long ttl = Math.min(TimeUnit.MILLISECONDS.toNanos(decision.retryAfterMs()), maxTtlNanos);
+        long now = System.nanoTime();
+        denials.put(apiKeyId + ":" + serviceRouteId, new Denial(
+                new Limits(requestsPerMinute, requestsPerHour, requestsPerDay),
+                cost,
+                decision,
+                now,
+                now + ttl));
+    }
+
+    private void purgeExpired() {
+        if (!purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            denials.values().removeIf(denial -> denial.expiresAtNanos() - now <= 0);
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    private record Limits(Integer perMinute, Integer perHour, Integer perDay) {}
+
+    /**
+     * @param deniedAtNanos  when Redis denied - the decision's retry-after counts from here
+     * @param expiresAtNanos end of the cached entry: retry-after capped at max-ttl-ms
+     */
+    private record Denial(Limits limits, long cost, RateLimitDecision decision,
+                          long deniedAtNanos, long expiresAtNanos) {}
+}
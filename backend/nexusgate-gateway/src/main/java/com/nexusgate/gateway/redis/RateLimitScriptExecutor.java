@@ -0,0 +1,212 @@
+package com.nexusgate.gateway.redis;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the rate limit scripts, batching the calls of concurrent requests into pipelines.
+ *
+ * With pipelining enabled, scripts are sent over a dedicated Lettuce connection with
+ * auto-flush off: every call is written to the connection buffer, and the buffer is
+ * flushed to Redis once {@code max-batch} calls are pending or {@code flush-interval-us}
+ * after the first pending call - one write (and one Redis read) per batch instead of
+ * per request. Calls are EVALSHA; a NOSCRIPT reply is retried once as EVAL.
+ *
+ * Without pipelining, or when the connection factory is not a standalone Lettuce
+ * client, calls go through the shared ReactiveRedisTemplate as before.
+ *
+ * Metrics:
+ *   gateway.ratelimit.redis.batch.size   calls per flushed batch
+ *   gateway.ratelimit.redis.calls{mode=pipelined|direct}
+ */
+@Slf4j
+@Component
+public class RateLimitScriptExecutor {
+
+    private static final long CONNECT_RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final RedisAvailability redisAvailability;
+    private final boolean pipelining;
+    private final int maxBatch;
+    private final long flushIntervalMicros;
+    private final Duration timeout;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile StatefulRedisConnection<String, String> connection;
+    private volatile boolean unavailable;
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private final AtomicLong lastConnectAttempt = new AtomicLong(System.nanoTime() - CONNECT_RETRY_NANOS);
+
+    private final DistributionSummary batchSizes;
+    private final Counter pipelinedCalls;
+    private final Counter directCalls;
+
+    public RateLimitScriptExecutor(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ReactiveRedisConnectionFactory connectionFactory,
+            RedisAvailability redisAvailability,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.pipelining.enabled:true}") boolean pipelining,
+            @Value("${gateway.rate-limit.pipelining.max-batch:64}") int maxBatch,
+            @Value("${gateway.rate-limit.pipelining.flush-interval-us:200}") long flushIntervalMicros,
+            @Value("${spring.data.redis.timeout:3000ms}") Duration timeout) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.redisAvailability = redisAvailability;
+        this.pipelining = pipelining;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flushIntervalMicros = Math.max(1, flushIntervalMicros);
+        this.timeout = timeout;
+
+        this.batchSizes = DistributionSummary.builder("gateway.ratelimit.redis.batch.size")
+                .register(meterRegistry);
+        this.pipelinedCalls = calls(meterRegistry, "pipelined");
+        this.directCalls = calls(meterRegistry, "direct");
+    }
+
+    /**
+     * Run a script that returns a list of integers. Latency and errors are reported to RedisAvailability.
+     */
+    public Mono<List<Long>> execute(RedisScript<List<Long>> script, List<String> keys, List<String> args) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return send(script, keys, args)
+                    .doOnSuccess(result -> redisAvailability.recordSuccess(System.nanoTime() - start))
+                    .doOnError(e -> redisAvailability.recordFailure());
+        });
+    }
+
+    private Mono<List<Long>> send(RedisScript<List<Long>> script, List<String> keys, List<String> args) {
+        StatefulRedisConnection<String, String> batched = pipelining ? connection() : null;
+        if (batched == null) {
+            directCalls.increment();
+            return redisTemplate.execute(script, keys, args).next().timeout(timeout);
+        }
+        pipelinedCalls.increment();
+        String[] keyArray = keys.toArray(new String[0]);
+        String[] argArray = args.toArray(new String[0]);
+        return this.<List<Long>>dispatch(() -> batched.async()
+                        .evalsha(script.getSha1(), ScriptOutputType.MULTI, keyArray, argArray))
+                .onErrorResume(RedisNoScriptException.class, e -> dispatch(() -> batched.async()
+                        .eval(script.getScriptAsString(), ScriptOutputType.MULTI, keyArray, argArray)))
+                .timeout(timeout);
+    }
+
+    private <T> Mono<T> dispatch(Supplier<CompletionStage<T>> command) {
+        return Mono.defer(() -> {
+            Mono<T> result = Mono.fromCompletionStage(command.get());
+            onDispatched();
+            return result;
+        });
+    }
+
+    private void onDispatched() {
+        if (pending.incrementAndGet() >= maxBatch) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            Schedulers.parallel().schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, flushIntervalMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private void flush() {
+        int batch = pending.getAndSet(0);
+        if (batch > 0) {
+            connection.flushCommands();
+            batchSizes.record(batch);
+        }
+    }
+
+    /**
+     * Dedicated connection with auto-flush off. Opened in the background on first use (and
+     * retried every few seconds while Redis is down) - until then callers get null and use
+     * the shared template, so no request thread blocks on a connect.
+     */
+    private StatefulRedisConnection<String, String> connection() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null || unavailable) {
+            return current;
+        }
+        long now = System.nanoTime();
+        long last = lastConnectAttempt.get();
+        if (now - last >= CONNECT_RETRY_NANOS && lastConnectAttempt.compareAndSet(last, now)
+                && connecting.compareAndSet(false, true)) {
+            Schedulers.boundedElastic().schedule(this::open);
+        }
+        return null;
+    }
+
+    private void open() {
+        try {
+            if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)) {
+                unavailable = true;
+                log.info("Rate limit pipelining needs a Lettuce connection factory - using the shared connection");
+                return;
+            }
+            AbstractRedisClient client = lettuce.getNativeClient();
+            if (client == null) {
+                return; // Factory not started yet - retried on a later call
+            }
+            if (!(client instanceof RedisClient redisClient)) {
+                unavailable = true;
+                log.info("Rate limit pipelining needs a standalone Lettuce client - using the shared connection");
+                return;
+            }
+            StatefulRedisConnection<String, String> opened = redisClient.connect(StringCodec.UTF8);
+            opened.setAutoFlushCommands(false);
+            connection = opened;
+            log.info("Rate limit pipelining enabled (max batch: {}, flush interval: {}us)",
+                    maxBatch, flushIntervalMicros);
+        } catch (Exception e) {
+            log.warn("Failed to open rate limit pipelining connection: {}", e.getMessage());
+        } finally {
+            connecting.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current != null) {
+            current.flushCommands();
+            current.close();
+        }
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("gateway.ratelimit.redis.calls")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nexusgate.gateway.redis;
+
+import com.nexusgate.gateway.peer.PeerRateLimiter;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All rate limit strategies by algorithm.
+ * With the peer-to-peer backend enabled, every algorithm is served by PeerRateLimiter.
+ */
+@Component
+public class RateLimitStrategies {
+
+    private final Map<RateLimitAlgorithm, RateLimitStrategy> strategies = new EnumMap<>(RateLimitAlgorithm.class);
+    private final PeerRateLimiter peerRateLimiter;
+
+    public RateLimitStrategies(List<RateLimitStrategy> strategies, PeerRateLimiter peerRateLimiter) {
+        this.peerRateLimiter = peerRateLimiter.isEnabled() ? peerRateLimiter : null;
+        strategies.stream()
+                .filter(strategy -> strategy != peerRateLimiter)
+                .forEach(strategy -> this.strategies.put(strategy.algorithm(), strategy));
+    }
+
+    /**
+     * True when rate limits are enforced by gossiping gateway nodes instead of Redis
+     */
+    public boolean isPeerToPeer() {
+        return peerRateLimiter != null;
+    }
+
+    /**
+     * Strategy for the algorithm, the token bucket if none is registered for it
+     */
+    public RateLimitStrategy get(RateLimitAlgorithm algorithm) {
+        if (peerRateLimiter != null) {
+            return peerRateLimiter;
+        }
+        RateLimitStrategy strategy = strategies.get(algorithm);
+        return strategy != null ? strategy : strategies.get(RateLimitAlgorithm.TOKEN_BUCKET);
+    }
+}
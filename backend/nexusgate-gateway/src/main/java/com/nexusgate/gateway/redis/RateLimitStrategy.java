@@ -0,0 +1,23 @@
+package com.nexusgate.gateway.redis;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * One rate limiting algorithm backed by Redis. Every implementation checks and charges
+ * the per-minute, per-hour and per-day tiers of one API key/route in a single atomic
+ * script call and uses Redis TIME as the clock. While Redis is unavailable or degraded,
+ * checks go to LocalRateLimiter (this node's share of every limit); they fail open only
+ * with {@code gateway.rate-limit.fallback.enabled=false}.
+ */
+public interface RateLimitStrategy {
+
+    RateLimitAlgorithm algorithm();
+
+    /**
+     * Check and charge one request costing {@code cost} tokens (1 = plain request count) in every tier.
+     * A null or non-positive limit disables that tier.
+     */
+    Mono<RateLimitDecision> isAllowed(Long apiKeyId, Long serviceRouteId,
+                                      Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                      long cost);
+}
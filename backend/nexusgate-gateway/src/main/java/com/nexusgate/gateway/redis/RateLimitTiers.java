@@ -0,0 +1,65 @@
+package com.nexusgate.gateway.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis keys and script arguments of the configured tiers of one API key/route.
+ * Shared by all rate limit scripts: KEYS[i] is tier i, ARGV[2i - 1] its capacity,
+ * ARGV[2i] its window in milliseconds.
+ *
+ * Keys share a hash tag, so all tiers of one key/route live in the same cluster slot.
+ */
+record RateLimitTiers(List<String> keys, List<String> args, List<String> names) {
+
+    private static final String[] TIER_NAMES = {"minute", "hour", "day"};
+    private static final long[] TIER_WINDOWS_MS = {60_000L, 3_600_000L, 86_400_000L};
+
+    /**
+     * Tiers of per-minute, per-hour and per-day limits; a null or non-positive limit disables a tier
+     */
+    static RateLimitTiers of(String keyPrefix, Long apiKeyId, Long serviceRouteId, Integer... capacities) {
+        List<String> keys = new ArrayList<>(3);
+        List<String> args = new ArrayList<>(8);
+        List<String> names = new ArrayList<>(3);
+        for (int i = 0; i < capacities.length; i++) {
+            if (capacities[i] == null || capacities[i] <= 0) {
+                continue; // No limit configured
+            }
+            keys.add(String.format("%s:{%d:%d}:%s", keyPrefix, apiKeyId, serviceRouteId, TIER_NAMES[i]));
+            args.add(String.valueOf(capacities[i]));
+            args.add(String.valueOf(TIER_WINDOWS_MS[i]));
+            names.add(TIER_NAMES[i]);
+        }
+        return new RateLimitTiers(keys, args, names);
+    }
+
+    boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Script arguments followed by the given extra arguments
+     */
+    List<String> argsWith(String... extra) {
+        List<String> all = new ArrayList<>(args.size() + extra.length);
+        all.addAll(args);
+        all.addAll(List.of(extra));
+        return all;
+    }
+
+    /**
+     * Decision from a script result
+     * { allowed (> 0), first denying tier (0 if allowed), remaining in the tightest tier, retry after ms }
+     */
+    RateLimitDecision toDecision(List<Long> result) {
+        boolean allowed = result.get(0) > 0;
+        int deniedTier = result.get(1).intValue();
+        return new RateLimitDecision(
+                allowed,
+                deniedTier > 0 ? names.get(deniedTier - 1) : null,
+                result.get(2),
+                result.get(3)
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package com.nexusgate.gateway.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whether rate limiting runs against Redis or in degraded (local) mode.
+ *
+ * Every rate limit script call reports its outcome. After {@code failure-threshold}
+ * consecutive failed or slow calls (slower than {@code latency-threshold-ms}) the
+ * gateway switches to degraded mode: checks skip Redis and use LocalRateLimiter.
+ * While degraded, Redis is probed with PING; after {@code recovery-probes} consecutive
+ * fast replies rate limiting hands back to Redis.
+ *
+ * Metrics:
+ *   gateway.ratelimit.mode          0 = redis, 1 = degraded (local)
+ *   gateway.ratelimit.mode.changes  transitions in either direction
+ */
+@Slf4j
+@Component
+public class RedisAvailability {
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final int failureThreshold;
+    private final long latencyThresholdNanos;
+    private final int recoveryProbes;
+
+    private final AtomicBoolean degraded = new AtomicBoolean();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger consecutiveProbes = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    private final Counter modeChanges;
+
+    public RedisAvailability(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.fallback.failure-threshold:3}") int failureThreshold,
+            @Value("${gateway.rate-limit.fallback.latency-threshold-ms:100}") long latencyThresholdMs,
+            @Value("${gateway.rate-limit.fallback.recovery-probes:3}") int recoveryProbes) {
+        this.redisTemplate = redisTemplate;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.recoveryProbes = Math.max(1, recoveryProbes);
+
+        this.modeChanges = Counter.builder("gateway.ratelimit.mode.changes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.mode", degraded, flag -> flag.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isDegraded() {
+        return degraded.get();
+    }
+
+    /**
+     * A rate limit call completed; slow calls count as failures
+     */
+    public void recordSuccess(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            recordFailure();
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && degraded.compareAndSet(false, true)) {
+            consecutiveProbes.set(0);
+            modeChanges.increment();
+            log.warn("⚠️ Redis unavailable or slow - rate limiting switched to local fallback");
+        }
+    }
+
+    /**
+     * While degraded, check whether Redis is back
+     */
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.fallback.probe-interval-ms:1000}")
+    public void probe() {
+        if (!degraded.get() || !probing.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        redisTemplate.execute(connection -> connection.ping())
+                .next()
+                .timeout(Duration.ofNanos(Math.max(latencyThresholdNanos, TimeUnit.MILLISECONDS.toNanos(1))))
+                .doFinally(signal -> probing.set(false))
+                .subscribe(
+                        pong -> onProbe(System.nanoTime() - start <= latencyThresholdNanos),
+                        error -> onProbe(false)
+                );
+    }
+
+    private void onProbe(boolean healthy) {
+        if (!healthy) {
+            consecutiveProbes.set(0);
+            return;
+        }
+        if (consecutiveProbes.incrementAndGet() >= recoveryProbes && degraded.compareAndSet(true, false)) {
+            consecutiveFailures.set(0);
+            modeChanges.increment();
+            log.info("Redis recovered - rate limiting handed back to Redis");
+        }
+    }
+}
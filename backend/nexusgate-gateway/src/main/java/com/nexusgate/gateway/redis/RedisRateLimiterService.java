@@ -3,130 +3,147 @@ package com.nexusgate.gateway.redis;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Token Bucket Rate Limiting Algorithm Implementation
- * 
+ *
  * Algorithm Overview:
  * - Each API key/route has a bucket with a maximum capacity of tokens
  * - Tokens are refilled at a constant rate (tokens per second)
- * - Each request consumes 1 token
+ * - Each request consumes its cost in tokens (1 unless the route weighs requests)
  * - If bucket has tokens available, request is allowed (token consumed)
  * - If bucket is empty, request is denied
- * 
+ *
  * Benefits over Fixed Window:
  * - No burst at window boundaries
  * - Smooth traffic distribution
  * - Allows small bursts up to capacity, then enforces steady rate
- * 
+ *
+ * Execution:
+ * - All tiers (minute, hour, day) are checked and charged by one Lua script
+ *   (scripts/token_bucket.lua) in a single round trip - atomic across gateway nodes
+ * - The script is sent by SHA (EVALSHA); Redis loads it on first use
+ * - Calls of concurrent requests are pipelined in batches (RateLimitScriptExecutor)
+ * - Redis down or slow: checks fall back to per-node local buckets (LocalRateLimiter)
+ * - The clock is Redis TIME, not the gateway node's clock
+ *
  * Redis Storage:
- * - Hash: tokens (current count), last_refill (timestamp in seconds)
- * - TTL: Auto-expire after 1 hour of inactivity
+ * - Hash per tier: tokens (current count), ts (last refill, epoch millis)
+ * - Keys share a hash tag so all tiers of one key/route live in the same cluster slot
+ * - TTL: one window of inactivity (the bucket is full again by then)
+ *
+ * Leases (see TokenLeaseManager):
+ * - lease() takes up to N tokens from every tier at once, for a gateway node to spend locally
+ * - giveBack() returns the unused part; each tier stays capped at its capacity
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class RedisRateLimiterService {
+public class RedisRateLimiterService implements RateLimitStrategy {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT =
+            (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+
+    private static final RedisScript<Long> TOKEN_RETURN_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_return.lua"), Long.class);
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RateLimitScriptExecutor scriptExecutor;
+    private final LocalRateLimiter localRateLimiter;
+
+    @Override
+    public RateLimitAlgorithm algorithm() {
+        return RateLimitAlgorithm.TOKEN_BUCKET;
+    }
 
     /**
-     * Check if request is allowed using Token Bucket algorithm
-     * Checks both per-minute and per-hour buckets
+     * Check if request is allowed using Token Bucket algorithm.
+     * Checks the per-minute, per-hour and per-day buckets; a null or non-positive limit disables that tier.
      */
-    public Mono<Boolean> isAllowed(Long apiKeyId, Long serviceRouteId, Integer requestsPerMinute, Integer requestsPerHour) {
-        String minuteKey = String.format("rate:bucket:%d:%d:minute", apiKeyId, serviceRouteId);
-        String hourKey = String.format("rate:bucket:%d:%d:hour", apiKeyId, serviceRouteId);
-
-        log.debug("Checking rate limits (Token Bucket) - ApiKeyId: {}, RouteId: {}, PerMinute: {}, PerHour: {}", 
-                apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour);
-
-        // Check minute bucket first
-        return tryConsumeToken(minuteKey, requestsPerMinute, 60)
-                .flatMap(minuteAllowed -> {
-                    if (!minuteAllowed) {
-                        log.warn("Rate limit exceeded for minute bucket - ApiKeyId: {}, RouteId: {}", apiKeyId, serviceRouteId);
-                        return Mono.just(false);
+    @Override
+    public Mono<RateLimitDecision> isAllowed(Long apiKeyId, Long serviceRouteId,
+                                             Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                             long cost) {
+        RateLimitTiers buckets = buckets(apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay);
+        if (buckets.isEmpty()) {
+            return Mono.just(RateLimitDecision.ALLOWED);
+        }
+
+        log.debug("Checking rate limits (Token Bucket) - ApiKeyId: {}, RouteId: {}, PerMinute: {}, PerHour: {}, PerDay: {}, Cost: {}",
+                apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay, cost);
+
+        return take(buckets, cost, cost, () -> localRateLimiter.isAllowed(apiKeyId, serviceRouteId,
+                        requestsPerMinute, requestsPerHour, requestsPerDay, cost))
+                .map(grant -> grant.decision())
+                .doOnNext(decision -> {
+                    if (!decision.allowed()) {
+                        log.warn("Rate limit exceeded for {} bucket - ApiKeyId: {}, RouteId: {}, RetryAfter: {}ms",
+                                decision.exceededTier(), apiKeyId, serviceRouteId, decision.retryAfterMs());
                     }
-                    // If minute bucket allows, check hour bucket
-                    return tryConsumeToken(hourKey, requestsPerHour, 3600)
-                            .doOnNext(hourAllowed -> {
-                                if (!hourAllowed) {
-                                    log.warn("Rate limit exceeded for hour bucket - ApiKeyId: {}, RouteId: {}", apiKeyId, serviceRouteId);
-                                }
-                            });
                 });
     }
 
     /**
-     * Token Bucket Algorithm Implementation
-     * 
-     * @param bucketKey Redis key for the bucket
-     * @param capacity Maximum tokens in bucket (burst capacity)
-     * @param refillIntervalSeconds Time window for refill (60 for minute, 3600 for hour)
-     * @return true if token consumed successfully, false if bucket empty
+     * Take up to {@code tokens} tokens from every tier in one call (at least {@code needed}, or nothing).
+     * Without Redis the grant has 0 tokens and the decision of the local fallback limiter for {@code needed}.
      */
-    private Mono<Boolean> tryConsumeToken(String bucketKey, Integer capacity, int refillIntervalSeconds) {
-        if (capacity == null || capacity <= 0) {
-            return Mono.just(true); // No limit configured
+    public Mono<TokenGrant> lease(Long apiKeyId, Long serviceRouteId,
+                                  Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                  long needed, long tokens) {
+        RateLimitTiers buckets = buckets(apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay);
+        if (buckets.isEmpty()) {
+            return Mono.just(new TokenGrant(0, RateLimitDecision.ALLOWED));
         }
+        return take(buckets, needed, tokens, () -> localRateLimiter.isAllowed(apiKeyId, serviceRouteId,
+                requestsPerMinute, requestsPerHour, requestsPerDay, needed));
+    }
 
-        long currentTimeSeconds = Instant.now().getEpochSecond();
-        double refillRate = (double) capacity / refillIntervalSeconds; // tokens per second
-
-        return redisTemplate.opsForHash().get(bucketKey, "tokens")
-                .map(obj -> obj != null ? obj.toString() : "0")
-                .defaultIfEmpty("0")
-                .zipWith(
-                    redisTemplate.opsForHash().get(bucketKey, "last_refill")
-                        .map(obj -> obj != null ? obj.toString() : String.valueOf(currentTimeSeconds))
-                        .defaultIfEmpty(String.valueOf(currentTimeSeconds))
-                )
-                .flatMap(tuple -> {
-                    double currentTokens = Double.parseDouble(tuple.getT1());
-                    long lastRefillTime = Long.parseLong(tuple.getT2());
-                    
-                    // Calculate tokens to add based on elapsed time
-                    long elapsedSeconds = currentTimeSeconds - lastRefillTime;
-                    double tokensToAdd = elapsedSeconds * refillRate;
-                    
-                    // Refill tokens (capped at capacity)
-                    double newTokens = Math.min(capacity, currentTokens + tokensToAdd);
-                    
-                    log.debug("Token Bucket - Key: {}, Current: {}, Elapsed: {}s, ToAdd: {}, New: {}, Capacity: {}", 
-                            bucketKey, currentTokens, elapsedSeconds, tokensToAdd, newTokens, capacity);
-                    
-                    // Try to consume 1 token
-                    if (newTokens >= 1.0) {
-                        // Token available - consume it
-                        double remainingTokens = newTokens - 1.0;
-                        
-                        return redisTemplate.opsForHash().put(bucketKey, "tokens", String.valueOf(remainingTokens))
-                                .then(redisTemplate.opsForHash().put(bucketKey, "last_refill", String.valueOf(currentTimeSeconds)))
-                                .then(redisTemplate.expire(bucketKey, java.time.Duration.ofHours(1))) // Auto-cleanup
-                                .thenReturn(true)
-                                .doOnSuccess(allowed -> 
-                                    log.debug("Token consumed - Key: {}, Remaining: {}", bucketKey, remainingTokens)
-                                );
-                    } else {
-                        // No tokens available - deny request
-                        log.debug("No tokens available - Key: {}, Tokens: {}", bucketKey, newTokens);
-                        
-                        // Update last refill time even on denial (prevent drift)
-                        return redisTemplate.opsForHash().put(bucketKey, "tokens", String.valueOf(newTokens))
-                                .then(redisTemplate.opsForHash().put(bucketKey, "last_refill", String.valueOf(currentTimeSeconds)))
-                                .then(redisTemplate.expire(bucketKey, java.time.Duration.ofHours(1)))
-                                .thenReturn(false);
-                    }
-                })
+    /**
+     * Return unused leased tokens. Best effort - a lost return only under-admits.
+     */
+    public Mono<Void> giveBack(Long apiKeyId, Long serviceRouteId,
+                               Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                               long tokens) {
+        RateLimitTiers buckets = buckets(apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay);
+        if (buckets.isEmpty() || tokens <= 0) {
+            return Mono.empty();
+        }
+        return redisTemplate.execute(TOKEN_RETURN_SCRIPT, buckets.keys(), buckets.argsWith(String.valueOf(tokens)))
+                .then()
                 .onErrorResume(e -> {
-                    log.error("Redis error for token bucket key: {}", bucketKey, e);
-                    return Mono.just(true); // Fail open - allow request on error
+                    log.warn("Failed to return {} leased tokens for keys: {} - {}", tokens, buckets.keys(), e.getMessage());
+                    return Mono.empty();
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Degraded mode or Redis error: 0 tokens, decision of the local fallback limiter
+     */
+    private Mono<TokenGrant> take(RateLimitTiers buckets, long needed, long wanted, Supplier<RateLimitDecision> fallback) {
+        if (localRateLimiter.isActive()) {
+            return Mono.fromSupplier(() -> new TokenGrant(0, fallback.get()));
+        }
+        List<String> args = buckets.argsWith(String.valueOf(needed), String.valueOf(wanted));
+
+        return scriptExecutor.execute(TOKEN_BUCKET_SCRIPT, buckets.keys(), args)
+                .map(result -> new TokenGrant(result.get(0), buckets.toDecision(result)))
+                .defaultIfEmpty(new TokenGrant(0, RateLimitDecision.ALLOWED))
+                .onErrorResume(e -> {
+                    log.error("Redis error for token bucket keys: {}", buckets.keys(), e);
+                    return Mono.just(new TokenGrant(0, fallback.get())); // Local limit (or fail open if disabled)
+                });
+    }
+
+    private static RateLimitTiers buckets(Long apiKeyId, Long serviceRouteId, Integer... capacities) {
+        return RateLimitTiers.of("rate:bucket", apiKeyId, serviceRouteId, capacities);
+    }
+}
@@ -0,0 +1,35 @@
+package com.nexusgate.gateway.redis;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Sliding Window Counter
+ *
+ * Algorithm Overview:
+ * - Counts requests in fixed, epoch-aligned windows (current and previous)
+ * - The rate over the last window is estimated as
+ *   previous count * (unelapsed share of the current window) + current count
+ * - A request is denied when the estimate would exceed the limit
+ *
+ * Compared to the token bucket:
+ * - Unlike a fixed window, a burst on both sides of a window boundary cannot double the rate
+ * - Approximate: assumes the previous window's requests were spread evenly
+ * - Integer counters only
+ *
+ * Redis Storage:
+ * - Hash per tier: rate:window:{apiKeyId:serviceRouteId}:{minute|hour|day}
+ *   fields start (window index), curr, prev
+ * - TTL: two windows
+ */
+@Service
+public class SlidingWindowRateLimiter extends LuaRateLimitStrategy {
+
+    public SlidingWindowRateLimiter(RateLimitScriptExecutor scriptExecutor, LocalRateLimiter localRateLimiter) {
+        super(scriptExecutor, localRateLimiter, "scripts/sliding_window.lua", "rate:window");
+    }
+
+    @Override
+    public RateLimitAlgorithm algorithm() {
+        return RateLimitAlgorithm.SLIDING_WINDOW;
+    }
+}
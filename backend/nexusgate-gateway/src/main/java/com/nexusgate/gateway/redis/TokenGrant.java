@@ -0,0 +1,9 @@
+package com.nexusgate.gateway.redis;
+
+/**
+ * Tokens taken from the shared bucket by one lease call.
+ *
+ * @param tokens    tokens charged in every tier (0 when denied or when Redis is unavailable)
+ * @param decision  outcome for the request that triggered the call
+ */
+public record TokenGrant(long tokens, RateLimitDecision decision) {}
@@ -0,0 +1,330 @@
+package com.nexusgate.gateway.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hybrid rate limiting: each gateway node leases a batch of tokens from the shared
+ * Redis bucket and spends them locally, so most requests never leave the node.
+ *
+ * Flow per API key/route:
+ *   - a request takes its cost from the local lease (CAS on a counter, no lock)
+ *   - at the low-water mark the lease is renewed in the background
+ *   - when the lease is empty the request waits for the renewal (one Redis call per
+ *     node, not per request); if Redis denies the renewal, the request is denied
+ *   - a lease that is not renewed expires, and its unused tokens are returned
+ *
+ * Accuracy: leased tokens are already charged in Redis, so the cluster never admits more
+ * than the bucket holds. Tokens parked on one node are unavailable to the others until
+ * spent or returned, and returned tokens can lift a bucket that refilled meanwhile (capped
+ * at capacity). Both effects are bounded by the lease size per node - a route's
+ * rateLimitLeasePercent trades that bound for fewer Redis calls.
+ *
+ * Metrics:
+ *   gateway.ratelimit.lease.requests{result=local|redis}
+ *   gateway.ratelimit.lease.returned    tokens given back to Redis
+ *   gateway.ratelimit.lease.active      leases held by this node
+ */
+@Slf4j
+@Component
+public class TokenLeaseManager {
+
+    private static final int MAX_RENEWAL_WAITS = 3;
+
+    private final RedisRateLimiterService redisRateLimiterService;
+    private final LocalRateLimiter localRateLimiter;
+    private final long leaseTtlNanos;
+    private final int lowWaterPercent;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter redisCalls;
+    private final Counter returnedTokens;
+
+    public TokenLeaseManager(
+            RedisRateLimiterService redisRateLimiterService,
+            LocalRateLimiter localRateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.lease.ttl-ms:5000}") long leaseTtlMs,
+            @Value("${gateway.rate-limit.lease.low-water-percent:25}") int lowWaterPercent) {
+        this.redisRateLimiterService = redisRateLimiterService;
+        this.localRateLimiter = localRateLimiter;
+        this.leaseTtlNanos = Duration.ofMillis(leaseTtlMs).toNanos();
+        this.lowWaterPercent = lowWaterPercent;
+
+        this.localHits = requests(meterRegistry, "local");
+        this.redisCalls = requests(meterRegistry, "redis");
+        this.returnedTokens = Counter.builder("gateway.ratelimit.lease.returned")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.lease.active", leases, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same contract as {@link RedisRateLimiterService#isAllowed}, served from a local lease.
+     * A lease percent of null or 0 (or a lease no bigger than the request's cost) checks Redis
+     * per request; in degraded mode (Redis unavailable) the local fallback limiter decides.
+     */
+    public Mono<RateLimitDecision> isAllowed(Long apiKeyId, Long serviceRouteId,
+                                             Integer requestsPerMinute, Integer requestsPerHour, Integer requestsPerDay,
+                                             Integer leasePercent, long cost) {
+        Limits limits = new Limits(apiKeyId, serviceRouteId, requestsPerMinute, requestsPerHour, requestsPerDay);
+        long leaseSize = leaseSize(limits, leasePercent);
+        if (leaseSize <= Math.max(1, cost) || localRateLimiter.isActive()) {
+            return redisRateLimiterService.isAllowed(apiKeyId, serviceRouteId,
+                    requestsPerMinute, requestsPerHour, requestsPerDay, cost);
+        }
+
+        Lease lease = currentLease(limits, leaseSize);
+        if (lease.tryTake(cost)) {
+            localHits.increment();
+            if (lease.belowLowWater()) {
+                lease.renew(1); // background - the call is already subscribed
+            }
+            return Mono.just(RateLimitDecision.ALLOWED);
+        }
+
+        return takeAfterRenewal(lease, cost, MAX_RENEWAL_WAITS);
+    }
+
+    /**
+     * Wait for the lease's renewal, then take the cost from it. A burst can spend a fresh
+     * grant before every waiter gets its tokens; those join the next renewal, and after a
+     * few rounds are checked against Redis individually.
+     */
+    private Mono<RateLimitDecision> takeAfterRenewal(Lease lease, long cost, int waitsLeft) {
+        Renewal renewal = lease.renew(cost);
+        return renewal.grant().flatMap(grant -> {
+            // No tokens: denied, or Redis unavailable (local fallback decision). A denial holds for
+            // any larger cost; an allowance for a smaller need (a renewal this request joined) does not
+            if (grant.tokens() == 0) {
+                return !grant.decision().allowed() || renewal.needed() >= cost
+                        ? Mono.just(grant.decision())
+                        : checkDirectly(lease, cost);
+            }
+            if (lease.tryTake(cost)) {
+                return Mono.just(grant.decision());
+            }
+            if (waitsLeft > 1) {
+                return takeAfterRenewal(lease, cost, waitsLeft - 1);
+            }
+            return checkDirectly(lease, cost);
+        });
+    }
+
+    private Mono<RateLimitDecision> checkDirectly(Lease lease, long cost) {
+        Limits limits = lease.limits;
+        return redisRateLimiterService.isAllowed(limits.apiKeyId(), limits.serviceRouteId(),
+                limits.perMinute(), limits.perHour(), limits.perDay(), cost);
+    }
+
+    /**
+     * Return the unused tokens of expired leases
+     */
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.lease.sweep-interval-ms:1000}")
+    public void expireLeases() {
+        long now = System.nanoTime();
+        leases.forEach((key, lease) -> {
+            if (lease.isExpired(now) && !lease.isRenewing()) {
+                release(key, lease).subscribe();
+            }
+        });
+    }
+
+    /**
+     * Give every leased token back before the node goes away
+     */
+    @PreDestroy
+    public void releaseAll() {
+        try {
+            Mono.when(leases.entrySet().stream()
+                            .map(entry -> release(entry.getKey(), entry.getValue()))
+                            .toList())
+                    .block(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.warn("Failed to return leased tokens on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private Lease currentLease(Limits limits, long leaseSize) {
+        String key = limits.apiKeyId() + ":" + limits.serviceRouteId();
+        Lease lease = leases.get(key);
+        if (lease != null && lease.limits.equals(limits) && !lease.isExpired(System.nanoTime())) {
+            return lease;
+        }
+        // Missing, expired, or the limits changed - start over with a fresh lease
+        if (lease != null) {
+            release(key, lease).subscribe();
+        }
+        return leases.computeIfAbsent(key, k -> new Lease(key, limits, leaseSize));
+    }
+
+    private Mono<Void> release(String key, Lease lease) {
+        if (!leases.remove(key, lease)) {
+            return Mono.empty();
+        }
+        return giveBack(lease, lease.drain());
+    }
+
+    private Mono<Void> giveBack(Lease lease, long unused) {
+        if (unused <= 0) {
+            return Mono.empty();
+        }
+        returnedTokens.increment(unused);
+        Limits limits = lease.limits;
+        log.debug("Returning {} leased tokens - ApiKeyId: {}, RouteId: {}",
+                unused, limits.apiKeyId(), limits.serviceRouteId());
+        return redisRateLimiterService.giveBack(limits.apiKeyId(), limits.serviceRouteId(),
+                limits.perMinute(), limits.perHour(), limits.perDay(), unused);
+    }
+
+    /**
+     * Lease percent of the tightest configured tier, at least one token
+     */
+    private static long leaseSize(Limits limits, Integer leasePercent) {
+        if (leasePercent == null || leasePercent <= 0) {
+            return 0;
+        }
+        long tightest = Long.MAX_VALUE;
+        for (Integer capacity : new Integer[]{limits.perMinute(), limits.perHour(), limits.perDay()}) {
+            if (capacity != null && capacity > 0) {
+                tightest = Math.min(tightest, capacity);
+            }
+        }
+        if (tightest == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(1, tightest * Math.min(leasePercent, 100) / 100);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.ratelimit.lease.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Limits(Long apiKeyId, Long serviceRouteId, Integer perMinute, Integer perHour, Integer perDay) {}
+
+    /**
+     * An in-flight lease call and the tokens it needs at least (the cost of the request that started it)
+     */
+    private record Renewal(long needed, Mono<TokenGrant> grant) {}
+
+    /**
+     * Tokens held by this node for one API key/route
+     */
+    private final class Lease {
+
+        private final String key;
+        private final Limits limits;
+        private final long size;
+        private final long lowWater;
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<Renewal> renewal = new AtomicReference<>();
+        private volatile long expiresAtNanos;
+
+        Lease(String key, Limits limits, long size) {
+            this.key = key;
+            this.limits = limits;
+            this.size = size;
+            this.lowWater = size * lowWaterPercent / 100;
+            this.expiresAtNanos = System.nanoTime() + leaseTtlNanos;
+        }
+
+        boolean tryTake(long cost) {
+            if (isExpired(System.nanoTime())) {
+                return false;
+            }
+            long current;
+            do {
+                current = tokens.get();
+                if (current < cost) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - cost));
+            return true;
+        }
+
+        boolean belowLowWater() {
+            return tokens.get() <= lowWater;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+
+        boolean isRenewing() {
+            return renewal.get() != null;
+        }
+
+        long drain() {
+            return tokens.getAndSet(0);
+        }
+
+        /**
+         * One Redis call per lease at a time; concurrent callers share its outcome.
+         * {@code needed} (the caller's cost) is what Redis - or the local fallback limiter
+         * when Redis is unavailable - must grant at least.
+         */
+        Renewal renew(long needed) {
+            Renewal started = null;
+            while (true) {
+                Renewal inFlight = renewal.get();
+                if (inFlight != null) {
+                    return inFlight;
+                }
+                if (started == null) {
+                    Mono<TokenGrant> call = redisRateLimiterService
+                            .lease(limits.apiKeyId(), limits.serviceRouteId(),
+                                    limits.perMinute(), limits.perHour(), limits.perDay(), Math.max(1, needed), size)
+                            .doOnNext(this::apply)
+                            .cache();
+                    started = new Renewal(Math.max(1, needed), call);
+                }
+                // Lost to another caller whose call may already be over by the re-read: only
+                // a registered renewal is returned, so try to register this one again
+                if (renewal.compareAndSet(null, started)) {
+                    break;
+                }
+            }
+            Renewal registered = started;
+            redisCalls.increment();
+            registered.grant().doFinally(signal -> renewal.compareAndSet(registered, null)).subscribe();
+            return registered;
+        }
+
+        /**
+         * Add a grant to the lease - or hand it straight back to Redis if the lease was
+         * released or replaced while the call was in flight (nobody would spend it)
+         */
+        private void apply(TokenGrant grant) {
+            if (grant.tokens() <= 0) {
+                return;
+            }
+            if (leases.get(key) != this) {
+                giveBack(this, grant.tokens()).subscribe();
+                return;
+            }
+            tokens.addAndGet(grant.tokens());
+            expiresAtNanos = System.nanoTime() + leaseTtlNanos;
+            if (leases.get(key) != this) {
+                // Released between the check and the add - its drain may have missed these
+                giveBack(this, drain()).subscribe();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.nexusgate.gateway.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram for percentile estimates (used for the hedge delay).
+ *
+ * Buckets grow geometrically (x1.25) from 1ms to ~70s, so estimates are within ~25%.
+ * Two alternating windows keep the estimate recent: samples older than two windows are dropped.
+ * Percentiles are recomputed at most once per second.
+ */
+public final class LatencyTracker {
+
+    private static final double GROWTH = 1.25;
+    private static final long[] UPPER_BOUNDS_NANOS = buildBounds();
+    private static final int BUCKETS = UPPER_BOUNDS_NANOS.length + 1;  // + overflow bucket
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final long RECOMPUTE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long windowNanos;
+    private final int minSamples;
+
+    // Two windows laid out in one array: [window 0 buckets | window 1 buckets]
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS * 2);
+    private final AtomicLongArray epochs = new AtomicLongArray(2);
+
+    private volatile long cachedP95Nanos = -1;
+    private volatile long cachedAtNanos = EMPTY;
+
+    public LatencyTracker(long windowMs, int minSamples) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, windowMs));
+        this.minSamples = minSamples;
+        epochs.set(0, EMPTY);
+        epochs.set(1, EMPTY);
+    }
+
+    public void record(long latencyNanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), windowNanos);
+        int slot = (int) (epoch & 1);
+        long slotEpoch = epochs.get(slot);
+        if (slotEpoch != epoch && epochs.compareAndSet(slot, slotEpoch, epoch)) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(slot * BUCKETS + i, 0);
+            }
+        }
+        counts.incrementAndGet(slot * BUCKETS + bucketOf(latencyNanos));
+    }
+
+    /**
+     * @return estimated 95th percentile, or -1 if there are not enough recent samples
+     */
+    public long p95Nanos() {
+        long now = System.nanoTime();
+        long cachedAt = cachedAtNanos;
+        if (cachedAt != EMPTY && now - cachedAt < RECOMPUTE_NANOS) {
+            return cachedP95Nanos;
+        }
+        long value = percentileNanos(0.95, now);
+        cachedP95Nanos = value;
+        cachedAtNanos = now;
+        return value;
+    }
+
+    private long percentileNanos(double quantile, long now) {
+        long epoch = Math.floorDiv(now, windowNanos);
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        for (int slot = 0; slot < 2; slot++) {
+            long slotEpoch = epochs.get(slot);
+            if (slotEpoch == EMPTY || epoch - slotEpoch > 1) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = counts.get(slot * BUCKETS + i);
+                merged[i] += c;
+                total += c;
+            }
+        }
+        if (total < minSamples) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        int last = UPPER_BOUNDS_NANOS.length - 1;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                // Overflow bucket reports the largest bound
+                return UPPER_BOUNDS_NANOS[Math.min(i, last)];
+            }
+        }
+        return UPPER_BOUNDS_NANOS[last];
+    }
+
+    private static int bucketOf(long latencyNanos) {
+        // Binary search over ~50 bounds
+        int lo = 0;
+        int hi = UPPER_BOUNDS_NANOS.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (latencyNanos <= UPPER_BOUNDS_NANOS[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    private static long[] buildBounds() {
+        long max = TimeUnit.SECONDS.toNanos(70);
+        int n = 0;
+        for (double b = TimeUnit.MILLISECONDS.toNanos(1); b <= max; b *= GROWTH) {
+            n++;
+        }
+        long[] bounds = new long[n];
+        double b = TimeUnit.MILLISECONDS.toNanos(1);
+        for (int i = 0; i < n; i++, b *= GROWTH) {
+            bounds[i] = (long) b;
+        }
+        return bounds;
+    }
+}
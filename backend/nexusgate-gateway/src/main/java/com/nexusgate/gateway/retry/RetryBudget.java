@@ -0,0 +1,91 @@
+package com.nexusgate.gateway.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket retry budget (lock-free).
+ *
+ * Every original request deposits depositRatio tokens; every retry or hedge withdraws
+ * one. On top of that the bucket refills at minPerSecond tokens per second so low-traffic
+ * routes can still retry. Extra attempts are therefore capped at roughly
+ * depositRatio x traffic + minPerSecond, however many requests fail - retries cannot
+ * multiply load on a backend that is already down.
+ *
+ * Balances are kept in milli-tokens to allow fractional deposits without floating point CAS.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final long minPerSecond;
+
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param depositRatio tokens deposited per request (0.2 → at most ~20% extra attempts)
+     * @param minPerSecond tokens added per second regardless of traffic
+     * @param maxTokens    bucket capacity
+     */
+    public RetryBudget(double depositRatio, double minPerSecond, double maxTokens) {
+        this.depositPerRequest = Math.round(depositRatio * SCALE);
+        this.minPerSecond = Math.round(minPerSecond * SCALE);
+        this.maxBalance = Math.round(maxTokens * SCALE);
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+
+    /**
+     * Called once per original (non-retry) request
+     */
+    public void onRequest() {
+        if (depositPerRequest > 0) {
+            deposit(depositPerRequest);
+        }
+    }
+
+    /**
+     * @return true if an extra attempt (retry or hedge) may be sent
+     */
+    public boolean tryWithdraw() {
+        refill();
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getAvailableTokens() {
+        return (double) balance.get() / SCALE;
+    }
+
+    private void refill() {
+        if (minPerSecond <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastRefillNanos.get();
+        long tokens = (now - last) * minPerSecond / 1_000_000_000L;
+        // Only the thread that advances the timestamp credits the tokens
+        if (tokens > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            deposit(tokens);
+        }
+    }
+
+    private void deposit(long amount) {
+        long current;
+        long next;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;  // full - skip the write
+            }
+            next = Math.min(maxBalance, current + amount);
+        } while (!balance.compareAndSet(current, next));
+    }
+}
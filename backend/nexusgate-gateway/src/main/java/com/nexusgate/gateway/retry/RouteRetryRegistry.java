@@ -0,0 +1,132 @@
+package com.nexusgate.gateway.retry;
+
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route retry budget and latency tracker, kept across route refreshes.
+ *
+ * Metrics:
+ *   gateway.retries{routeId}           retries sent after connect failures
+ *   gateway.hedges{routeId}            hedged attempts sent
+ *   gateway.retry.rejected{routeId}    retries/hedges denied by the retry budget
+ */
+@Component
+public class RouteRetryRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final double budgetRatio;
+    private final double budgetMinPerSecond;
+    private final double budgetMaxTokens;
+    private final int defaultMaxRetries;
+    private final Duration defaultHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final long latencyWindowMs;
+
+    private final Map<Long, RouteRetryState> states = new ConcurrentHashMap<>();
+
+    public RouteRetryRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.retry.budget.ratio:0.2}") double budgetRatio,
+            @Value("${gateway.retry.budget.min-per-second:5}") double budgetMinPerSecond,
+            @Value("${gateway.retry.budget.max-tokens:100}") double budgetMaxTokens,
+            @Value("${gateway.retry.max-retries:1}") int defaultMaxRetries,
+            @Value("${gateway.hedging.default-delay-ms:100}") long defaultHedgeDelayMs,
+            @Value("${gateway.hedging.min-delay-ms:5}") long minHedgeDelayMs,
+            @Value("${gateway.hedging.latency-window-ms:60000}") long latencyWindowMs) {
+        this.meterRegistry = meterRegistry;
+        this.budgetRatio = budgetRatio;
+        this.budgetMinPerSecond = budgetMinPerSecond;
+        this.budgetMaxTokens = budgetMaxTokens;
+        this.defaultMaxRetries = defaultMaxRetries;
+        this.defaultHedgeDelay = Duration.ofMillis(defaultHedgeDelayMs);
+        this.minHedgeDelay = Duration.ofMillis(minHedgeDelayMs);
+        this.latencyWindowMs = latencyWindowMs;
+    }
+
+    public RouteRetryState stateFor(CompiledRoute route) {
+        Long key = route.getId() != null ? route.getId() : -1L;
+        RouteRetryState state = states.get(key);
+        if (state != null) {
+            return state;
+        }
+        return states.computeIfAbsent(key, this::create);
+    }
+
+    public int maxRetries(CompiledRoute route) {
+        return route.getMaxRetries() != null ? Math.max(0, route.getMaxRetries()) : defaultMaxRetries;
+    }
+
+    /**
+     * Fixed route delay if configured, otherwise the route's observed p95
+     * (or the default until enough samples exist)
+     */
+    public Duration hedgeDelay(CompiledRoute route, RouteRetryState state) {
+        if (route.getHedgeDelay() != null) {
+            return route.getHedgeDelay();
+        }
+        long p95 = state.latency().p95Nanos();
+        if (p95 < 0) {
+            return defaultHedgeDelay;
+        }
+        long delayNanos = Math.max(p95, minHedgeDelay.toNanos());
+        return Duration.ofNanos(Math.min(delayNanos, route.getTimeout().toNanos()));
+    }
+
+    /**
+     * Drop state (and meters) of routes that no longer exist
+     */
+    public void retain(RouteSnapshot snapshot) {
+        Set<Long> live = new HashSet<>();
+        snapshot.routes().forEach(route -> live.add(route.getId() != null ? route.getId() : -1L));
+        states.entrySet().removeIf(e -> {
+            if (live.contains(e.getKey())) {
+                return false;
+            }
+            meterRegistry.remove(e.getValue().retries());
+            meterRegistry.remove(e.getValue().hedges());
+            meterRegistry.remove(e.getValue().rejected());
+            return true;
+        });
+    }
+
+    private RouteRetryState create(Long routeId) {
+        String routeTag = String.valueOf(routeId);
+        return new RouteRetryState(
+                new RetryBudget(budgetRatio, budgetMinPerSecond, budgetMaxTokens),
+                new LatencyTracker(latencyWindowMs, 20),
+                Counter.builder("gateway.retries").tag("routeId", routeTag).register(meterRegistry),
+                Counter.builder("gateway.hedges").tag("routeId", routeTag).register(meterRegistry),
+                Counter.builder("gateway.retry.rejected").tag("routeId", routeTag).register(meterRegistry)
+        );
+    }
+
+    public record RouteRetryState(
+            RetryBudget budget,
+            LatencyTracker latency,
+            Counter retries,
+            Counter hedges,
+            Counter rejected) {
+
+        /**
+         * Take a token for an extra attempt, counting denials
+         */
+        public boolean tryAcquireExtraAttempt() {
+            if (budget.tryWithdraw()) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.nexusgate.gateway.routing;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexusgate.gateway.dto.RouteTarget;
+import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.loadbalancer.EndpointStats;
+import com.nexusgate.gateway.loadbalancer.LoadBalancer;
+import com.nexusgate.gateway.loadbalancer.LoadBalancingStrategy;
+import com.nexusgate.gateway.loadbalancer.UpstreamTarget;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, precompiled view of a ServiceRoute.
+ *
+ * Everything the filters need per request (parsed custom headers, allowed-method
+ * bitmask, base path, upstream targets and load balancer, timeout, rate limit costs) is derived once when the route
+ * snapshot is built, so the hot path only reads final fields.
+ */
+@Slf4j
+@Getter
+public final class CompiledRoute {
+
+    public static final int DEFAULT_TIMEOUT_MS = 30000;
+
+    /** Highest rate limit cost - limits are ints, so no window holds more tokens than this */
+    public static final long MAX_RATE_LIMIT_COST = Integer.MAX_VALUE;
+
+    private static final int ANY_METHOD = -1;
+
+    private final ServiceRouteResponse route;
+    private final Long id;
+    private final String publicPath;
+
+    /** publicPath without the trailing "/**" - used to compute the forwarded path */
+    private final String basePath;
+
+    private final String targetUrl;
+
+    /** scheme://host:port of the primary target */
+    private final String targetOrigin;
+
+    /** All backend instances (just targetUrl when the route has no target list) */
+    private final List<UpstreamTarget> targets;
+    private final LoadBalancingStrategy loadBalancingStrategy;
+    private final LoadBalancer loadBalancer;
+
+    /** Active health probe path on each target origin, null if not configured */
+    private final String healthCheckPath;
+
+    /** Read-only headers parsed from the customHeaders JSON */
+    private final HttpHeaders customHeaders;
+
+    private final int allowedMethodMask;
+    private final Set<String> extraAllowedMethods;
+    private final String allowedMethodsDescription;
+
+    private final Duration timeout;
+
+    /** Zero-copy streaming proxy mode */
+    private final boolean streamingEnabled;
+
+    /** Per-route circuit breaker switch, null → gateway default */
+    private final Boolean circuitBreakerEnabled;
+
+    /** Hedged requests for GET/HEAD/OPTIONS */
+    private final boolean hedgingEnabled;
+
+    /** Fixed hedge delay, null → adaptive (route p95) */
+    private final Duration hedgeDelay;
+
+    /** Retries on connect failures, null → gateway default */
+    private final Integer maxRetries;
+
+    /** Gateway response cache for GET requests */
+    private final boolean cacheEnabled;
+
+    /** Freshness for responses without Cache-Control/Expires, null → not cached */
+    private final Duration cacheTtl;
+
+    /** One cache entry for all API keys (otherwise per key unless the backend says public / s-maxage) */
+    private final boolean cacheSharedAcrossApiKeys;
+
+    /** Single-flight for identical concurrent GET requests */
+    private final boolean coalescingEnabled;
+
+    /** Per-route coalescing limits, null → gateway defaults */
+    private final Integer coalescingMaxBytes;
+    private final Duration coalescingTimeout;
+
+    /** Rate limit tokens per request, per method (upper-case) and per started KiB of body */
+    private final long rateLimitCost;
+    private final Map<String, Long> rateLimitMethodCosts;
+    private final long rateLimitCostPerKb;
+
+    /** KiB charged for a body of unknown length (chunked upload), null → gateway default */
+    private final Integer rateLimitUnknownLengthKb;
+
+    private CompiledRoute(ServiceRouteResponse route, ObjectMapper objectMapper,
+                          Function<String, EndpointStats> statsLookup) {
+        this.route = route;
+        this.id = route.getId();
+        this.publicPath = route.getPublicPath();
+        this.basePath = computeBasePath(route.getPublicPath());
+
+        this.targets = compileTargets(route, statsLookup);
+        this.targetUrl = targets.get(0).getUrl();
+        this.targetOrigin = targets.get(0).getOrigin();
+        this.loadBalancingStrategy = LoadBalancingStrategy.from(route.getLoadBalancingStrategy());
+        this.loadBalancer = LoadBalancer.create(loadBalancingStrategy, targets);
+        this.healthCheckPath = normalizeHealthCheckPath(route.getHealthCheckPath());
+
+        this.customHeaders = HttpHeaders.readOnlyHttpHeaders(parseCustomHeaders(route, objectMapper));
+
+        List<String> allowedMethods = route.getAllowedMethods();
+        Set<String> extra = new HashSet<>();
+        int mask = 0;
+        if (allowedMethods == null || allowedMethods.isEmpty()) {
+            mask = ANY_METHOD;
+        } else {
+            for (String method : allowedMethods) {
+                if (method == null || method.isBlank()) {
+                    continue;
+                }
+                String normalized = method.trim().toUpperCase(Locale.ROOT);
+                int bit = methodBit(normalized);
+                if (bit != 0) {
+                    mask |= bit;
+                } else {
+                    extra.add(normalized);
+                }
+            }
+        }
+        this.allowedMethodMask = mask;
+        this.extraAllowedMethods = Set.copyOf(extra);
+        this.allowedMethodsDescription = allowedMethods != null ? String.join(", ", allowedMethods) : "";
+
+        int timeoutMs = route.getTimeoutMs() != null && route.getTimeoutMs() > 0
+                ? route.getTimeoutMs() : DEFAULT_TIMEOUT_MS;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.streamingEnabled = Boolean.TRUE.equals(route.getStreamingEnabled());
+        this.circuitBreakerEnabled = route.getCircuitBreakerEnabled();
+        this.hedgingEnabled = Boolean.TRUE.equals(route.getHedgingEnabled());
+        this.hedgeDelay = route.getHedgeDelayMs() != null && route.getHedgeDelayMs() > 0
+                ? Duration.ofMillis(route.getHedgeDelayMs()) : null;
+        this.maxRetries = route.getMaxRetries();
+        this.cacheEnabled = Boolean.TRUE.equals(route.getCacheEnabled());
+        this.cacheTtl = route.getCacheTtlSeconds() != null && route.getCacheTtlSeconds() > 0
+                ? Duration.ofSeconds(route.getCacheTtlSeconds()) : null;
+        this.cacheSharedAcrossApiKeys = Boolean.TRUE.equals(route.getCacheSharedAcrossApiKeys());
+        this.coalescingEnabled = Boolean.TRUE.equals(route.getCoalescingEnabled());
+        this.coalescingMaxBytes = route.getCoalescingMaxBytes() != null && route.getCoalescingMaxBytes() > 0
+                ? route.getCoalescingMaxBytes() : null;
+        this.coalescingTimeout = route.getCoalescingTimeoutMs() != null && route.getCoalescingTimeoutMs() > 0
+                ? Duration.ofMillis(route.getCoalescingTimeoutMs()) : null;
+
+        this.rateLimitCost = route.getRateLimitCost() != null && route.getRateLimitCost() > 0
+                ? route.getRateLimitCost() : 1;
+        Map<String, Long> methodCosts = new HashMap<>();
+        if (route.getRateLimitMethodCosts() != null) {
+            route.getRateLimitMethodCosts().forEach((method, cost) -> {
+                if (method != null && cost != null && cost > 0) {
+                    methodCosts.put(method.trim().toUpperCase(Locale.ROOT), cost.longValue());
+                }
+            });
+        }
+        this.rateLimitMethodCosts = Map.copyOf(methodCosts);
+        this.rateLimitCostPerKb = route.getRateLimitCostPerKb() != null && route.getRateLimitCostPerKb() > 0
+                ? route.getRateLimitCostPerKb() : 0;
+        this.rateLimitUnknownLengthKb = route.getRateLimitUnknownLengthKb() != null && route.getRateLimitUnknownLengthKb() >= 0
+                ? route.getRateLimitUnknownLengthKb() : null;
+    }
+
+    public static CompiledRoute compile(ServiceRouteResponse route, ObjectMapper objectMapper,
+                                        Function<String, EndpointStats> statsLookup) {
+        return new CompiledRoute(route, objectMapper, statsLookup);
+    }
+
+    /**
+     * Tokens a request takes from the rate limit: its method's cost (else the route's),
+     * plus the per-KiB cost for each started KiB of the body. A body whose length is not known
+     * up front (chunked / streamed, Content-Length missing) is charged as
+     * rateLimitUnknownLengthKb KiB (else {@code defaultUnknownLengthKb}) - streaming must
+     * not be a way around size-weighted limits. The total is capped at MAX_RATE_LIMIT_COST,
+     * so a huge declared Content-Length cannot overflow into a cheap request.
+     */
+    public long rateLimitCost(HttpMethod method, HttpHeaders headers, long defaultUnknownLengthKb) {
+        long cost = rateLimitCost;
+        if (method != null && !rateLimitMethodCosts.isEmpty()) {
+            cost = rateLimitMethodCosts.getOrDefault(method.name(), cost);
+        }
+        if (rateLimitCostPerKb > 0) {
+            long contentLength = headers.getContentLength();
+            if (contentLength > 0) {
+                long kib = contentLength / 1024 + (contentLength % 1024 != 0 ? 1 : 0);
+                cost = addPerKbCost(cost, kib);
+            } else if (contentLength < 0 && hasStreamedBody(method, headers)) {
+                cost = addPerKbCost(cost, rateLimitUnknownLengthKb != null
+                        ? rateLimitUnknownLengthKb : Math.max(0, defaultUnknownLengthKb));
+            }
+        }
+        return Math.min(cost, MAX_RATE_LIMIT_COST);
+    }
+
+    /**
+     * cost + rateLimitCostPerKb × kib, saturating at MAX_RATE_LIMIT_COST
+     */
+    private long addPerKbCost(long cost, long kib) {
+        if (kib > (MAX_RATE_LIMIT_COST - Math.min(cost, MAX_RATE_LIMIT_COST)) / rateLimitCostPerKb) {
+            return MAX_RATE_LIMIT_COST;
+        }
+        return cost + rateLimitCostPerKb * kib;
+    }
+
+    /**
+     * Body without a declared length: chunked transfer encoding, or a method that carries a
+     * body (HTTP/2 streams have no Transfer-Encoding)
+     */
+    private static boolean hasStreamedBody(HttpMethod method, HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.TRANSFER_ENCODING)
+                || method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH;
+    }
+
+    public boolean allowsAnyMethod() {
+        return allowedMethodMask == ANY_METHOD;
+    }
+
+    /**
+     * Bitmask check, case-insensitive by construction (methods are normalized at compile time)
+     */
+    public boolean isMethodAllowed(HttpMethod method) {
+        if (allowedMethodMask == ANY_METHOD) {
+            return true;
+        }
+        if (method == null) {
+            return false;
+        }
+        int bit = methodBit(method.name());
+        if (bit != 0) {
+            return (allowedMethodMask & bit) != 0;
+        }
+        return extraAllowedMethods.contains(method.name());
+    }
+
+    /**
+     * Extract the remaining path after the matched publicPath pattern.
+     * For example:
+     *   fullPath: /api/users/123
+     *   publicPath: /api/users/**
+     *   result: /123
+     *
+     * Returns an empty string if nothing remains (or only "/").
+     */
+    public String remainingPath(String fullPath) {
+        if (basePath == null || fullPath == null) {
+            return fullPath;
+        }
+
+        // If fullPath equals basePath exactly, no remaining path
+        if (fullPath.length() == basePath.length() && fullPath.equals(basePath)) {
+            return "";
+        }
+
+        // If fullPath starts with basePath, extract the remaining part
+        if (fullPath.startsWith(basePath)) {
+            String remaining = fullPath.substring(basePath.length());
+            if (remaining.equals("/")) {
+                return "";
+            }
+            // Ensure it starts with / if not empty
+            return remaining.isEmpty() || remaining.startsWith("/") ? remaining : "/" + remaining;
+        }
+
+        // Fallback: return full path
+        return fullPath;
+    }
+
+    static int methodBit(String method) {
+        switch (method) {
+            case "GET": return 1;
+            case "HEAD": return 1 << 1;
+            case "POST": return 1 << 2;
+            case "PUT": return 1 << 3;
+            case "PATCH": return 1 << 4;
+            case "DELETE": return 1 << 5;
+            case "OPTIONS": return 1 << 6;
+            case "TRACE": return 1 << 7;
+            default: return 0;
+        }
+    }
+
+    private static String computeBasePath(String publicPath) {
+        if (publicPath == null) {
+            return null;
+        }
+        // Remove /** wildcard suffix if present
+        return publicPath.endsWith("/**")
+                ? publicPath.substring(0, publicPath.length() - 3)
+                : publicPath;
+    }
+
+    private static String normalizeHealthCheckPath(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        String trimmed = path.trim();
+        return trimmed.startsWith("/") ? trimmed : "/" + trimmed;
+    }
+
+    private static List<UpstreamTarget> compileTargets(ServiceRouteResponse route,
+                                                       Function<String, EndpointStats> statsLookup) {
+        List<UpstreamTarget> targets = new ArrayList<>();
+        if (route.getTargets() != null) {
+            for (RouteTarget target : route.getTargets()) {
+                if (target != null && target.getUrl() != null && !target.getUrl().isBlank()) {
+                    targets.add(UpstreamTarget.of(target.getUrl(), target.getWeight(), statsLookup));
+                }
+            }
+        }
+        // No target list → single target from targetUrl (previous behaviour)
+        if (targets.isEmpty()) {
+            targets.add(UpstreamTarget.of(route.getTargetUrl(), 1, statsLookup));
+        }
+        return List.copyOf(targets);
+    }
+
+    private static HttpHeaders parseCustomHeaders(ServiceRouteResponse route, ObjectMapper objectMapper) {
+        HttpHeaders headers = new HttpHeaders();
+        if (route.getCustomHeaders() == null || route.getCustomHeaders().isBlank()) {
+            return headers;
+        }
+        try {
+            Map<String, String> customHeaders = objectMapper.readValue(
+                    route.getCustomHeaders(),
+                    new TypeReference<Map<String, String>>() {}
+            );
+            customHeaders.forEach(headers::add);
+        } catch (Exception e) {
+            log.error("Failed to parse custom headers for route {}", route.getId(), e);
+        }
+        return headers;
+    }
+}
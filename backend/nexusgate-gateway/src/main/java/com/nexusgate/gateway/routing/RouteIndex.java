@@ -0,0 +1,303 @@
+package com.nexusgate.gateway.routing;
+
+import com.nexusgate.gateway.util.PathMatcherUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled, immutable index of route patterns (segment trie).
+ *
+ * Supported segment types:
+ * - literal segments:   /api/users
+ * - single wildcard:    /api/users/* or /api/users/{id}  (exactly one segment)
+ * - trailing catch-all: /api/users/**                     (zero or more segments)
+ *
+ * Matching rule (deterministic, most specific wins):
+ * At every depth a literal segment is preferred over a single wildcard, and a
+ * single wildcard over a trailing catch-all. If two routes compile to the same
+ * pattern, the one registered first wins.
+ *
+ * Patterns the trie cannot express (partial wildcards such as "*.json", or "**" in
+ * the middle of a pattern) are kept in a small fallback list and matched with
+ * AntPathMatcher, only when the trie has no match.
+ *
+ * Lookups walk the path in place (no splitting, no substring) so a match is
+ * O(path length) and allocation-free.
+ */
+public final class RouteIndex<T> {
+
+    private static final RouteIndex<?> EMPTY = new RouteIndex<>(new Node<>(), List.of(), 0);
+
+    private final Node<T> root;
+    private final List<FallbackEntry<T>> fallback;
+    private final int size;
+
+    private RouteIndex(Node<T> root, List<FallbackEntry<T>> fallback, int size) {
+        this.root = root;
+        this.fallback = fallback;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RouteIndex<T> empty() {
+        return (RouteIndex<T>) EMPTY;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Number of patterns registered in this index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the most specific value registered for the given request path.
+     *
+     * @param path Request path, e.g. "/api/users/123"
+     * @return matched value or null if no pattern matches
+     */
+    public T match(String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        boolean trailingSlash = path.length() > 1 && path.charAt(path.length() - 1) == '/';
+        T value = match(root, path, 0, trailingSlash);
+        if (value != null || fallback.isEmpty()) {
+            return value;
+        }
+        for (FallbackEntry<T> entry : fallback) {
+            if (PathMatcherUtil.matches(entry.pattern(), path)) {
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    private static <T> T match(Node<T> node, String path, int pos, boolean trailingSlash) {
+        int length = path.length();
+        // Skip separators (also collapses "//")
+        while (pos < length && path.charAt(pos) == '/') {
+            pos++;
+        }
+
+        if (pos >= length) {
+            // Path exhausted - same semantics as AntPathMatcher
+            if (node.exact != null && !trailingSlash) {
+                return node.exact;
+            }
+            if (trailingSlash && node.wildcard != null && node.wildcard.exact != null) {
+                return node.wildcard.exact;
+            }
+            return node.catchAll;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+
+        // 1. Literal segment
+        Node<T> literal = node.findLiteral(path, pos, end);
+        if (literal != null) {
+            T value = match(literal, path, end, trailingSlash);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        // 2. Single-segment wildcard
+        if (node.wildcard != null) {
+            T value = match(node.wildcard, path, end, trailingSlash);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        // 3. Trailing catch-all consumes the rest of the path
+        return node.catchAll;
+    }
+
+    /**
+     * Mutable builder, used once per route refresh.
+     */
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+        private final List<FallbackEntry<T>> fallback = new ArrayList<>();
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Register a pattern. Returns false if the exact same pattern was already
+         * registered (the first registration is kept).
+         */
+        public boolean add(String pattern, T value) {
+            if (pattern == null || value == null) {
+                return false;
+            }
+            String[] segments = tokenize(pattern);
+            if (!isTrieCompatible(pattern, segments)) {
+                for (FallbackEntry<T> entry : fallback) {
+                    if (entry.pattern().equals(pattern)) {
+                        return false;
+                    }
+                }
+                fallback.add(new FallbackEntry<>(pattern, value));
+                size++;
+                return true;
+            }
+
+            Node<T> node = root;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.equals("**")) {
+                    // Only allowed as last segment (checked by isTrieCompatible)
+                    if (node.catchAll != null) {
+                        return false;
+                    }
+                    node.catchAll = value;
+                    size++;
+                    return true;
+                }
+                if (isSingleWildcard(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Node<>();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.literalChildren.computeIfAbsent(segment, s -> new Node<>());
+                }
+            }
+            if (node.exact != null) {
+                return false;
+            }
+            node.exact = value;
+            size++;
+            return true;
+        }
+
+        public RouteIndex<T> build() {
+            root.freeze();
+            return new RouteIndex<>(root, List.copyOf(fallback), size);
+        }
+
+        private static String[] tokenize(String pattern) {
+            return Arrays.stream(pattern.split("/"))
+                    .filter(s -> !s.isEmpty())
+                    .toArray(String[]::new);
+        }
+
+        private static boolean isTrieCompatible(String pattern, String[] segments) {
+            if (!pattern.startsWith("/")) {
+                return false;
+            }
+            // Trailing-slash patterns have special AntPathMatcher semantics
+            if (pattern.length() > 1 && pattern.endsWith("/")) {
+                return false;
+            }
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.equals("**")) {
+                    if (i != segments.length - 1) {
+                        return false;
+                    }
+                } else if (!isSingleWildcard(segment)
+                        && (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0
+                        || segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isSingleWildcard(String segment) {
+            if (segment.equals("*")) {
+                return true;
+            }
+            // "{id}" matches exactly one segment (no regex constraint)
+            return segment.length() > 2
+                    && segment.charAt(0) == '{'
+                    && segment.charAt(segment.length() - 1) == '}'
+                    && segment.indexOf(':') < 0
+                    && segment.indexOf('{', 1) < 0;
+        }
+    }
+
+    /**
+     * Trie node. Literal children are stored in a frozen open-addressing table so
+     * lookups can hash a region of the request path without creating substrings.
+     */
+    private static final class Node<T> {
+
+        private Map<String, Node<T>> literalChildren = new HashMap<>();
+        private String[] keys;
+        private Node<T>[] children;
+        private int mask;
+
+        private Node<T> wildcard;
+        private T exact;
+        private T catchAll;
+
+        @SuppressWarnings("unchecked")
+        private void freeze() {
+            if (literalChildren == null) {
+                return;
+            }
+            if (wildcard != null) {
+                wildcard.freeze();
+            }
+            if (literalChildren.isEmpty()) {
+                literalChildren = null;
+                return;
+            }
+            int capacity = Integer.highestOneBit(Math.max(2, literalChildren.size() * 2) - 1) << 1;
+            keys = new String[capacity];
+            children = (Node<T>[]) new Node[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, Node<T>> entry : literalChildren.entrySet()) {
+                String key = entry.getKey();
+                int slot = key.hashCode() & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                children[slot] = entry.getValue();
+                entry.getValue().freeze();
+            }
+            literalChildren = null;
+        }
+
+        private Node<T> findLiteral(String path, int start, int end) {
+            if (keys == null) {
+                return null;
+            }
+            // Same function as String.hashCode(), computed over [start, end)
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            int length = end - start;
+            int slot = hash & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private record FallbackEntry<T>(String pattern, T value) {}
+}
@@ -0,0 +1,17 @@
+package com.nexusgate.gateway.routing;
+
+import java.util.List;
+
+/**
+ * Immutable, versioned set of compiled routes plus their path index.
+ * Published through a single volatile reference so readers never observe a
+ * partially rebuilt route table.
+ */
+public record RouteSnapshot(long version, List<CompiledRoute> routes, RouteIndex<CompiledRoute> index, long createdAt) {
+
+    public static final RouteSnapshot EMPTY = new RouteSnapshot(0, List.of(), RouteIndex.empty(), 0);
+
+    public CompiledRoute match(String path) {
+        return index.match(path);
+    }
+}
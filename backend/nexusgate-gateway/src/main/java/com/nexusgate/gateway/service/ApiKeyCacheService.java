@@ -1,21 +1,57 @@
 package com.nexusgate.gateway.service;
 
+import com.nexusgate.gateway.apikey.ApiKeyHash;
+import com.nexusgate.gateway.apikey.ApiKeyTable;
+import com.nexusgate.gateway.apikey.HeapApiKeyTable;
+import com.nexusgate.gateway.apikey.NegativeKeyCache;
+import com.nexusgate.gateway.apikey.OffHeapApiKeyTable;
 import com.nexusgate.gateway.client.ApiKeyClient;
+import com.nexusgate.gateway.dto.ApiKeyChangesResponse;
 import com.nexusgate.gateway.dto.ApiKeyResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Caches API keys to avoid calling config-service on every request.
- * Refreshes cache every 60 seconds to pick up new/updated API keys.
+ *
+ * Keys live in an immutable, versioned snapshot published through one volatile
+ * reference, so a request never sees a half-built table. The cache asks config-service for
+ * the keys changed since its version (/api/keys/changes) and swaps in a copy with those
+ * changes applied: with the config watch on, whenever ConfigWatchService sees the API key
+ * version move; otherwise every few seconds ({@code gateway.api-keys.sync-interval-ms}).
+ * Either way a change also applies right away when config-service publishes it
+ * (ConfigChangeListener). A full reload happens only at
+ * startup and on a version gap (config-service is behind this snapshot, e.g. after a
+ * database restore); it pages through the key set by key id and adds each page to the new
+ * table as it arrives, so no response holds every key. On failure the current snapshot
+ * stays in use.
+ *
+ * Lookups go through an ApiKeyTable and return the key id, not a DTO:
+ * {@code gateway.api-keys.index=HEAP} keeps the key DTOs in a HashMap, OFF_HEAP keeps only
+ * a hash, id, active flag and expiry per key in an off-heap index (for millions of keys)
+ * and fetches DTOs from config-service when an admin listing needs them.
+ *
+ * Unknown keys (credential stuffing sends random ones) are turned away in front of the
+ * table: a Bloom filter of all valid keys, kept up to date with every refresh, rejects
+ * keys that were never valid, and a bounded negative cache
+ * ({@code gateway.api-keys.negative-cache.size} slots) remembers keys the table lookup
+ * confirmed unknown in the current snapshot.
+ *
+ * Metrics:
+ *   gateway.apikeys.cached        keys in the current snapshot
+ *   gateway.apikeys.index.bytes   off-heap memory of the current snapshot
+ *   gateway.apikeys.rejected{stage=bloom|negative_cache|lookup}   unknown keys, by where they were caught
  */
 @Slf4j
 @Service
@@ -23,104 +59,277 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class ApiKeyCacheService {
 
     private final ApiKeyClient apiKeyClient;
+    private final MeterRegistry meterRegistry;
 
-    // Cache: key = API key string, value = ApiKeyResponse
-    private final ConcurrentHashMap<String, ApiKeyResponse> apiKeyCache = new ConcurrentHashMap<>();
-    
-    // List of all cached API keys for admin purposes
-    private final List<ApiKeyResponse> allApiKeys = new CopyOnWriteArrayList<>();
+    // Current key table - replaced atomically on every applied change
+    private volatile ApiKeySnapshot snapshot = ApiKeySnapshot.EMPTY;
+    private volatile long lastSuccessfulSync = 0;
+    private long generation = 0;
+
+    @Value("${gateway.config-watch.enabled:true}")
+    private boolean configWatchEnabled;
+
+    // HEAP or OFF_HEAP
+    @Value("${gateway.api-keys.index:HEAP}")
+    private String indexMode;
+
+    @Value("${gateway.api-keys.negative-cache.size:65536}")
+    private int negativeCacheSize;
+
+    private NegativeKeyCache negativeCache;
+    private Counter rejectedByBloomFilter;
+    private Counter rejectedByNegativeCache;
+    private Counter rejectedByLookup;
+
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    // A change event arrived during a sync - run once more after it
+    private final AtomicBoolean resync = new AtomicBoolean();
 
     /**
-     * Initialize cache on startup
+     * Initialize cache on startup (ConfigWatchService triggers the first sync when the config watch is on)
      */
     @PostConstruct
     public void init() {
+        Gauge.builder("gateway.apikeys.cached", this, service -> service.snapshot.table().size())
+                .register(meterRegistry);
+        Gauge.builder("gateway.apikeys.index.bytes", this, service -> service.snapshot.table().offHeapBytes())
+                .register(meterRegistry);
+        negativeCache = new NegativeKeyCache(negativeCacheSize);
+        rejectedByBloomFilter = rejected("bloom");
+        rejectedByNegativeCache = rejected("negative_cache");
+        rejectedByLookup = rejected("lookup");
+        if (configWatchEnabled) {
+            return;
+        }
         log.info("Initializing API key cache...");
-        refreshCache();
+        syncKeys();
     }
 
     /**
-     * Refresh cache every 10 minutes
+     * Poll the change feed - only without the config watch
      */
-    @Scheduled(fixedDelay = 600000)
-    public void refreshCache() {
-        log.debug("Refreshing API key cache...");
-        
-        apiKeyClient.getAllApiKeys()
-                .collectList()
+    @Scheduled(fixedDelayString = "${gateway.api-keys.sync-interval-ms:5000}",
+            initialDelayString = "${gateway.api-keys.sync-interval-ms:5000}")
+    public void pollKeys() {
+        if (!configWatchEnabled) {
+            syncKeys();
+        }
+    }
+
+    /**
+     * Apply the changes since the current version (the full set until the first load)
+     */
+    public void syncKeys() {
+        if (!syncing.compareAndSet(false, true)) {
+            resync.set(true); // Previous sync still running - may have read before this change
+            return;
+        }
+        long sinceVersion = snapshot.version();
+        fetch(sinceVersion)
+                .doFinally(signal -> {
+                    syncing.set(false);
+                    if (resync.compareAndSet(true, false)) {
+                        syncKeys();
+                    }
+                })
                 .subscribe(
-                        apiKeys -> {
-                            // Clear old cache
-                            apiKeyCache.clear();
-                            allApiKeys.clear();
-                            
-                            // Rebuild cache
-                            apiKeys.forEach(apiKey -> {
-                                apiKeyCache.put(apiKey.getKeyValue(), apiKey);
-                                allApiKeys.add(apiKey);
-                            });
-                            
-                            log.info("API key cache refreshed successfully. Loaded {} active API keys", apiKeys.size());
+                        synced -> {
+                            lastSuccessfulSync = System.currentTimeMillis();
+                            if (synced.version() != sinceVersion) {
+                                log.debug("API key cache synced: version {} → {}, {} keys",
+                                        sinceVersion, synced.version(), synced.table().size());
+                            }
                         },
-                        error -> {
-                            log.error("Failed to refresh API key cache. Using existing cache. Error: {}", 
-                                    error.getMessage());
-                        }
+                        error -> log.error("Failed to sync API key cache. Using existing cache (version {}). Error: {}",
+                                snapshot.version(), error.getMessage())
                 );
     }
 
     /**
-     * Validate API key from cache (instant lookup, zero network calls)
-     * 
-     * @param apiKey The API key to validate
-     * @return Mono<ApiKeyResponse> if valid, Mono.error() if invalid
+     * Fetch and apply changes, following up while config-service has more pages.
+     * A delta that goes back in version is a gap - reload everything instead.
+     */
+    private Mono<ApiKeySnapshot> fetch(long sinceVersion) {
+        return apiKeyClient.getApiKeyChanges(sinceVersion)
+                .flatMap(changes -> {
+                    long version = changes.getVersion() != null ? changes.getVersion() : sinceVersion;
+                    if (Boolean.TRUE.equals(changes.getFull())) {
+                        return load(changes, version);
+                    }
+                    if (version < sinceVersion) {
+                        log.warn("⚠️ API key version gap (have {}, config-service at {}) - reloading all keys",
+                                sinceVersion, version);
+                        return fetch(ApiKeySnapshot.EMPTY.version());
+                    }
+                    ApiKeySnapshot applied = apply(changes, version);
+                    return Boolean.TRUE.equals(changes.getHasMore()) ? fetch(applied.version()) : Mono.just(applied);
+                });
+    }
+
+    /**
+     * Full load: add the pages of the key set to a new table one by one (each page is dropped
+     * once added), install it at the first page's version, then apply the changes made while
+     * the pages were fetched.
      */
-    public Mono<ApiKeyResponse> validateApiKey(String apiKey) {
-        if (apiKey == null || apiKey.trim().isEmpty()) {
-            return Mono.error(new IllegalArgumentException("API key is required"));
+    private Mono<ApiKeySnapshot> load(ApiKeyChangesResponse first, long version) {
+        long expectedKeys = first.getTotalKeys() != null
+                ? first.getTotalKeys()
+                : first.getKeys() != null ? first.getKeys().size() : 0;
+        ApiKeyTable.Builder builder = newTableBuilder(expectedKeys);
+        return addPages(builder, first)
+                .map(table -> install(version, table))
+                .flatMap(loaded -> fetch(loaded.version()));
+    }
+
+    private Mono<ApiKeyTable> addPages(ApiKeyTable.Builder builder, ApiKeyChangesResponse page) {
+        builder.add(page.getKeys() != null ? page.getKeys() : List.of());
+        if (Boolean.TRUE.equals(page.getHasMore()) && page.getNextAfterId() != null) {
+            return apiKeyClient.getApiKeyPage(page.getNextAfterId())
+                    .flatMap(next -> addPages(builder, next));
         }
+        return Mono.fromCallable(builder::build);
+    }
 
-        // Instant cache lookup - no network call!
-        ApiKeyResponse cached = apiKeyCache.get(apiKey);
-        
-        if (cached == null) {
-            log.warn("API key not found in cache: {}", maskApiKey(apiKey));
-            return Mono.error(new IllegalArgumentException("Invalid API key"));
+    /**
+     * Build the next snapshot from the current one and swap it in. Synchronized so two
+     * syncs can never publish out of order.
+     */
+    private synchronized ApiKeySnapshot apply(ApiKeyChangesResponse changes, long version) {
+        ApiKeySnapshot current = snapshot;
+        List<ApiKeyResponse> keys = changes.getKeys() != null ? changes.getKeys() : List.of();
+        if (keys.isEmpty() && version == current.version()) {
+            return current; // Nothing changed
         }
-        
-        log.debug("API key found in cache: {} -> ApiKeyId: {}", maskApiKey(apiKey), cached.getId());
-        return Mono.just(cached);
+        ApiKeySnapshot next = next(version, current.table().with(keys));
+        log.info("Applied {} API key changes (version {} → {})", keys.size(), current.version(), version);
+        snapshot = next;
+        return next;
     }
 
     /**
-     * Get all cached API keys (for admin/monitoring purposes)
+     * Swap in a fully loaded table
      */
-    public List<ApiKeyResponse> getAllCachedApiKeys() {
-        return List.copyOf(allApiKeys);
+    private synchronized ApiKeySnapshot install(long version, ApiKeyTable table) {
+        ApiKeySnapshot current = snapshot;
+        ApiKeySnapshot next = next(version, table);
+        if (current != ApiKeySnapshot.EMPTY) {
+            log.warn("⚠️ API key cache fully reloaded (version {} → {})", current.version(), version);
+        } else {
+            log.info("API key cache loaded. {} API keys at version {}", table.size(), version);
+        }
+        snapshot = next;
+        return next;
+    }
+
+    /**
+     * New snapshot with the next generation - callers hold the lock
+     */
+    private ApiKeySnapshot next(long version, ApiKeyTable table) {
+        return new ApiKeySnapshot(version, table, ++generation);
+    }
+
+    /**
+     * Builder of a complete key set for the configured index mode. The off-heap index is
+     * sized up front, with room for keys created while the pages are fetched.
+     */
+    private ApiKeyTable.Builder newTableBuilder(long expectedKeys) {
+        if (!"OFF_HEAP".equalsIgnoreCase(indexMode.trim())) {
+            return HeapApiKeyTable.builder();
+        }
+        long withHeadroom = expectedKeys + Math.max(1024, expectedKeys / 16);
+        return OffHeapApiKeyTable.builder((int) Math.min(Integer.MAX_VALUE, withHeadroom));
+    }
+
+    private Counter rejected(String stage) {
+        return Counter.builder("gateway.apikeys.rejected")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolve an API key from the cache (instant lookup, zero network calls, allocation-free with OFF_HEAP).
+     * Bloom filter, then negative cache, then the table.
+     *
+     * @return the key's id, or ApiKeyTable.UNKNOWN / INACTIVE / EXPIRED
+     */
+    public long resolveApiKeyId(String apiKey) {
+        ApiKeySnapshot current = snapshot;
+        long high = ApiKeyHash.high(apiKey);
+        long low = ApiKeyHash.low(apiKey, high);
+        if (!current.table().mightContain(high, low)) {
+            rejectedByBloomFilter.increment();
+            return ApiKeyTable.UNKNOWN;
+        }
+        if (negativeCache.contains(high, low, current.generation())) {
+            rejectedByNegativeCache.increment();
+            return ApiKeyTable.UNKNOWN;
+        }
+        long apiKeyId = current.table().resolve(apiKey, high, low, System.currentTimeMillis() / 1000);
+        if (apiKeyId == ApiKeyTable.UNKNOWN) {
+            // Tied to this snapshot - a key created by the next change is not rejected from here
+            negativeCache.put(high, low, current.generation());
+            rejectedByLookup.increment();
+        }
+        return apiKeyId;
+    }
+
+    /**
+     * Change feed version of the current snapshot (-1 until the first load)
+     */
+    public long currentVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * false until the first key set has been loaded
+     */
+    public boolean isLoaded() {
+        return snapshot != ApiKeySnapshot.EMPTY;
+    }
+
+    /**
+     * All API keys (for admin/monitoring purposes) - from the cache in HEAP mode,
+     * fetched from config-service in OFF_HEAP mode
+     */
+    public Mono<List<ApiKeyResponse>> getAllApiKeys() {
+        List<ApiKeyResponse> cached = snapshot.table().keys();
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return apiKeyClient.getApiKeyChanges(ApiKeySnapshot.EMPTY.version())
+                .expand(page -> Boolean.TRUE.equals(page.getHasMore()) && page.getNextAfterId() != null
+                        ? apiKeyClient.getApiKeyPage(page.getNextAfterId())
+                        : Mono.empty())
+                .flatMapIterable(page -> page.getKeys() != null ? page.getKeys() : List.<ApiKeyResponse>of())
+                .collectList();
     }
 
     /**
      * Get cache statistics
      */
     public CacheStats getCacheStats() {
+        ApiKeySnapshot current = snapshot;
         return new CacheStats(
-                apiKeyCache.size(),
-                allApiKeys.size()
+                current.table().size(),
+                current.table().size(),
+                current.version(),
+                lastSuccessfulSync,
+                current.table().offHeapBytes()
         );
     }
 
     /**
-     * Mask API key for logging (show first 8 chars, hide rest)
+     * Cache statistics for monitoring
      */
-    private String maskApiKey(String apiKey) {
-        if (apiKey == null || apiKey.length() < 8) {
-            return "***";
-        }
-        return apiKey.substring(0, 8) + "***";
-    }
+    public record CacheStats(int cachedKeys, int totalKeys, long version, long lastSyncTime, long offHeapBytes) {}
 
     /**
-     * Cache statistics for monitoring
+     * Immutable key table at one change feed version; the generation changes with every
+     * swap (negative cache entries only count for their own generation)
      */
-    public record CacheStats(int cachedKeys, int totalKeys) {}
+    private record ApiKeySnapshot(long version, ApiKeyTable table, long generation) {
+
+        // Not loaded yet - version -1 asks config-service for the full set
+        static final ApiKeySnapshot EMPTY = new ApiKeySnapshot(-1, HeapApiKeyTable.EMPTY, 0);
+    }
 }
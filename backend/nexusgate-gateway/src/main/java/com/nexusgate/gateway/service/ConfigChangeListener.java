@@ -0,0 +1,156 @@
+package com.nexusgate.gateway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies config changes pushed by config-service instead of waiting for the next poll.
+ *
+ * config-service writes every committed route, API key and rate limit change to an outbox
+ * and publishes it on {@code gateway.config-events.channel} as "{type}:{id}":
+ * - ROUTE       only that route is re-fetched and swapped into the route snapshot
+ * - API_KEY     API key delta sync (only keys changed since the cached version)
+ * - RATE_LIMIT  rate limit table reload (rules resolve across entries, so the table is rebuilt)
+ *
+ * Pub/sub does not buffer: changes published while this gateway was not subscribed are
+ * lost, so after every re-subscription all caches are refreshed once. The periodic polls
+ * stay in place as the fallback when Redis or config-service publishing is down.
+ *
+ * Metrics:
+ *   gateway.config.events{type=ROUTE|API_KEY|RATE_LIMIT|invalid}
+ */
+@Slf4j
+@Service
+public class ConfigChangeListener {
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final RouteCacheService routeCacheService;
+    private final ApiKeyCacheService apiKeyCacheService;
+    private final RateLimitCacheService rateLimitCacheService;
+    private final boolean enabled;
+    private final String channel;
+
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+    private ReactiveRedisMessageListenerContainer container;
+    private Disposable subscription;
+
+    private final Counter routeEvents;
+    private final Counter apiKeyEvents;
+    private final Counter rateLimitEvents;
+    private final Counter invalidEvents;
+
+    public ConfigChangeListener(
+            ReactiveRedisConnectionFactory connectionFactory,
+            RouteCacheService routeCacheService,
+            ApiKeyCacheService apiKeyCacheService,
+            RateLimitCacheService rateLimitCacheService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.config-events.enabled:true}") boolean enabled,
+            @Value("${gateway.config-events.channel:nexusgate:config-changes}") String channel) {
+        this.connectionFactory = connectionFactory;
+        this.routeCacheService = routeCacheService;
+        this.apiKeyCacheService = apiKeyCacheService;
+        this.rateLimitCacheService = rateLimitCacheService;
+        this.enabled = enabled;
+        this.channel = channel;
+
+        this.routeEvents = events(meterRegistry, "ROUTE");
+        this.apiKeyEvents = events(meterRegistry, "API_KEY");
+        this.rateLimitEvents = events(meterRegistry, "RATE_LIMIT");
+        this.invalidEvents = events(meterRegistry, "invalid");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        subscription = Mono.defer(() -> container.receiveLater(ChannelTopic.of(channel)))
+                .doOnNext(messages -> onSubscribed())
+                .flatMapMany(messages -> messages)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.debug("Config change subscription lost - retrying: {}",
+                                signal.failure().getMessage())))
+                .subscribe(message -> handle(message.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    private void onSubscribed() {
+        if (!subscribedBefore.compareAndSet(false, true)) {
+            // Changes published while unsubscribed are gone - catch up once
+            log.info("✓ Re-subscribed to config changes - refreshing all caches");
+            routeCacheService.refreshRoutes();
+            apiKeyCacheService.syncKeys();
+            rateLimitCacheService.refreshRateLimits();
+        } else {
+            log.info("✓ Subscribed to config changes on '{}'", channel);
+        }
+    }
+
+    private void handle(String message) {
+        int colon = message.indexOf(':');
+        Long id = colon > 0 ? parseId(message.substring(colon + 1)) : null;
+        if (id == null) {
+            invalidEvents.increment();
+            log.debug("Ignoring invalid config change event: {}", message);
+            return;
+        }
+        switch (message.substring(0, colon)) {
+            case "ROUTE" -> {
+                routeEvents.increment();
+                routeCacheService.refreshRoute(id);
+            }
+            case "API_KEY" -> {
+                apiKeyEvents.increment();
+                apiKeyCacheService.syncKeys();
+            }
+            case "RATE_LIMIT" -> {
+                rateLimitEvents.increment();
+                rateLimitCacheService.refreshRateLimits();
+            }
+            default -> {
+                invalidEvents.increment();
+                log.debug("Ignoring config change event of unknown type: {}", message);
+            }
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("gateway.config.events")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,151 @@
+package com.nexusgate.gateway.service;
+
+import com.nexusgate.gateway.client.ConfigSnapshotClient;
+import com.nexusgate.gateway.dto.ConfigSnapshotResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the route, API key and rate limit caches in sync through config-service's
+ * long-poll protocol instead of fixed-delay full fetches.
+ *
+ * - /config/watch?version= waits until the config version moves past the one this
+ *   gateway has (or config-service's watch timeout passes - then it just asks again)
+ * - When the API key version in the answer differs from the key cache's, the cache syncs
+ *   the key deltas from /api/keys/changes - keys are never part of the snapshot
+ * - On a new version /config/snapshot is fetched with If-None-Match; a 304 (same content,
+ *   e.g. only keys changed) costs no transfer, otherwise routes and limits are applied together
+ * - Idle gateways cost config-service one parked request each, no database reads
+ * - When config-service is unreachable the caches keep their state and the loop backs off
+ *
+ * {@code gateway.config-watch.enabled=false} switches the caches back to their own polls.
+ *
+ * Metrics:
+ *   gateway.config.snapshots{result=applied|not_modified}
+ */
+@Slf4j
+@Service
+public class ConfigWatchService {
+
+    private final ConfigSnapshotClient configSnapshotClient;
+    private final RouteCacheService routeCacheService;
+    private final ApiKeyCacheService apiKeyCacheService;
+    private final RateLimitCacheService rateLimitCacheService;
+    private final boolean enabled;
+    private final Duration watchTimeout;
+
+    // Only the watch loop writes these
+    private volatile long version = -1;
+    private volatile String etag;
+    private volatile boolean available = true;
+    private Disposable loop;
+
+    private final Counter applied;
+    private final Counter notModified;
+
+    public ConfigWatchService(
+            ConfigSnapshotClient configSnapshotClient,
+            RouteCacheService routeCacheService,
+            ApiKeyCacheService apiKeyCacheService,
+            RateLimitCacheService rateLimitCacheService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.config-watch.enabled:true}") boolean enabled,
+            @Value("${gateway.config-watch.timeout-ms:45000}") long watchTimeoutMs) {
+        this.configSnapshotClient = configSnapshotClient;
+        this.routeCacheService = routeCacheService;
+        this.apiKeyCacheService = apiKeyCacheService;
+        this.rateLimitCacheService = rateLimitCacheService;
+        this.enabled = enabled;
+        this.watchTimeout = Duration.ofMillis(watchTimeoutMs);
+
+        this.applied = snapshots(meterRegistry, "applied");
+        this.notModified = snapshots(meterRegistry, "not_modified");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Watching config-service for config changes...");
+        loop = Mono.defer(this::watchOnce)
+                .repeat()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> {
+                            if (available) {
+                                log.warn("⚠️ Config watch failed - keeping cached config: {}",
+                                        signal.failure().getMessage());
+                                available = false;
+                            }
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loop != null) {
+            loop.dispose();
+        }
+    }
+
+    /**
+     * One watch round: wait for a new version, then fetch and apply the snapshot
+     */
+    private Mono<Long> watchOnce() {
+        return configSnapshotClient.watch(version, watchTimeout)
+                .doOnNext(changed -> {
+                    Long apiKeyVersion = changed.getApiKeyVersion();
+                    if (apiKeyVersion == null || apiKeyVersion != apiKeyCacheService.currentVersion()) {
+                        apiKeyCacheService.syncKeys();
+                    }
+                })
+                .flatMap(changed -> configSnapshotClient.getSnapshot(etag)
+                        .map(this::apply)
+                        .switchIfEmpty(Mono.fromSupplier(() -> {
+                            notModified.increment();
+                            return changed.getVersion();
+                        })))
+                .defaultIfEmpty(version)
+                .doOnNext(current -> {
+                    version = current;
+                    if (!available) {
+                        log.info("✓ Config watch recovered (version {})", current);
+                        available = true;
+                    }
+                });
+    }
+
+    private long apply(ResponseEntity<ConfigSnapshotResponse> entity) {
+        ConfigSnapshotResponse snapshot = entity.getBody();
+        routeCacheService.applyRoutes(orEmpty(snapshot.getRoutes()));
+        rateLimitCacheService.applyRateLimits(orEmpty(snapshot.getRateLimits()));
+        etag = entity.getHeaders().getETag();
+        applied.increment();
+        log.debug("Config snapshot applied at version {} (ETag {})", snapshot.getVersion(), etag);
+        return snapshot.getVersion() != null ? snapshot.getVersion() : version;
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static Counter snapshots(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.config.snapshots")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,163 @@
+package com.nexusgate.gateway.service;
+
+import com.nexusgate.gateway.client.RateLimitClient;
+import com.nexusgate.gateway.dto.EffectiveRateLimitResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local table of effective rate limits, so the rate limit filter does not call
+ * config-service (/rate-limits/check) on every request.
+ *
+ * Loaded from config snapshots (ConfigWatchService), or without the config watch
+ * preloaded from /rate-limits/effective and refreshed on the same cadence as the route
+ * cache. Every refresh builds a new immutable table published through one volatile
+ * reference; on failure the previous table stays in use.
+ *
+ * Resolution order matches config-service:
+ * SPECIFIC (key + route) → DEFAULT (route) → GLOBAL (key) → SYSTEM.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitCacheService {
+
+    private final RateLimitClient rateLimitClient;
+
+    // Current table - replaced atomically on every refresh, null until the first successful load
+    private volatile RateLimitTable table;
+    private volatile long lastSuccessfulRefresh = 0;
+
+    @Value("${gateway.config-watch.enabled:true}")
+    private boolean configWatchEnabled;
+
+    /**
+     * Initialize cache on startup (ConfigWatchService loads it when the config watch is on)
+     */
+    @PostConstruct
+    public void init() {
+        if (configWatchEnabled) {
+            return;
+        }
+        log.info("Initializing rate limit cache...");
+        refreshRateLimits();
+    }
+
+    /**
+     * Refresh rate limits every 30 seconds (same cadence as routes) - only without the config watch
+     */
+    @Scheduled(fixedDelay = 30000, initialDelay = 5000)
+    public void pollRateLimits() {
+        if (!configWatchEnabled) {
+            refreshRateLimits();
+        }
+    }
+
+    /**
+     * Full reload from config-service
+     */
+    public void refreshRateLimits() {
+        rateLimitClient.getAllEffectiveRateLimits()
+                .collectList()
+                .subscribe(
+                        this::applyRateLimits,
+                        error -> {
+                            if (table == null) {
+                                log.warn("⚠️ Rate limit preload failed - falling back to per-request checks: {}",
+                                        error.getMessage());
+                            } else {
+                                log.warn("⚠️ Rate limit refresh failed - keeping existing table: {}", error.getMessage());
+                            }
+                        }
+                );
+    }
+
+    /**
+     * Replace the table with a complete set of rules (full reload or config snapshot)
+     */
+    public void applyRateLimits(List<EffectiveRateLimitResponse> limits) {
+        table = RateLimitTable.of(limits);
+        lastSuccessfulRefresh = System.currentTimeMillis();
+        log.debug("Rate limit cache refreshed: {} rules", limits.size());
+    }
+
+    /**
+     * Effective limit for an API key on a route.
+     * Hot path: map lookups only. Falls back to config-service until the table is loaded.
+     */
+    public Mono<EffectiveRateLimitResponse> getEffectiveRateLimit(Long apiKeyId, Long serviceRouteId) {
+        RateLimitTable current = table;
+        if (current == null) {
+            return rateLimitClient.checkRateLimit(apiKeyId, serviceRouteId);
+        }
+        return Mono.justOrEmpty(current.resolve(apiKeyId, serviceRouteId));
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     */
+    public CacheStats getCacheStats() {
+        RateLimitTable current = table;
+        return new CacheStats(current != null, current != null ? current.size() : 0, lastSuccessfulRefresh);
+    }
+
+    public record CacheStats(boolean initialized, int ruleCount, long lastRefreshTime) {}
+
+    /**
+     * Immutable lookup structure built once per refresh
+     */
+    private record RateLimitTable(
+            Map<Long, Map<Long, EffectiveRateLimitResponse>> specific,
+            Map<Long, EffectiveRateLimitResponse> routeDefaults,
+            Map<Long, EffectiveRateLimitResponse> keyGlobals,
+            EffectiveRateLimitResponse systemDefault,
+            int size) {
+
+        static RateLimitTable of(List<EffectiveRateLimitResponse> limits) {
+            Map<Long, Map<Long, EffectiveRateLimitResponse>> specific = new HashMap<>();
+            Map<Long, EffectiveRateLimitResponse> routeDefaults = new HashMap<>();
+            Map<Long, EffectiveRateLimitResponse> keyGlobals = new HashMap<>();
+            EffectiveRateLimitResponse systemDefault = null;
+
+            for (EffectiveRateLimitResponse limit : limits) {
+                Long apiKeyId = limit.getApiKeyId();
+                Long routeId = limit.getServiceRouteId();
+                if (apiKeyId != null && routeId != null) {
+                    specific.computeIfAbsent(apiKeyId, k -> new HashMap<>()).put(routeId, limit);
+                } else if (routeId != null) {
+                    routeDefaults.put(routeId, limit);
+                } else if (apiKeyId != null) {
+                    keyGlobals.put(apiKeyId, limit);
+                } else {
+                    systemDefault = limit;
+                }
+            }
+
+            Map<Long, Map<Long, EffectiveRateLimitResponse>> frozen = new HashMap<>();
+            specific.forEach((apiKeyId, byRoute) -> frozen.put(apiKeyId, Map.copyOf(byRoute)));
+            return new RateLimitTable(Map.copyOf(frozen), Map.copyOf(routeDefaults), Map.copyOf(keyGlobals),
+                    systemDefault, limits.size());
+        }
+
+        EffectiveRateLimitResponse resolve(Long apiKeyId, Long routeId) {
+            Map<Long, EffectiveRateLimitResponse> byRoute = specific.get(apiKeyId);
+            EffectiveRateLimitResponse limit = byRoute != null ? byRoute.get(routeId) : null;
+            if (limit == null) {
+                limit = routeDefaults.get(routeId);
+            }
+            if (limit == null) {
+                limit = keyGlobals.get(apiKeyId);
+            }
+            return limit != null ? limit : systemDefault;
+        }
+    }
+}
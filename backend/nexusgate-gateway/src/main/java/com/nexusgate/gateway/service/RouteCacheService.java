@@ -1,22 +1,37 @@
 package com.nexusgate.gateway.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexusgate.gateway.circuitbreaker.CircuitBreakerRegistry;
 import com.nexusgate.gateway.client.ServiceRouteClient;
+import com.nexusgate.gateway.client.UpstreamClientRegistry;
 import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.loadbalancer.EndpointStatsRegistry;
+import com.nexusgate.gateway.retry.RouteRetryRegistry;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteIndex;
+import com.nexusgate.gateway.routing.RouteSnapshot;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service to cache routes and refresh them periodically.
  * Prevents repeated calls to config-service on every request.
+ *
+ * Routes are compiled into an immutable, versioned RouteSnapshot which is
+ * published through a single volatile reference. A refresh never mutates the
+ * snapshot that in-flight requests are reading.
  */
 @Slf4j
 @Service
@@ -24,63 +39,62 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class RouteCacheService {
 
     private final ServiceRouteClient serviceRouteClient;
-    
-    // Thread-safe list for cached routes
-    private final List<ServiceRouteResponse> cachedRoutes = new CopyOnWriteArrayList<>();
-    
+    private final ObjectMapper objectMapper;
+    private final UpstreamClientRegistry upstreamClientRegistry;
+    private final EndpointStatsRegistry endpointStatsRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RouteRetryRegistry routeRetryRegistry;
+
+    // Current route table - replaced atomically on every refresh
+    private volatile RouteSnapshot snapshot = RouteSnapshot.EMPTY;
+
     private volatile boolean cacheInitialized = false;
     private volatile long lastSuccessfulRefresh = 0;
     private volatile boolean configServiceAvailable = true;
 
+    @Value("${gateway.config-watch.enabled:true}")
+    private boolean configWatchEnabled;
+
     /**
-     * Initialize cache on startup
+     * Initialize cache on startup (ConfigWatchService loads it when the config watch is on)
      */
     @PostConstruct
     public void init() {
+        if (configWatchEnabled) {
+            return;
+        }
         log.info("Initializing route cache...");
         refreshRoutes();
     }
 
     /**
-     * Refresh routes every 30 seconds (reduced noise)
+     * Refresh routes every 30 seconds (reduced noise) - only without the config watch
      */
     @Scheduled(fixedDelay = 30000, initialDelay = 5000)
+    public void pollRoutes() {
+        if (!configWatchEnabled) {
+            refreshRoutes();
+        }
+    }
+
+    /**
+     * Full reload from config-service
+     */
     public void refreshRoutes() {
-        
+
         serviceRouteClient.getAllActiveRoutes()
                 .collectList()
                 .subscribe(
-                        routes -> {
-                            boolean wasEmpty = cachedRoutes.isEmpty();
-                            boolean wasUnavailable = !configServiceAvailable;
-                            
-                            cachedRoutes.clear();
-                            cachedRoutes.addAll(routes);
-                            cacheInitialized = true;
-                            lastSuccessfulRefresh = System.currentTimeMillis();
-                            configServiceAvailable = !routes.isEmpty();
-                            
-                            if (routes.isEmpty() && !wasEmpty) {
-                                log.warn("⚠️ Route cache cleared - no active routes available");
-                            } else if (routes.isEmpty() && !wasUnavailable) {
-                                log.warn("⚠️ Config service unavailable - Gateway will return 404 for all requests");
-                            } else if (!routes.isEmpty() && wasUnavailable) {
-                                log.info("✓ Config service recovered! Loaded {} active routes", routes.size());
-                                routes.forEach(route -> 
-                                    log.debug("  → Route: {} → {}", route.getPublicPath(), route.getTargetUrl())
-                                );
-                            } else if (!routes.isEmpty()) {
-                                log.info("✓ Route cache refreshed: {} active routes", routes.size());
-                            }
-                        },
+                        this::applyRoutes,
                         error -> {
                             if (!cacheInitialized) {
                                 log.warn("⚠️ Initial cache load failed - Config service unavailable");
-                                cachedRoutes.clear();
+                                snapshot = RouteSnapshot.EMPTY;
                                 cacheInitialized = true;
                                 configServiceAvailable = false;
                             } else if (configServiceAvailable) {
-                                log.warn("⚠️ Config service became unavailable - Keeping {} existing routes", cachedRoutes.size());
+                                log.warn("⚠️ Config service became unavailable - Keeping {} existing routes",
+                                        snapshot.routes().size());
                                 configServiceAvailable = false;
                             }
                             // Silent after first failure - no need to spam logs every 30 seconds
@@ -88,6 +102,55 @@ public class RouteCacheService {
                 );
     }
 
+    /**
+     * Publish a complete set of active routes (full reload or config snapshot)
+     */
+    public void applyRoutes(List<ServiceRouteResponse> routes) {
+        boolean wasEmpty = snapshot.routes().isEmpty();
+        boolean wasUnavailable = !configServiceAvailable;
+
+        RouteSnapshot newSnapshot = publish(routes);
+        cacheInitialized = true;
+        lastSuccessfulRefresh = System.currentTimeMillis();
+        configServiceAvailable = !routes.isEmpty();
+
+        if (routes.isEmpty() && !wasEmpty) {
+            log.warn("⚠️ Route cache cleared - no active routes available");
+        } else if (routes.isEmpty() && !wasUnavailable) {
+            log.warn("⚠️ Config service unavailable - Gateway will return 404 for all requests");
+        } else if (!routes.isEmpty() && wasUnavailable) {
+            log.info("✓ Config service recovered! Loaded {} active routes", routes.size());
+            routes.forEach(route ->
+                log.debug("  → Route: {} → {}", route.getPublicPath(), route.getTargetUrl())
+            );
+        } else if (!routes.isEmpty()) {
+            log.info("✓ Route cache refreshed: {} active routes (version {})",
+                    routes.size(), newSnapshot.version());
+        }
+    }
+
+    /**
+     * Re-fetch one route after a config change event and publish a snapshot with just that
+     * route replaced (removed if deleted or inactive); the other routes keep their compiled
+     * form. Falls back to a full refresh if the route cannot be fetched.
+     */
+    public void refreshRoute(Long routeId) {
+        serviceRouteClient.getRoute(routeId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(
+                        route -> {
+                            RouteSnapshot newSnapshot = publishChange(routeId, route.orElse(null));
+                            log.info("✓ Route {} refreshed from change event (version {})",
+                                    routeId, newSnapshot.version());
+                        },
+                        error -> {
+                            log.debug("Failed to fetch changed route {} - full refresh: {}", routeId, error.getMessage());
+                            refreshRoutes();
+                        }
+                );
+    }
+
     /**
      * Get cached routes as Flux.
      * Returns immediately without calling config-service.
@@ -96,18 +159,99 @@ public class RouteCacheService {
         if (!cacheInitialized) {
             log.warn("Route cache not initialized yet. Returning empty list.");
         }
-        
+
         // Return cached routes without making external calls
-        return Flux.fromIterable(new ArrayList<>(cachedRoutes));
+        return Flux.fromIterable(snapshot.routes())
+                .map(CompiledRoute::getRoute);
+    }
+
+    /**
+     * Find the most specific active route for a request path.
+     * Hot path: single volatile read + index walk, no copying and no Reactor operators.
+     *
+     * @return matched route or null if no route matches
+     */
+    public CompiledRoute findRoute(String requestPath) {
+        return snapshot.match(requestPath);
+    }
+
+    /**
+     * Current immutable route snapshot
+     */
+    public RouteSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Build and publish a new snapshot. Synchronized so concurrent refreshes
+     * cannot publish out of order or reuse a version number.
+     * Per-route and per-upstream state (pools, endpoint stats, breakers, retry budgets)
+     * is reconciled against the new snapshot.
+     */
+    private synchronized RouteSnapshot publish(List<ServiceRouteResponse> routes) {
+        RouteSnapshot newSnapshot = buildSnapshot(routes, snapshot.version() + 1);
+        snapshot = newSnapshot;
+        upstreamClientRegistry.reconcile(newSnapshot);
+        endpointStatsRegistry.retain(newSnapshot);
+        circuitBreakerRegistry.retain(newSnapshot);
+        routeRetryRegistry.retain(newSnapshot);
+        return newSnapshot;
+    }
+
+    /**
+     * Publish the current routes with one route replaced (null → removed)
+     */
+    private synchronized RouteSnapshot publishChange(Long routeId, ServiceRouteResponse changed) {
+        List<ServiceRouteResponse> routes = new ArrayList<>(snapshot.routes().size() + 1);
+        for (CompiledRoute compiledRoute : snapshot.routes()) {
+            if (!compiledRoute.getRoute().getId().equals(routeId)) {
+                routes.add(compiledRoute.getRoute());
+            }
+        }
+        if (changed != null) {
+            routes.add(changed);
+        }
+        return publish(routes);
+    }
+
+    /**
+     * Compile active routes and index them by path (literal > * > /**).
+     * A route passed in as the same instance the current snapshot was compiled from
+     * (single-route refresh) keeps its compiled form.
+     */
+    private RouteSnapshot buildSnapshot(List<ServiceRouteResponse> routes, long version) {
+        Map<ServiceRouteResponse, CompiledRoute> current = new IdentityHashMap<>();
+        for (CompiledRoute compiledRoute : snapshot.routes()) {
+            current.put(compiledRoute.getRoute(), compiledRoute);
+        }
+        List<CompiledRoute> compiledRoutes = new ArrayList<>(routes.size());
+        RouteIndex.Builder<CompiledRoute> builder = RouteIndex.builder();
+        for (ServiceRouteResponse route : routes) {
+            if (route.getIsActive() == null || !route.getIsActive()) {
+                continue;
+            }
+            CompiledRoute compiledRoute = current.get(route);
+            if (compiledRoute == null) {
+                compiledRoute = CompiledRoute.compile(route, objectMapper, endpointStatsRegistry::statsFor);
+            }
+            compiledRoutes.add(compiledRoute);
+            if (!builder.add(route.getPublicPath(), compiledRoute)) {
+                log.warn("Duplicate or invalid route pattern '{}' (RouteId: {}) - ignored",
+                        route.getPublicPath(), route.getId());
+            }
+        }
+        return new RouteSnapshot(version, List.copyOf(compiledRoutes), builder.build(), System.currentTimeMillis());
     }
 
     /**
      * Get cache statistics for monitoring
      */
     public CacheStats getCacheStats() {
+        RouteSnapshot current = snapshot;
         return new CacheStats(
                 cacheInitialized,
-                cachedRoutes.size(),
+                current.routes().size(),
+                current.version(),
                 lastSuccessfulRefresh,
                 System.currentTimeMillis() - lastSuccessfulRefresh
         );
@@ -117,12 +261,14 @@ public class RouteCacheService {
     public static class CacheStats {
         private final boolean initialized;
         private final int routeCount;
+        private final long version;
         private final long lastRefreshTime;
         private final long timeSinceLastRefresh;
 
-        public CacheStats(boolean initialized, int routeCount, long lastRefreshTime, long timeSinceLastRefresh) {
+        public CacheStats(boolean initialized, int routeCount, long version, long lastRefreshTime, long timeSinceLastRefresh) {
             this.initialized = initialized;
             this.routeCount = routeCount;
+            this.version = version;
             this.lastRefreshTime = lastRefreshTime;
             this.timeSinceLastRefresh = timeSinceLastRefresh;
         }
@@ -0,0 +1,100 @@
+package com.nexusgate.gateway.service;
+
+import com.nexusgate.gateway.client.UpstreamClientRegistry;
+import com.nexusgate.gateway.loadbalancer.EndpointStats;
+import com.nexusgate.gateway.loadbalancer.EndpointStatsRegistry;
+import com.nexusgate.gateway.loadbalancer.UpstreamTarget;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Active health checks for route targets.
+ *
+ * Every interval, each distinct (origin, healthCheckPath) pair of the current route
+ * snapshot is probed with a GET through the origin's pooled client. Any 2xx response
+ * counts as healthy; other statuses, errors and timeouts count as unhealthy.
+ * Results feed EndpointStats, which the load balancers consult on every pick.
+ */
+@Slf4j
+@Service
+public class UpstreamHealthCheckService {
+
+    private final RouteCacheService routeCacheService;
+    private final UpstreamClientRegistry upstreamClientRegistry;
+    private final EndpointStatsRegistry endpointStatsRegistry;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public UpstreamHealthCheckService(
+            RouteCacheService routeCacheService,
+            UpstreamClientRegistry upstreamClientRegistry,
+            EndpointStatsRegistry endpointStatsRegistry,
+            @Value("${gateway.health.active.enabled:true}") boolean enabled,
+            @Value("${gateway.health.active.timeout-ms:2000}") long timeoutMs) {
+        this.routeCacheService = routeCacheService;
+        this.upstreamClientRegistry = upstreamClientRegistry;
+        this.endpointStatsRegistry = endpointStatsRegistry;
+        this.enabled = enabled;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.health.active.interval-ms:10000}",
+               initialDelayString = "${gateway.health.active.interval-ms:10000}")
+    public void probeTargets() {
+        if (!enabled) {
+            return;
+        }
+
+        // One probe per origin + path, even if several routes share a backend
+        Map<String, Probe> probes = new LinkedHashMap<>();
+        for (CompiledRoute route : routeCacheService.getSnapshot().routes()) {
+            if (route.getHealthCheckPath() == null) {
+                continue;
+            }
+            for (UpstreamTarget target : route.getTargets()) {
+                if (target.getOrigin() != null) {
+                    String url = target.getOrigin() + route.getHealthCheckPath();
+                    probes.putIfAbsent(url, new Probe(url, target, route));
+                }
+            }
+        }
+
+        // Origins nobody probes anymore must not stay marked down
+        Set<String> probedKeys = new HashSet<>();
+        probes.values().forEach(probe -> probedKeys.add(probe.target().getStats().getKey()));
+        endpointStatsRegistry.getStats().forEach((key, stats) -> {
+            if (!probedKeys.contains(key)) {
+                stats.clearProbeState();
+            }
+        });
+
+        probes.values().forEach(this::probe);
+    }
+
+    private void probe(Probe probe) {
+        EndpointStats stats = probe.target().getStats();
+        upstreamClientRegistry.clientFor(probe.target().getOrigin(), probe.route().getRoute())
+                .webClient()
+                .get()
+                .uri(probe.url())
+                .exchangeToMono(response -> Mono.just(response.statusCode().is2xxSuccessful()))
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.debug("Health probe failed - Url: {}, Error: {}", probe.url(), e.getMessage());
+                    return Mono.just(false);
+                })
+                .subscribe(stats::recordProbe);
+    }
+
+    private record Probe(String url, UpstreamTarget target, CompiledRoute route) {}
+}
@@ -0,0 +1,270 @@
+package com.nexusgate.gateway.shaping;
+
+import com.nexusgate.gateway.redis.RateLimitDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Traffic shaping for routes with rateLimitShapingMaxDelayMs: a request over its limit
+ * waits for a departure slot instead of getting 429 right away.
+ *
+ * - Slots per API key/route are handed out FIFO, one emission interval apart
+ *   (window / limit of the tier that denied), starting at the denial's retry-after -
+ *   a burst leaves as a steady stream instead of waking up all at once
+ * - At its slot the request is checked against the rate limiter again; if another node
+ *   took the token, it gets the next slot
+ * - A request whose slot lies beyond its maximum delay, or that finds its key's queue
+ *   full ({@code max-queue-per-key}), is rejected with the last denial
+ * - Waiting is a timeout on one shared HashedWheelTimer - no thread or Mono.delay per
+ *   request, nothing blocks an event loop; a cancelled request leaves the queue and gives
+ *   its slot back to the next request that fits it
+ * - The re-check and the decision are handed to the parallel scheduler, so neither the
+ *   rate limiter call nor the rest of the filter chain runs on the timer thread
+ *
+ * Metrics:
+ *   gateway.ratelimit.shaping.waiting                    requests queued now
+ *   gateway.ratelimit.shaping.requests{result=passed|rejected}
+ */
+@Slf4j
+@Component
+public class TrafficShaper {
+
+    private final HashedWheelTimer timer;
+    private final int maxQueuePerKey;
+
+    private final Map<String, KeyQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter passed;
+    private final Counter rejected;
+
+    public TrafficShaper(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.shaping.tick-ms:5}") long tickMs,
+            @Value("${gateway.rate-limit.shaping.max-queue-per-key:10000}") int maxQueuePerKey) {
+        this.timer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-shaping-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, Math.max(1, tickMs), TimeUnit.MILLISECONDS, 512);
+        this.maxQueuePerKey = Math.max(1, maxQueuePerKey);
+
+        Gauge.builder("gateway.ratelimit.shaping.waiting", waiting, AtomicInteger::get)
+                .register(meterRegistry);
+        this.passed = requests(meterRegistry, "passed");
+        this.rejected = requests(meterRegistry, "rejected");
+    }
+
+    /**
+     * Delay a denied request until it passes a re-check, for at most {@code maxDelayMs}.
+     *
+     * @param key         API key/route the queue belongs to
+     * @param intervalMs  spacing between departures (window / limit of the denying tier)
+     * @param denied      the decision that denied the request
+     * @param recheck     charges the rate limiter again at the request's slot
+     * @return the allowed decision, or the last denial once the wait would exceed the maximum
+     */
+    public Mono<RateLimitDecision> shape(String key, long intervalMs, long maxDelayMs,
+                                         RateLimitDecision denied, Supplier<Mono<RateLimitDecision>> recheck) {
+        return Mono.<RateLimitDecision>create(sink -> {
+            // Counted inside compute - evictIdleQueues removes a queue under the same lock only
+            // while nobody waits, so a key never ends up with two queues
+            int[] position = new int[1];
+            KeyQueue queue = queues.compute(key, (k, existing) -> {
+                KeyQueue joined = existing != null ? existing : new KeyQueue();
+                position[0] = joined.waiting.incrementAndGet();
+                return joined;
+            });
+            if (position[0] > maxQueuePerKey) {
+                queue.waiting.decrementAndGet();
+                rejected.increment();
+                sink.success(denied);
+                return;
+            }
+            waiting.incrementAndGet();
+            Waiter waiter = new Waiter(queue, sink, recheck,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs),
+                    TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMs)));
+            sink.onCancel(waiter::cancel);
+            waiter.schedule(denied);
+        }).publishOn(Schedulers.parallel());
+    }
+
+    /**
+     * Drop queues that are empty and whose last slot has passed (atomically with shape's compute)
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void evictIdleQueues() {
+        long now = System.nanoTime();
+        for (String key : queues.keySet()) {
+            queues.computeIfPresent(key, (k, queue) ->
+                    queue.waiting.get() == 0 && queue.nextSlotNanos.get() - now < 0 ? null : queue);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.stop();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.ratelimit.shaping.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Departure slots of one API key/route
+     */
+    private static final class KeyQueue {
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+        // Slots of cancelled requests, before nextSlotNanos
+        private final ConcurrentSkipListSet<Long> freedSlots = new ConcurrentSkipListSet<>();
+
+        /**
+         * Take the earliest slot given back at or after {@code earliest}, else the next free one;
+         * the one after it is {@code interval} later. Nothing is taken if the slot lies after
+         * {@code deadline}.
+         *
+         * @return the slot, or null if it would miss the deadline
+         */
+        Long reserve(long earliest, long interval, long deadline) {
+            if (!freedSlots.isEmpty()) {
+                freedSlots.headSet(System.nanoTime()).clear(); // Passed unused
+                for (Long freed = freedSlots.ceiling(earliest); freed != null && freed - deadline <= 0;
+                     freed = freedSlots.ceiling(earliest)) {
+                    if (freedSlots.remove(freed)) {
+                        return freed;
+                    }
+                }
+            }
+            while (true) {
+                long next = nextSlotNanos.get();
+                long slot = next - earliest > 0 ? next : earliest;
+                if (slot - deadline > 0) {
+                    return null;
+                }
+                if (nextSlotNanos.compareAndSet(next, slot + interval)) {
+                    return slot;
+                }
+            }
+        }
+
+        /**
+         * Give back a slot that will not be used: the last one moves the next free slot back,
+         * any other is left for reserve to hand out again
+         */
+        void giveBack(long slot, long interval) {
+            if (!nextSlotNanos.compareAndSet(slot + interval, slot)) {
+                freedSlots.add(slot);
+            }
+        }
+    }
+
+    /**
+     * One queued request
+     */
+    private final class Waiter {
+
+        private final KeyQueue queue;
+        private final MonoSink<RateLimitDecision> sink;
+        private final Supplier<Mono<RateLimitDecision>> recheck;
+        private final long deadlineNanos;
+        private final long intervalNanos;
+        private final AtomicReference<Reservation> reservation = new AtomicReference<>();
+        private final AtomicInteger done = new AtomicInteger();
+
+        Waiter(KeyQueue queue, MonoSink<RateLimitDecision> sink, Supplier<Mono<RateLimitDecision>> recheck,
+               long deadlineNanos, long intervalNanos) {
+            this.queue = queue;
+            this.sink = sink;
+            this.recheck = recheck;
+            this.deadlineNanos = deadlineNanos;
+            this.intervalNanos = intervalNanos;
+        }
+
+        void schedule(RateLimitDecision denied) {
+            long now = System.nanoTime();
+            Long slot = queue.reserve(now + TimeUnit.MILLISECONDS.toNanos(denied.retryAfterMs()),
+                    intervalNanos, deadlineNanos);
+            if (slot == null) {
+                finish(denied);
+                return;
+            }
+            Timeout timeout = timer.newTimeout(t -> Schedulers.parallel().schedule(this::depart),
+                    Math.max(0, slot - now), TimeUnit.NANOSECONDS);
+            reservation.set(new Reservation(timeout, slot));
+            // Cancelled before the reservation was visible to cancel()
+            if (done.get() != 0 && timeout.cancel()) {
+                queue.giveBack(slot, intervalNanos);
+            }
+        }
+
+        private void depart() {
+            if (done.get() != 0) {
+                return;
+            }
+            Mono.defer(recheck)
+                    .defaultIfEmpty(RateLimitDecision.ALLOWED)
+                    .subscribe(decision -> {
+                        if (decision.allowed()) {
+                            finish(decision);
+                        } else {
+                            schedule(decision);
+                        }
+                    }, error -> {
+                        log.warn("Rate limit re-check failed for shaped request: {}", error.getMessage());
+                        finish(RateLimitDecision.ALLOWED); // Same as the rate limiters: fail open
+                    });
+        }
+
+        private void finish(RateLimitDecision decision) {
+            if (release()) {
+                (decision.allowed() ? passed : rejected).increment();
+                sink.success(decision);
+            }
+        }
+
+        void cancel() {
+            if (release()) {
+                // A slot whose timer has not fired yet is unused - the next request may take it
+                Reservation pending = reservation.get();
+                if (pending != null && pending.timeout().cancel()) {
+                    queue.giveBack(pending.slot(), intervalNanos);
+                }
+            }
+        }
+
+        private boolean release() {
+            if (!done.compareAndSet(0, 1)) {
+                return false;
+            }
+            queue.waiting.decrementAndGet();
+            waiting.decrementAndGet();
+            return true;
+        }
+    }
+
+    private record Reservation(Timeout timeout, long slot) {}
+}
@@ -0,0 +1,65 @@
+-- Atomic multi-tier GCRA (Generic Cell Rate Algorithm) check.
+--
+-- KEYS[i]         theoretical arrival time (TAT) of tier i, epoch millis as a plain string
+-- ARGV[2i - 1]    capacity of tier i (requests per window)
+-- ARGV[2i]        window of tier i in milliseconds
+-- ARGV[#ARGV]     tokens to charge (the request's cost, 1 for a plain request)
+--
+-- Each request pushes the TAT forward by cost emission intervals (window / capacity).
+-- A request passes while its new TAT is at most one window ahead of now, which allows
+-- a burst of the full capacity and then the steady rate - the same admission as the
+-- token bucket, with one timestamp per key instead of tokens + last refill.
+--
+-- Either every tier passes and all are charged, or nothing is charged.
+-- The clock is Redis TIME, so all gateway nodes share one time source.
+--
+-- Returns { allowed (1/0), first denying tier (0 if allowed),
+--           requests left in the tightest tier, ms until the request would pass (0 if allowed) }
+
+-- Redis < 5: TIME is non-deterministic, replicate the writes instead of the script
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + tonumber(time[2]) / 1000
+local cost = tonumber(ARGV[#ARGV])
+
+local new_tats = {}
+local denied = 0
+local retry_after = 0
+local remaining = -1
+
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[2 * i - 1])
+    local window = tonumber(ARGV[2 * i])
+    local interval = window / capacity
+    local tat = math.max(tonumber(redis.call('GET', KEYS[i])) or now, now)
+
+    new_tats[i] = tat + cost * interval
+    local allow_at = new_tats[i] - window
+
+    local left
+    if now < allow_at then
+        if denied == 0 then
+            denied = i
+        end
+        retry_after = math.max(retry_after, math.ceil(allow_at - now))
+        left = math.max(0, math.floor((window - (tat - now)) / interval))
+    else
+        left = math.floor((now - allow_at) / interval)
+    end
+    if remaining < 0 or left < remaining then
+        remaining = left
+    end
+end
+
+if denied == 0 then
+    for i = 1, #KEYS do
+        -- The key expires when the TAT is reached - an idle key is the same as no key
+        redis.call('SET', KEYS[i], string.format('%.3f', new_tats[i]),
+                'PX', math.max(1, math.ceil(new_tats[i] - now)))
+    end
+end
+
+return { denied == 0 and 1 or 0, denied, remaining, retry_after }
@@ -0,0 +1,88 @@
+-- Atomic multi-tier sliding window counter check.
+--
+-- KEYS[i]         counter hash of tier i (fields: start, curr, prev)
+-- ARGV[2i - 1]    capacity of tier i (requests per window)
+-- ARGV[2i]        window of tier i in milliseconds
+-- ARGV[#ARGV]     tokens to charge (the request's cost, 1 for a plain request)
+--
+-- Windows are aligned to the epoch. start is the index of the current window, curr its
+-- count and prev the count of the window before. The rate over the last full window is
+-- estimated as prev * (unelapsed share of the current window) + curr.
+--
+-- Either every tier passes and all are charged, or nothing is charged.
+-- The clock is Redis TIME, so all gateway nodes share one time source.
+--
+-- Returns { allowed (1/0), first denying tier (0 if allowed),
+--           requests left in the tightest tier, ms until the request would pass (0 if allowed) }
+
+-- Redis < 5: TIME is non-deterministic, replicate the writes instead of the script
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local cost = tonumber(ARGV[#ARGV])
+
+local starts = {}
+local currs = {}
+local prevs = {}
+local denied = 0
+local retry_after = 0
+local remaining = -1
+
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[2 * i - 1])
+    local window = tonumber(ARGV[2 * i])
+    local index = math.floor(now / window)
+    local state = redis.call('HMGET', KEYS[i], 'start', 'curr', 'prev')
+    local start = tonumber(state[1])
+    local curr = tonumber(state[2]) or 0
+    local prev = tonumber(state[3]) or 0
+
+    -- Roll the windows forward
+    if start == index - 1 then
+        prev = curr
+        curr = 0
+    elseif start ~= index then
+        prev = 0
+        curr = 0
+    end
+    starts[i] = index
+    currs[i] = curr
+    prevs[i] = prev
+
+    local elapsed = now - index * window
+    local estimate = prev * (window - elapsed) / window + curr
+
+    local left
+    if estimate + cost > capacity then
+        if denied == 0 then
+            denied = i
+        end
+        -- Wait for the previous window's weight to decay, or into the next window
+        local wait
+        if curr + cost <= capacity then
+            wait = (window - elapsed) - (capacity - curr - cost) * window / prev
+        else
+            wait = (window - elapsed) + math.max(0, window - (capacity - cost) * window / curr)
+        end
+        retry_after = math.max(retry_after, math.ceil(wait))
+        left = math.max(0, math.floor(capacity - estimate))
+    else
+        left = math.floor(capacity - estimate - cost)
+    end
+    if remaining < 0 or left < remaining then
+        remaining = left
+    end
+end
+
+if denied == 0 then
+    for i = 1, #KEYS do
+        redis.call('HSET', KEYS[i], 'start', starts[i], 'curr', currs[i] + cost, 'prev', prevs[i])
+        -- The counts matter for two windows at most
+        redis.call('PEXPIRE', KEYS[i], 2 * tonumber(ARGV[2 * i]))
+    end
+end
+
+return { denied == 0 and 1 or 0, denied, remaining, retry_after }
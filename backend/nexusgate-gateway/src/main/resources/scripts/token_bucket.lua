@@ -0,0 +1,72 @@
+-- Multi-tier token bucket, evaluated atomically in one round trip.
+--
+-- KEYS[i]         bucket hash of tier i (fields: tokens, ts)
+-- ARGV[2i - 1]    capacity of tier i (tokens per window)
+-- ARGV[2i]        window of tier i in milliseconds
+-- ARGV[2n + 1]    tokens the request needs
+-- ARGV[2n + 2]    tokens wanted (optional, >= needed) - a lease takes up to this many
+--
+-- Either every tier has enough tokens and all are charged, or nothing is charged.
+-- A lease is charged min(wanted, tokens available in every tier), never less than needed.
+-- The clock is Redis TIME, so all gateway nodes share one time source.
+--
+-- Returns { tokens granted (0 if denied), first denying tier (0 if allowed),
+--           tokens left in the tightest tier, ms until the request would pass (0 if allowed) }
+
+-- Redis < 5: TIME is non-deterministic, replicate the writes instead of the script
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local cost = tonumber(ARGV[2 * #KEYS + 1])
+local wanted = math.max(cost, tonumber(ARGV[2 * #KEYS + 2]) or cost)
+
+local tokens = {}
+local denied = 0
+local retry_after = 0
+
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[2 * i - 1])
+    local window = tonumber(ARGV[2 * i])
+    local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+    local available = tonumber(state[1])
+    local last = tonumber(state[2])
+    if available == nil or last == nil then
+        available = capacity
+        last = now
+    end
+
+    -- Refill for the time elapsed since the last request, capped at capacity
+    available = math.min(capacity, available + math.max(0, now - last) * capacity / window)
+    tokens[i] = available
+
+    if available < cost then
+        if denied == 0 then
+            denied = i
+        end
+        retry_after = math.max(retry_after, math.ceil((cost - available) * window / capacity))
+    end
+end
+
+local granted = 0
+if denied == 0 then
+    granted = wanted
+    for i = 1, #KEYS do
+        granted = math.min(granted, math.floor(tokens[i]))
+    end
+end
+
+local remaining = -1
+for i = 1, #KEYS do
+    tokens[i] = tokens[i] - granted
+    redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i]), 'ts', now)
+    -- A bucket untouched for a full window is full again - no need to keep it
+    redis.call('PEXPIRE', KEYS[i], ARGV[2 * i])
+    if remaining < 0 or tokens[i] < remaining then
+        remaining = tokens[i]
+    end
+end
+
+return { granted, denied, math.floor(remaining), retry_after }
@@ -0,0 +1,32 @@
+-- Give unused leased tokens back to a multi-tier token bucket.
+--
+-- KEYS[i]         bucket hash of tier i (fields: tokens, ts)
+-- ARGV[2i - 1]    capacity of tier i (tokens per window)
+-- ARGV[2i]        window of tier i in milliseconds
+-- ARGV[#ARGV]     tokens to return
+--
+-- Each tier is refilled up to now first and never exceeds its capacity.
+-- A bucket that has already expired is full - nothing to return to.
+
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local returned = tonumber(ARGV[#ARGV])
+
+for i = 1, #KEYS do
+    local capacity = tonumber(ARGV[2 * i - 1])
+    local window = tonumber(ARGV[2 * i])
+    local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+    local available = tonumber(state[1])
+    local last = tonumber(state[2])
+    if available ~= nil and last ~= nil then
+        available = math.min(capacity, available + math.max(0, now - last) * capacity / window + returned)
+        redis.call('HSET', KEYS[i], 'tokens', tostring(available), 'ts', now)
+        redis.call('PEXPIRE', KEYS[i], ARGV[2 * i])
+    end
+end
+
+return 0
@@ -0,0 +1,69 @@
+package com.nexusgate.gateway.circuitbreaker;
+
+import com.nexusgate.gateway.routing.CompiledRoute;
+import com.nexusgate.gateway.routing.RouteSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerTest {
+
+    // Opens at 2 failed calls, half-opens right away, closes after 1 good trial
+    private static final CircuitBreakerConfig CONFIG = new CircuitBreakerConfig(50, 80, 10_000, 2, 10, 0, 1);
+
+    @Test
+    void lateResultOfAnEarlierStateIsNotATrial() {
+        CircuitBreaker breaker = new CircuitBreaker("route-1", CONFIG, null);
+        long late = breaker.tryAcquirePermission();
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        long trial = breaker.tryAcquirePermission();
+        assertNotEquals(CircuitBreaker.NO_PERMISSION, trial);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(late, 1, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(trial, 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void closingStartsWithAnEmptyWindow() {
+        CircuitBreaker breaker = new CircuitBreaker("route-1", CONFIG, null);
+        long late = breaker.tryAcquirePermission();
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // The failures before the breaker opened are not in the new window
+        breaker.onResult(late, 1, true);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void retainRemovesTransitionCountersForGood() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(meterRegistry, true, 50, 80, 10_000, 2, 10, 0, 1);
+        CompiledRoute route = mock(CompiledRoute.class);
+        when(route.getId()).thenReturn(1L);
+        when(route.getCircuitBreakerEnabled()).thenReturn(true);
+        CircuitBreaker breaker = registry.breakerFor(route);
+        assertTrue(meterRegistry.find("gateway.circuitbreaker.transitions").counters().size() > 0);
+
+        registry.retain(RouteSnapshot.EMPTY);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+        breaker.onResult(breaker.tryAcquirePermission(), 1, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(meterRegistry.find("gateway.circuitbreaker.transitions").counters().isEmpty());
+    }
+}
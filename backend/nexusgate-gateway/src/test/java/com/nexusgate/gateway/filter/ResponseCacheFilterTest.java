@@ -0,0 +1,91 @@
+package com.nexusgate.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexusgate.gateway.cache.CachedResponse;
+import com.nexusgate.gateway.cache.ResponseCache;
+import com.nexusgate.gateway.routing.CompiledRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hit/miss paths of ResponseCacheFilter against an in-memory ResponseCache (Redis tier off)
+ */
+class ResponseCacheFilterTest {
+
+    private static final long ROUTE_ID = 5;
+
+    private ResponseCache responseCache;
+    private ResponseCacheFilter filter;
+    private CompiledRoute route;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(null, new ObjectMapper(), new SimpleMeterRegistry(),
+                1 << 20, 1 << 16, false, 50);
+        filter = new ResponseCacheFilter(responseCache);
+        route = mock(CompiledRoute.class);
+        when(route.getId()).thenReturn(ROUTE_ID);
+        when(route.isCacheEnabled()).thenReturn(true);
+        when(route.isCacheSharedAcrossApiKeys()).thenReturn(true);
+        when(route.getCacheTtl()).thenReturn(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void hitIsServedWithoutReachingTheChain() {
+        long now = System.currentTimeMillis();
+        responseCache.store(ROUTE_ID + ":/items", new CachedResponse(200,
+                Map.of("Content-Type", List.of("text/plain")), "cached".getBytes(StandardCharsets.UTF_8),
+                Map.of(), now, now + 60_000));
+        MockServerWebExchange exchange = exchange();
+        AtomicInteger forwarded = new AtomicInteger();
+
+        StepVerifier.create(filter.filter(exchange, counting(forwarded))).verifyComplete();
+
+        assertEquals(0, forwarded.get(), "cache hit forwarded upstream");
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("HIT", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNext("cached")
+                .verifyComplete();
+    }
+
+    @Test
+    void missReachesTheChainOnce() {
+        MockServerWebExchange exchange = exchange();
+        AtomicInteger forwarded = new AtomicInteger();
+
+        StepVerifier.create(filter.filter(exchange, counting(forwarded))).verifyComplete();
+
+        assertEquals(1, forwarded.get());
+    }
+
+    private MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items"));
+        exchange.getAttributes().put("compiledRoute", route);
+        return exchange;
+    }
+
+    private static GatewayFilterChain counting(AtomicInteger forwarded) {
+        return exchange -> {
+            forwarded.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package com.nexusgate.gateway.peer;
+
+import com.nexusgate.gateway.redis.RateLimitDecision;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Multi-node harness for peer-to-peer rate limiting: N PeerCounters exchange
+ * GossipCodec-encoded deltas in memory on a simulated clock (no sockets, no Spring).
+ * Checks that merged counts converge and that over-admission stays within the documented
+ * bound of (nodes - 1) × per-node rate × gossip interval.
+ */
+class PeerGossipSimulationTest {
+
+    private static final long API_KEY_ID = 7;
+    private static final long ROUTE_ID = 3;
+    private static final String SECRET = "simulation-secret";
+
+    // Start of a minute window, so a run of a few seconds stays inside one window
+    private static final long START = 28_000_000L * 60_000L;
+    private static final int MINUTE = 0;
+
+    @Test
+    void convergesWithinOneRoundWithoutLoss() {
+        Cluster cluster = new Cluster(4, 0.0, 1);
+        for (int round = 0; round < 10; round++) {
+            cluster.offer(1, 50, new long[]{10_000, 0, 0});
+            cluster.gossip();
+        }
+
+        // Deltas of the last round were delivered - every node sees every admission
+        cluster.assertConverged();
+    }
+
+    @Test
+    void convergesWithinFullSyncRoundsUnderLoss() {
+        int fullSyncEvery = 5;
+        int maxRounds = 10 * fullSyncEvery;
+        Cluster cluster = new Cluster(4, 0.3, fullSyncEvery);
+        for (int round = 0; round < 10; round++) {
+            cluster.offer(1, 50, new long[]{10_000, 0, 0});
+            cluster.gossip();
+        }
+
+        int rounds = 0;
+        while (!cluster.isConverged()) {
+            assertTrue(rounds < maxRounds, "not converged after " + maxRounds + " gossip rounds");
+            cluster.tick(50);
+            cluster.gossip();
+            rounds++;
+        }
+        cluster.assertConverged();
+    }
+
+    @Test
+    void overAdmissionStaysWithinBound() {
+        int nodes = 5;
+        long limit = 600;
+        int perNodeRatePerMs = 1;
+        int intervalMs = 50;
+        Cluster cluster = new Cluster(nodes, 0.0, 20);
+        for (int round = 0; round < 60; round++) {
+            cluster.offer(perNodeRatePerMs, intervalMs, new long[]{limit, 0, 0});
+            cluster.gossip();
+        }
+
+        long admitted = cluster.admitted();
+        long bound = limit + (long) (nodes - 1) * perNodeRatePerMs * intervalMs;
+        assertTrue(admitted >= limit, "under-admitted: " + admitted + " < " + limit);
+        assertTrue(admitted <= bound, "over-admitted: " + admitted + " > " + bound);
+        cluster.assertConverged();
+    }
+
+    /**
+     * Nodes on one simulated clock; gossip mirrors PeerRateLimiter.gossip
+     */
+    private static final class Cluster {
+
+        private final List<Node> nodes = new ArrayList<>();
+        private final double loss;
+        private final int fullSyncEvery;
+        private final Random random = new Random(42);
+        private long now = START;
+        private long round;
+
+        Cluster(int size, double loss, int fullSyncEvery) {
+            for (int i = 0; i < size; i++) {
+                nodes.add(new Node("node-" + i, new PeerCounters(now), new GossipCodec("node-" + i, SECRET)));
+            }
+            this.loss = loss;
+            this.fullSyncEvery = fullSyncEvery;
+        }
+
+        /**
+         * {@code ratePerMs} requests per node every millisecond for {@code durationMs}
+         */
+        void offer(int ratePerMs, int durationMs, long[] limits) {
+            for (int ms = 0; ms < durationMs; ms++) {
+                for (Node node : nodes) {
+                    for (int i = 0; i < ratePerMs; i++) {
+                        RateLimitDecision decision = node.counters().tryAcquire(node.id(), limits, 1, now);
+                        if (decision.allowed()) {
+                            node.admitted++;
+                        }
+                    }
+                }
+                now++;
+            }
+        }
+
+        void tick(long ms) {
+            now += ms;
+        }
+
+        void gossip() {
+            boolean all = ++round % fullSyncEvery == 0;
+            for (Node sender : nodes) {
+                PeerCounters.Snapshot own = sender.counters().ownCounts(sender.id(), now, all);
+                if (own == null) {
+                    continue;
+                }
+                List<GossipCodec.Entry> entries = new ArrayList<>();
+                for (int tier = 0; tier < own.index().length; tier++) {
+                    if (own.current()[tier] > 0 || own.previous()[tier] > 0) {
+                        entries.add(new GossipCodec.Entry(API_KEY_ID, ROUTE_ID, tier,
+                                own.index()[tier], own.current()[tier], own.previous()[tier]));
+                    }
+                }
+                for (ByteBuffer datagram : sender.codec().encode(entries)) {
+                    for (Node receiver : nodes) {
+                        if (receiver == sender || random.nextDouble() < loss) {
+                            continue;
+                        }
+                        GossipCodec.Message message = receiver.codec().decode(datagram.duplicate());
+                        assertNotNull(message, "datagram rejected");
+                        for (GossipCodec.Entry entry : message.entries()) {
+                            receiver.counters().merge(message.nodeId(), entry.tier(), entry.windowIndex(),
+                                    entry.current(), entry.previous(), now);
+                        }
+                    }
+                }
+            }
+        }
+
+        long admitted() {
+            return nodes.stream().mapToLong(node -> node.admitted).sum();
+        }
+
+        boolean isConverged() {
+            long admitted = admitted();
+            return nodes.stream().allMatch(node -> node.counters().currentTotal(MINUTE, now) == admitted);
+        }
+
+        void assertConverged() {
+            long admitted = admitted();
+            for (Node node : nodes) {
+                assertEquals(admitted, node.counters().currentTotal(MINUTE, now), node.id() + " merged count");
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final String id;
+        private final PeerCounters counters;
+        private final GossipCodec codec;
+        private long admitted;
+
+        Node(String id, PeerCounters counters, GossipCodec codec) {
+            this.id = id;
+            this.counters = counters;
+            this.codec = codec;
+        }
+
+        String id() {
+            return id;
+        }
+
+        PeerCounters counters() {
+            return counters;
+        }
+
+        GossipCodec codec() {
+            return codec;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.nexusgate.gateway.redis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Accuracy harness for the three rate limit algorithms: the real Lua scripts
+ * (token_bucket.lua, gcra.lua, sliding_window.lua) run in SimulatedRedis and see the same
+ * seeded, bursty arrivals. Each is compared with an exact sliding log - at most
+ * LIMIT requests in any WINDOW-long interval - on the same arrivals:
+ * admitted total vs. the exact count, and the most requests admitted in any
+ * WINDOW-long interval.
+ */
+class RateLimitAlgorithmAccuracyTest {
+
+    private static final long API_KEY_ID = 7;
+    private static final long ROUTE_ID = 3;
+
+    private static final int LIMIT = 100;
+    private static final long WINDOW = 60_000;
+    private static final long HORIZON = 60 * WINDOW;
+    private static final long START = 28_000_000L * WINDOW;
+
+    private static List<Long> arrivals;
+    private static int exact;
+
+    @BeforeAll
+    static void arrivals() {
+        arrivals = burstyArrivals(new Random(42));
+        exact = exactSlidingLog(arrivals);
+    }
+
+    @Test
+    void tokenBucket() {
+        Result result = run("scripts/token_bucket.lua", "rate:bucket", "1", "1");
+        report("TOKEN_BUCKET", result);
+        assertTrue(result.worstWindow() <= 2 * LIMIT, "worst window " + result.worstWindow());
+        assertTrue(result.admitted() >= exact, "admitted " + result.admitted() + " < exact " + exact);
+    }
+
+    @Test
+    void gcraAdmitsTheSameRequestsAsTheTokenBucket() {
+        Result bucket = run("scripts/token_bucket.lua", "rate:bucket", "1", "1");
+        Result gcra = run("scripts/gcra.lua", "rate:gcra", "1");
+        report("GCRA", gcra);
+        assertEquals(bucket.admittedAt(), gcra.admittedAt());
+    }
+
+    @Test
+    void slidingWindow() {
+        Result result = run("scripts/sliding_window.lua", "rate:window", "1");
+        report("SLIDING_WINDOW", result);
+        assertTrue(result.worstWindow() < 2 * LIMIT, "worst window " + result.worstWindow());
+        assertTrue(Math.abs(result.admitted() - exact) <= exact / 20,
+                "admitted " + result.admitted() + " vs exact " + exact);
+    }
+
+    private static Result run(String script, String keyPrefix, String... extraArgs) {
+        SimulatedRedis redis = new SimulatedRedis(START);
+        RateLimitTiers tiers = RateLimitTiers.of(keyPrefix, API_KEY_ID, ROUTE_ID, LIMIT, null, null);
+        List<Long> admitted = new ArrayList<>();
+        for (long at : arrivals) {
+            redis.setTime(at);
+            RateLimitDecision decision = tiers.toDecision(redis.eval(script, tiers.keys(), tiers.argsWith(extraArgs)));
+            if (decision.allowed()) {
+                admitted.add(at);
+            }
+        }
+        return new Result(admitted, worstWindow(admitted));
+    }
+
+    /**
+     * Bursts of 1-120 requests (1 ms apart) with exponential gaps of 20 s on average:
+     * about 1.8 × LIMIT offered per window, unevenly
+     */
+    private static List<Long> burstyArrivals(Random random) {
+        List<Long> arrivals = new ArrayList<>();
+        long at = START;
+        while (true) {
+            at += (long) (-Math.log(1 - random.nextDouble()) * 20_000);
+            int burst = 1 + random.nextInt(120);
+            if (at + burst >= START + HORIZON) {
+                return arrivals;
+            }
+            for (int i = 0; i < burst; i++) {
+                arrivals.add(at + i);
+            }
+            at += burst;
+        }
+    }
+
+    /**
+     * Requests an exact limiter admits: at most LIMIT in any WINDOW-long interval
+     */
+    private static int exactSlidingLog(List<Long> arrivals) {
+        Deque<Long> log = new ArrayDeque<>();
+        int admitted = 0;
+        for (long at : arrivals) {
+            while (!log.isEmpty() && log.peekFirst() <= at - WINDOW) {
+                log.pollFirst();
+            }
+            if (log.size() < LIMIT) {
+                log.addLast(at);
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private static int worstWindow(List<Long> admitted) {
+        int worst = 0;
+        int first = 0;
+        for (int last = 0; last < admitted.size(); last++) {
+            while (admitted.get(first) <= admitted.get(last) - WINDOW) {
+                first++;
+            }
+            worst = Math.max(worst, last - first + 1);
+        }
+        return worst;
+    }
+
+    private static void report(String algorithm, Result result) {
+        System.out.printf("%-15s offered=%d exact=%d admitted=%d error=%+.1f%% worstWindow=%d (limit %d)%n",
+                algorithm, arrivals.size(), exact, result.admitted(),
+                100.0 * (result.admitted() - exact) / exact, result.worstWindow(), LIMIT);
+    }
+
+    private record Result(List<Long> admittedAt, int worstWindow) {
+
+        int admitted() {
+            return admittedAt.size();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.nexusgate.gateway.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitDenialCacheTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    private final RateLimitDenialCache cache = new RateLimitDenialCache(new SimpleMeterRegistry(), true, 60_000, 100);
+
+    @Test
+    void cachedRejectionReportsTheRealRefillNotTheCacheLifetime() {
+        cache.put(7L, 3L, 10, 100, 1000, 1, new RateLimitDecision(false, "day", 0, HOUR_MS));
+
+        RateLimitDecision cached = cache.get(7L, 3L, 10, 100, 1000, 1);
+
+        assertNotNull(cached);
+        assertTrue(cached.retryAfterMs() > HOUR_MS - 1_000 && cached.retryAfterMs() <= HOUR_MS,
+                "retry-after " + cached.retryAfterMs());
+    }
+
+    @Test
+    void changedLimitsOrCheaperRequestsAreNotRejected() {
+        cache.put(7L, 3L, 10, 100, 1000, 5, new RateLimitDecision(false, "minute", 0, 30_000));
+
+        assertNull(cache.get(7L, 3L, 20, 100, 1000, 5));
+        cache.put(7L, 3L, 10, 100, 1000, 5, new RateLimitDecision(false, "minute", 0, 30_000));
+        assertNull(cache.get(7L, 3L, 10, 100, 1000, 1));
+    }
+}
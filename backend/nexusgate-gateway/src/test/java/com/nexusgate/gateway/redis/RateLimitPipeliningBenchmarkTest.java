@@ -0,0 +1,140 @@
+package com.nexusgate.gateway.redis;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import reactor.core.publisher.Flux;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and latency of RateLimitScriptExecutor with pipelining on and off: a closed
+ * loop of token_bucket.lua calls over 1000 keys at several concurrency levels.
+ *
+ * Opt-in, it takes a few minutes:
+ * <pre>
+ *   mvn test -Dtest=RateLimitPipeliningBenchmarkTest -Dbenchmark=true
+ * </pre>
+ * Runs against an embedded redis-server on localhost unless
+ * {@code -Dbenchmark.redis.url=redis://host:port} names another one - loopback has almost no
+ * round-trip time, so a Redis across the network shows more of the difference.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RateLimitPipeliningBenchmarkTest {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> SCRIPT =
+            (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+
+    private static final int KEYS = 1000;
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int CALLS = 200_000;
+    private static final int[] CONCURRENCY = {1, 16, 64, 256};
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveRedisTemplate<String, String> redisTemplate;
+    private static RateLimitTiers[] tiers;
+
+    @BeforeAll
+    static void start() throws IOException {
+        URI url = URI.create(System.getProperty("benchmark.redis.url", "redis://localhost:6399"));
+        if (System.getProperty("benchmark.redis.url") == null) {
+            server = new RedisServer(url.getPort());
+            server.start();
+        }
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(url.getHost(), url.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.string());
+
+        tiers = new RateLimitTiers[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            // Never denies - every call runs the full script
+            tiers[i] = RateLimitTiers.of("benchmark:bucket", (long) i, 1L, Integer.MAX_VALUE, null, null);
+        }
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void pipeliningOnVsOff() {
+        System.out.printf("%-11s %-9s %10s %9s %9s %9s%n", "concurrency", "mode", "ops/s", "p50 us", "p99 us", "batch");
+        for (int concurrency : CONCURRENCY) {
+            for (boolean pipelining : new boolean[]{false, true}) {
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                RateLimitScriptExecutor executor = executor(meterRegistry, pipelining);
+                try {
+                    run(executor, concurrency, WARMUP_CALLS);
+                    DistributionSummary batches = meterRegistry.get("gateway.ratelimit.redis.batch.size").summary();
+                    long warmupBatches = batches.count();
+                    double warmupBatched = batches.totalAmount();
+                    Result result = run(executor, concurrency, CALLS);
+
+                    if (pipelining) {
+                        assertTrue(batches.count() > warmupBatches, "pipelined connection not used");
+                    }
+                    double meanBatch = batches.count() > warmupBatches
+                            ? (batches.totalAmount() - warmupBatched) / (batches.count() - warmupBatches) : 1;
+                    System.out.printf("%-11d %-9s %10.0f %9.0f %9.0f %9.1f%n", concurrency,
+                            pipelining ? "pipelined" : "direct", result.opsPerSecond(),
+                            result.p50Nanos() / 1000.0, result.p99Nanos() / 1000.0, meanBatch);
+                } finally {
+                    executor.close();
+                }
+            }
+        }
+    }
+
+    private static RateLimitScriptExecutor executor(SimpleMeterRegistry meterRegistry, boolean pipelining) {
+        RedisAvailability availability = new RedisAvailability(redisTemplate, meterRegistry, 3, 100, 3);
+        return new RateLimitScriptExecutor(redisTemplate, connectionFactory, availability, meterRegistry,
+                pipelining, 64, 200, Duration.ofSeconds(3));
+    }
+
+    private static Result run(RateLimitScriptExecutor executor, int concurrency, int calls) {
+        long[] latencies = new long[calls];
+        long start = System.nanoTime();
+        Long completed = Flux.range(0, calls)
+                .flatMap(i -> {
+                    RateLimitTiers key = tiers[i % KEYS];
+                    long sent = System.nanoTime();
+                    return executor.execute(SCRIPT, key.keys(), key.argsWith("1", "1"))
+                            .doOnNext(result -> latencies[i] = System.nanoTime() - sent);
+                }, concurrency)
+                .count()
+                .block();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(calls, completed);
+
+        Arrays.sort(latencies);
+        return new Result(calls * 1e9 / elapsed, latencies[calls / 2], latencies[(int) (calls * 0.99)]);
+    }
+
+    private record Result(double opsPerSecond, long p50Nanos, long p99Nanos) {}
+}
@@ -0,0 +1,152 @@
+package com.nexusgate.gateway.redis;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory stand-in for Redis that runs the gateway's rate limit scripts (luaj) on a
+ * simulated clock. Supports the commands the scripts use: TIME, GET, SET .. PX, HMGET,
+ * HSET, PEXPIRE. Values are strings as in Redis; script results are truncated to integers
+ * the way Redis converts Lua numbers.
+ */
+final class SimulatedRedis {
+
+    private final Globals globals = JsePlatform.standardGlobals();
+    private final Map<String, LuaValue> scripts = new HashMap<>();
+    private final Map<String, Object> values = new HashMap<>();
+    private final Map<String, Long> expiresAt = new HashMap<>();
+    private long nowMillis;
+
+    SimulatedRedis(long startMillis) {
+        this.nowMillis = startMillis;
+        LuaTable redis = new LuaTable();
+        redis.set("call", new VarArgFunction() {
+            @Override
+            public Varargs invoke(Varargs args) {
+                return command(args);
+            }
+        });
+        globals.set("redis", redis);
+    }
+
+    void setTime(long millis) {
+        this.nowMillis = millis;
+    }
+
+    /**
+     * Runs a classpath script (e.g. scripts/gcra.lua) like EVALSHA
+     */
+    List<Long> eval(String script, List<String> keys, List<String> args) {
+        LuaValue chunk = scripts.computeIfAbsent(script, this::load);
+        globals.set("KEYS", table(keys));
+        globals.set("ARGV", table(args));
+        LuaValue result = chunk.call();
+        List<Long> decoded = new ArrayList<>(result.length());
+        for (int i = 1; i <= result.length(); i++) {
+            decoded.add(result.get(i).tolong());
+        }
+        return decoded;
+    }
+
+    private LuaValue load(String script) {
+        try (InputStream in = SimulatedRedis.class.getClassLoader().getResourceAsStream(script)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No script " + script);
+            }
+            return globals.load(new String(in.readAllBytes(), StandardCharsets.UTF_8), script);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Varargs command(Varargs args) {
+        String command = args.checkjstring(1).toUpperCase();
+        switch (command) {
+            case "TIME":
+                return LuaValue.listOf(new LuaValue[]{
+                        LuaValue.valueOf(String.valueOf(nowMillis / 1000)),
+                        LuaValue.valueOf(String.valueOf(nowMillis % 1000 * 1000))});
+            case "GET": {
+                Object value = live(args.checkjstring(2));
+                return value instanceof String string ? LuaValue.valueOf(string) : LuaValue.FALSE;
+            }
+            case "SET": {
+                String key = args.checkjstring(2);
+                values.put(key, args.arg(3).tojstring());
+                expiresAt.remove(key);
+                for (int i = 4; i < args.narg(); i++) {
+                    if (args.arg(i).tojstring().equalsIgnoreCase("PX")) {
+                        expiresAt.put(key, nowMillis + args.arg(i + 1).tolong());
+                    }
+                }
+                return LuaValue.valueOf("OK");
+            }
+            case "HMGET": {
+                Map<String, String> hash = hash(args.checkjstring(2), false);
+                LuaTable fields = new LuaTable();
+                for (int i = 3; i <= args.narg(); i++) {
+                    String value = hash != null ? hash.get(args.arg(i).tojstring()) : null;
+                    fields.set(i - 2, value != null ? LuaValue.valueOf(value) : LuaValue.FALSE);
+                }
+                return fields;
+            }
+            case "HSET": {
+                Map<String, String> hash = hash(args.checkjstring(2), true);
+                for (int i = 3; i < args.narg(); i += 2) {
+                    hash.put(args.arg(i).tojstring(), args.arg(i + 1).tojstring());
+                }
+                return LuaValue.ONE;
+            }
+            case "PEXPIRE": {
+                String key = args.checkjstring(2);
+                if (live(key) == null) {
+                    return LuaValue.ZERO;
+                }
+                expiresAt.put(key, nowMillis + args.arg(3).tolong());
+                return LuaValue.ONE;
+            }
+            default:
+                throw new UnsupportedOperationException(command);
+        }
+    }
+
+    private Object live(String key) {
+        Long expiry = expiresAt.get(key);
+        if (expiry != null && expiry <= nowMillis) {
+            values.remove(key);
+            expiresAt.remove(key);
+        }
+        return values.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> hash(String key, boolean create) {
+        Object value = live(key);
+        if (value == null && create) {
+            value = new HashMap<String, String>();
+            values.put(key, value);
+        }
+        return (Map<String, String>) value;
+    }
+
+    private static LuaTable table(List<String> values) {
+        LuaTable table = new LuaTable();
+        for (int i = 0; i < values.size(); i++) {
+            table.set(i + 1, LuaValue.valueOf(values.get(i)));
+        }
+        return table;
+    }
+}
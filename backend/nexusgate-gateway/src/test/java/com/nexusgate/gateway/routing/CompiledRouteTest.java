@@ -0,0 +1,46 @@
+package com.nexusgate.gateway.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexusgate.gateway.dto.ServiceRouteResponse;
+import com.nexusgate.gateway.loadbalancer.EndpointStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledRouteTest {
+
+    @Test
+    void rateLimitCostChargesEachStartedKib() {
+        CompiledRoute route = route(2);
+
+        assertEquals(1 + 2, route.rateLimitCost(HttpMethod.POST, contentLength(1), 0));
+        assertEquals(1 + 2 * 2, route.rateLimitCost(HttpMethod.POST, contentLength(1025), 0));
+    }
+
+    @Test
+    void hugeContentLengthSaturatesInsteadOfOverflowing() {
+        CompiledRoute route = route(Integer.MAX_VALUE);
+
+        assertEquals(CompiledRoute.MAX_RATE_LIMIT_COST,
+                route.rateLimitCost(HttpMethod.POST, contentLength(Long.MAX_VALUE), 0));
+        assertEquals(CompiledRoute.MAX_RATE_LIMIT_COST,
+                route.rateLimitCost(HttpMethod.POST, contentLength(Long.MAX_VALUE - 1000), 0));
+    }
+
+    private static CompiledRoute route(int costPerKb) {
+        ServiceRouteResponse response = new ServiceRouteResponse();
+        response.setId(1L);
+        response.setPublicPath("/api/**");
+        response.setTargetUrl("http://localhost:8081");
+        response.setRateLimitCostPerKb(costPerKb);
+        return CompiledRoute.compile(response, new ObjectMapper(), EndpointStats::new);
+    }
+
+    private static HttpHeaders contentLength(long length) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(length);
+        return headers;
+    }
+}
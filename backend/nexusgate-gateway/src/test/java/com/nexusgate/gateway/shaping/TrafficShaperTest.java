@@ -0,0 +1,41 @@
+package com.nexusgate.gateway.shaping;
+
+import com.nexusgate.gateway.redis.RateLimitDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficShaperTest {
+
+    private static final RateLimitDecision DENIED = new RateLimitDecision(false, "minute", 0, 0);
+
+    private final TrafficShaper shaper = new TrafficShaper(new SimpleMeterRegistry(), 5, 100);
+
+    @AfterEach
+    void stop() {
+        shaper.stop();
+    }
+
+    @Test
+    void cancelledRequestGivesItsSlotToTheNextOne() {
+        // Slots 1 s apart: the first leaves now, the second is due in 1 s
+        RateLimitDecision first = shaper.shape("7:3", 1000, 5000, DENIED, () -> Mono.just(RateLimitDecision.ALLOWED))
+                .block(Duration.ofSeconds(2));
+        Disposable second = shaper.shape("7:3", 1000, 5000, DENIED, () -> Mono.just(RateLimitDecision.ALLOWED))
+                .subscribe();
+        second.dispose();
+
+        // Without the freed slot, the next one would be 2 s out - past its 1.5 s maximum
+        RateLimitDecision third = shaper.shape("7:3", 1000, 1500, DENIED, () -> Mono.just(RateLimitDecision.ALLOWED))
+                .block(Duration.ofSeconds(3));
+
+        assertTrue(first.allowed());
+        assertTrue(third.allowed());
+    }
+}